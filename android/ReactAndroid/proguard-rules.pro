@@ -51,6 +51,10 @@
 -keepclassmembers,includedescriptorclasses class * { native <methods>; }
 -keepclassmembers class *  { @com.facebook.react.uimanager.annotations.ReactProp <methods>; }
 -keepclassmembers class *  { @com.facebook.react.uimanager.annotations.ReactPropGroup <methods>; }
+# Generated prop setters are looked up by the name of their view manager or shadow node.
+-keepnames class * extends com.facebook.react.uimanager.ViewManager
+-keepnames class * implements com.facebook.react.uimanager.ReactShadowNode
+-keep class **$$PropsSetter { <init>(); }
 
 -dontwarn com.facebook.react.**
 -keep,includedescriptorclasses class com.facebook.react.bridge.** { *; }
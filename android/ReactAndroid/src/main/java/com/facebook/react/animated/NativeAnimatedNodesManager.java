@@ -27,11 +27,9 @@ import com.facebook.react.uimanager.events.EventDispatcherListener;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
-import java.util.Queue;
 
 import javax.annotation.Nullable;
 
@@ -60,7 +58,9 @@ import javax.annotation.Nullable;
   private final UIImplementation mUIImplementation;
   private int mAnimatedGraphBFSColor = 0;
   // Used to avoid allocating a new array on every frame in `runUpdates` and `onEventDispatch`.
-  private final List<AnimatedNode> mRunUpdateNodeList = new LinkedList<>();
+  private final List<AnimatedNode> mRunUpdateNodeList = new ArrayList<>();
+  // Queue reused by both BFSes in `updateNodes`, it's always empty once they're done.
+  private final ArrayDeque<AnimatedNode> mNodesQueue = new ArrayDeque<>();
 
   public NativeAnimatedNodesManager(UIManagerModule uiManager) {
     mUIImplementation = uiManager.getUIImplementation();
@@ -406,7 +406,8 @@ import javax.annotation.Nullable;
       String eventName = mCustomEventNamesResolver.resolveCustomEventName(event.getEventName());
       List<EventAnimationDriver> driversForKey = mEventDrivers.get(event.getViewTag() + eventName);
       if (driversForKey != null) {
-        for (EventAnimationDriver driver : driversForKey) {
+        for (int i = 0; i < driversForKey.size(); i++) {
+          EventAnimationDriver driver = driversForKey.get(i);
           stopAnimationsForNode(driver.mValueNode);
           event.dispatch(driver);
           mRunUpdateNodeList.add(driver.mValueNode);
@@ -487,8 +488,11 @@ import javax.annotation.Nullable;
       mAnimatedGraphBFSColor++;
     }
 
-    Queue<AnimatedNode> nodesQueue = new ArrayDeque<>();
-    for (AnimatedNode node : nodes) {
+    ArrayDeque<AnimatedNode> nodesQueue = mNodesQueue;
+    // a previous update could have thrown half way through
+    nodesQueue.clear();
+    for (int i = 0; i < nodes.size(); i++) {
+      AnimatedNode node = nodes.get(i);
       if (node.mBFSColor != mAnimatedGraphBFSColor) {
         node.mBFSColor = mAnimatedGraphBFSColor;
         activeNodesCount++;
@@ -527,7 +531,8 @@ import javax.annotation.Nullable;
 
     // find nodes with zero "incoming nodes", those can be either nodes from `mUpdatedNodes` or
     // ones connected to active animations
-    for (AnimatedNode node : nodes) {
+    for (int i = 0; i < nodes.size(); i++) {
+      AnimatedNode node = nodes.get(i);
       if (node.mActiveIncomingNodes == 0 && node.mBFSColor != mAnimatedGraphBFSColor) {
         node.mBFSColor = mAnimatedGraphBFSColor;
         updatedNodesCount++;
@@ -9,13 +9,14 @@ package com.facebook.react.animated;
 
 import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.uimanager.ReactStylesDiffMap;
 import com.facebook.react.uimanager.UIImplementation;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
@@ -26,23 +27,41 @@ import javax.annotation.Nullable;
  */
 /*package*/ class PropsAnimatedNode extends AnimatedNode {
 
+  private static final String PROP_OPACITY = "opacity";
+  private static final String PROP_TRANSFORM = "transform";
+
+  private static final int TYPED_SETTERS_UNKNOWN = 0;
+  private static final int TYPED_SETTERS_SUPPORTED = 1;
+  private static final int TYPED_SETTERS_UNSUPPORTED = 2;
+
   private int mConnectedViewTag = -1;
   private final NativeAnimatedNodesManager mNativeAnimatedNodesManager;
   private final UIImplementation mUIImplementation;
-  private final Map<String, Integer> mPropNodeMapping;
+  // Prop keys and the tags of the nodes animating them, at matching indices.
+  private final String[] mPropNames;
+  private final int[] mPropNodeTags;
   // This is the backing map for `mDiffMap` we can mutate this to update it instead of having to
   // create a new one for each update.
   private final JavaOnlyMap mPropMap;
   private final ReactStylesDiffMap mDiffMap;
+  // If opacity and transform are the only animated props the view is updated through the view
+  // manager's typed setters instead of `mDiffMap`, these are then the tags of the nodes animating
+  // them or -1.
+  private int mTypedSettersState = TYPED_SETTERS_UNKNOWN;
+  private int mOpacityNodeTag = -1;
+  private int mTransformNodeTag = -1;
 
   PropsAnimatedNode(ReadableMap config, NativeAnimatedNodesManager nativeAnimatedNodesManager, UIImplementation uiImplementation) {
     ReadableMap props = config.getMap("props");
     ReadableMapKeySetIterator iter = props.keySetIterator();
-    mPropNodeMapping = new HashMap<>();
+    List<String> propNames = new ArrayList<>();
     while (iter.hasNextKey()) {
-      String propKey = iter.nextKey();
-      int nodeIndex = props.getInt(propKey);
-      mPropNodeMapping.put(propKey, nodeIndex);
+      propNames.add(iter.nextKey());
+    }
+    mPropNames = propNames.toArray(new String[propNames.size()]);
+    mPropNodeTags = new int[mPropNames.length];
+    for (int i = 0; i < mPropNames.length; i++) {
+      mPropNodeTags[i] = props.getInt(mPropNames[i]);
     }
     mPropMap = new JavaOnlyMap();
     mDiffMap = new ReactStylesDiffMap(mPropMap);
@@ -56,6 +75,8 @@ import javax.annotation.Nullable;
         "already attached to a view");
     }
     mConnectedViewTag = viewTag;
+    // the new view's manager might not support typed setters
+    mTypedSettersState = TYPED_SETTERS_UNKNOWN;
   }
 
   public void disconnectFromView(int viewTag) {
@@ -68,6 +89,14 @@ import javax.annotation.Nullable;
   }
 
   public void restoreDefaultValues() {
+    // values set through typed setters aren't in `mPropMap`
+    if (mOpacityNodeTag != -1) {
+      mPropMap.putNull(PROP_OPACITY);
+    }
+    if (mTransformNodeTag != -1) {
+      mPropMap.putNull(PROP_TRANSFORM);
+    }
+
     ReadableMapKeySetIterator it = mPropMap.keySetIterator();
     while(it.hasNextKey()) {
       mPropMap.putNull(it.nextKey());
@@ -82,14 +111,26 @@ import javax.annotation.Nullable;
     if (mConnectedViewTag == -1) {
       return;
     }
-    for (Map.Entry<String, Integer> entry : mPropNodeMapping.entrySet()) {
-      @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(entry.getValue());
+    if (mTypedSettersState == TYPED_SETTERS_UNKNOWN) {
+      mTypedSettersState = resolveTypedPropNodes()
+        ? TYPED_SETTERS_SUPPORTED
+        : TYPED_SETTERS_UNSUPPORTED;
+    }
+    if (mTypedSettersState == TYPED_SETTERS_SUPPORTED) {
+      if (updateViewWithTypedSetters()) {
+        return;
+      }
+      mTypedSettersState = TYPED_SETTERS_UNSUPPORTED;
+    }
+
+    for (int i = 0; i < mPropNames.length; i++) {
+      @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(mPropNodeTags[i]);
       if (node == null) {
         throw new IllegalArgumentException("Mapped property node does not exists");
       } else if (node instanceof StyleAnimatedNode) {
         ((StyleAnimatedNode) node).collectViewUpdates(mPropMap);
       } else if (node instanceof ValueAnimatedNode) {
-        mPropMap.putDouble(entry.getKey(), ((ValueAnimatedNode) node).getValue());
+        mPropMap.putDouble(mPropNames[i], ((ValueAnimatedNode) node).getValue());
       } else {
         throw new IllegalArgumentException("Unsupported type of node used in property node " +
             node.getClass());
@@ -100,4 +141,68 @@ import javax.annotation.Nullable;
       mConnectedViewTag,
       mDiffMap);
   }
+
+  private boolean updateViewWithTypedSetters() {
+    boolean hasOpacity = mOpacityNodeTag != -1;
+    float opacity = 0;
+    if (hasOpacity) {
+      AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(mOpacityNodeTag);
+      if (!(node instanceof ValueAnimatedNode)) {
+        throw new IllegalArgumentException("Mapped property node does not exists");
+      }
+      opacity = (float) ((ValueAnimatedNode) node).getValue();
+    }
+    @Nullable ReadableArray transform = null;
+    if (mTransformNodeTag != -1) {
+      AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(mTransformNodeTag);
+      if (!(node instanceof TransformAnimatedNode)) {
+        throw new IllegalArgumentException("Mapped style node does not exists");
+      }
+      transform = ((TransformAnimatedNode) node).getTransforms();
+    }
+
+    return mUIImplementation.synchronouslyUpdateViewOpacityAndTransformOnUIThread(
+      mConnectedViewTag,
+      hasOpacity,
+      opacity,
+      transform);
+  }
+
+  /**
+   * Finds the nodes animating opacity and transform. Returns false if any other prop is animated,
+   * in which case the view has to be updated through a props map.
+   */
+  private boolean resolveTypedPropNodes() {
+    mOpacityNodeTag = -1;
+    mTransformNodeTag = -1;
+    for (int i = 0; i < mPropNames.length; i++) {
+      AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(mPropNodeTags[i]);
+      if (node instanceof StyleAnimatedNode) {
+        StyleAnimatedNode styleNode = (StyleAnimatedNode) node;
+        for (int j = 0; j < styleNode.mPropNames.length; j++) {
+          if (!resolveTypedPropNode(styleNode.mPropNames[j], styleNode.mPropNodeTags[j])) {
+            return false;
+          }
+        }
+      } else if (!resolveTypedPropNode(mPropNames[i], mPropNodeTags[i])) {
+        return false;
+      }
+    }
+    return mOpacityNodeTag != -1 || mTransformNodeTag != -1;
+  }
+
+  private boolean resolveTypedPropNode(String propName, int nodeTag) {
+    AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(nodeTag);
+    if (PROP_OPACITY.equals(propName) && mOpacityNodeTag == -1 &&
+        node instanceof ValueAnimatedNode) {
+      mOpacityNodeTag = nodeTag;
+      return true;
+    }
+    if (PROP_TRANSFORM.equals(propName) && mTransformNodeTag == -1 &&
+        node instanceof TransformAnimatedNode) {
+      mTransformNodeTag = nodeTag;
+      return true;
+    }
+    return false;
+  }
 }
@@ -11,8 +11,8 @@ import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
@@ -22,29 +22,34 @@ import javax.annotation.Nullable;
 /*package*/ class StyleAnimatedNode extends AnimatedNode {
 
   private final NativeAnimatedNodesManager mNativeAnimatedNodesManager;
-  private final Map<String, Integer> mPropMapping;
+  // Style keys and the tags of the nodes animating them, at matching indices.
+  /*package*/ final String[] mPropNames;
+  /*package*/ final int[] mPropNodeTags;
 
   StyleAnimatedNode(ReadableMap config, NativeAnimatedNodesManager nativeAnimatedNodesManager) {
     ReadableMap style = config.getMap("style");
     ReadableMapKeySetIterator iter = style.keySetIterator();
-    mPropMapping = new HashMap<>();
+    List<String> propNames = new ArrayList<>();
     while (iter.hasNextKey()) {
-      String propKey = iter.nextKey();
-      int nodeIndex = style.getInt(propKey);
-      mPropMapping.put(propKey, nodeIndex);
+      propNames.add(iter.nextKey());
+    }
+    mPropNames = propNames.toArray(new String[propNames.size()]);
+    mPropNodeTags = new int[mPropNames.length];
+    for (int i = 0; i < mPropNames.length; i++) {
+      mPropNodeTags[i] = style.getInt(mPropNames[i]);
     }
     mNativeAnimatedNodesManager = nativeAnimatedNodesManager;
   }
 
   public void collectViewUpdates(JavaOnlyMap propsMap) {
-    for (Map.Entry<String, Integer> entry : mPropMapping.entrySet()) {
-      @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(entry.getValue());
+    for (int i = 0; i < mPropNames.length; i++) {
+      @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(mPropNodeTags[i]);
       if (node == null) {
         throw new IllegalArgumentException("Mapped style node does not exists");
       } else if (node instanceof TransformAnimatedNode) {
         ((TransformAnimatedNode) node).collectViewUpdates(propsMap);
       } else if (node instanceof ValueAnimatedNode) {
-        propsMap.putDouble(entry.getKey(), ((ValueAnimatedNode) node).getValue());
+        propsMap.putDouble(mPropNames[i], ((ValueAnimatedNode) node).getValue());
       } else {
         throw new IllegalArgumentException("Unsupported type of node used in property node " +
           node.getClass());
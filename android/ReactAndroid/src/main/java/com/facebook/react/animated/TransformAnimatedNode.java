@@ -13,6 +13,7 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -34,6 +35,10 @@ import java.util.List;
 
   private final NativeAnimatedNodesManager mNativeAnimatedNodesManager;
   private final List<TransformConfig> mTransformConfigs;
+  // Maps backing `mTransforms`, one per transform config. They're updated in place on each frame
+  // instead of building a new array.
+  private final JavaOnlyMap[] mTransformMaps;
+  private final JavaOnlyArray mTransforms;
 
   TransformAnimatedNode(ReadableMap config, NativeAnimatedNodesManager nativeAnimatedNodesManager) {
     ReadableArray transforms = config.getArray("transforms");
@@ -55,12 +60,23 @@ import java.util.List;
       }
     }
     mNativeAnimatedNodesManager = nativeAnimatedNodesManager;
+    mTransformMaps = new JavaOnlyMap[mTransformConfigs.size()];
+    for (int i = 0; i < mTransformMaps.length; i++) {
+      mTransformMaps[i] = new JavaOnlyMap();
+    }
+    mTransforms = JavaOnlyArray.from(Arrays.asList(mTransformMaps));
   }
 
   public void collectViewUpdates(JavaOnlyMap propsMap) {
-    List<JavaOnlyMap> transforms = new ArrayList<>(mTransformConfigs.size());
+    propsMap.putArray("transform", getTransforms());
+  }
 
-    for (TransformConfig transformConfig : mTransformConfigs) {
+  /**
+   * Returns the current transforms. The array is reused, it's only valid until the next call.
+   */
+  public ReadableArray getTransforms() {
+    for (int i = 0; i < mTransformMaps.length; i++) {
+      TransformConfig transformConfig = mTransformConfigs.get(i);
       double value;
       if (transformConfig instanceof AnimatedTransformConfig) {
         int nodeTag = ((AnimatedTransformConfig) transformConfig).mNodeTag;
@@ -77,9 +93,9 @@ import java.util.List;
         value = ((StaticTransformConfig) transformConfig).mValue;
       }
 
-      transforms.add(JavaOnlyMap.of(transformConfig.mProperty, value));
+      mTransformMaps[i].putDouble(transformConfig.mProperty, value);
     }
 
-    propsMap.putArray("transform", JavaOnlyArray.from(transforms));
+    return mTransforms;
   }
 }
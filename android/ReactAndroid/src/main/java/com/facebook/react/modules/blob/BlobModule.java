@@ -15,7 +15,9 @@ import android.provider.MediaStore;
 import android.support.annotation.Nullable;
 import android.webkit.MimeTypeMap;
 
+import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.GuardedAsyncTask;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
@@ -23,34 +25,55 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.MapBuilder;
+import com.facebook.react.common.ReactConstants;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.modules.network.NetworkingModule;
 import com.facebook.react.modules.websocket.WebSocketModule;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
+import java.io.SequenceInputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
 import okio.ByteString;
+import okio.Okio;
+import okio.Source;
 
 @ReactModule(name = BlobModule.NAME)
 public class BlobModule extends ReactContextBaseJavaModule {
 
   protected static final String NAME = "BlobModule";
 
-  private final Map<String, byte[]> mBlobs = new HashMap<>();
+  /**
+   * Total size of the blobs kept on the Java heap, larger amounts of data are spilled to disk.
+   */
+  public static final long DEFAULT_MEMORY_BUDGET_BYTES = 16 * 1024 * 1024;
+
+  /**
+   * Blobs at least this large are always spilled to disk.
+   */
+  public static final long DEFAULT_SPILL_THRESHOLD_BYTES = 1024 * 1024;
+
+  private static final String SPILL_DIRECTORY = "blobs";
+
+  // Spill directories of the instances alive in this process, any other one is left over
+  private static final Set<String> sActiveSpillDirectories = new HashSet<>();
+
+  private final String mSpillDirectoryName;
+  private final BlobStore mBlobs;
 
   private final WebSocketModule.ContentHandler mWebSocketContentHandler =
     new WebSocketModule.ContentHandler() {
@@ -86,12 +109,22 @@ public class BlobModule extends ReactContextBaseJavaModule {
 
       @Override
       public WritableMap fetch(Uri uri) throws IOException {
-        byte[] data = getBytesFromUri(uri);
+        InputStream is = getReactApplicationContext().getContentResolver().openInputStream(uri);
+        if (is == null) {
+          throw new FileNotFoundException("File not found for " + uri);
+        }
+
+        String blobId = UUID.randomUUID().toString();
+        try {
+          mBlobs.put(blobId, is);
+        } finally {
+          is.close();
+        }
 
         WritableMap blob = Arguments.createMap();
-        blob.putString("blobId", store(data));
+        blob.putString("blobId", blobId);
         blob.putInt("offset", 0);
-        blob.putInt("size", data.length);
+        blob.putInt("size", (int) mBlobs.size(blobId));
         blob.putString("type", getMimeTypeFromUri(uri));
 
         // Needed for files
@@ -119,13 +152,43 @@ public class BlobModule extends ReactContextBaseJavaModule {
           type = "application/octet-stream";
         }
         ReadableMap blob = data.getMap("blob");
-        String blobId = blob.getString("blobId");
-        byte[] bytes = resolve(
-          blobId,
-          blob.getInt("offset"),
-          blob.getInt("size"));
+        final String blobId = blob.getString("blobId");
+        final int offset = blob.getInt("offset");
+        final int size = blob.getInt("size");
+
+        File file = mBlobs.getFile(blobId);
+        if (file == null) {
+          byte[] bytes = resolve(blobId, offset, size);
+          return RequestBody.create(MediaType.parse(type), bytes);
+        }
 
-        return RequestBody.create(MediaType.parse(type), bytes);
+        // Stream spilled blobs from disk instead of loading them to build the request
+        final MediaType mediaType = MediaType.parse(type);
+        return new RequestBody() {
+          @Override
+          public MediaType contentType() {
+            return mediaType;
+          }
+
+          @Override
+          public long contentLength() {
+            return size;
+          }
+
+          @Override
+          public void writeTo(BufferedSink sink) throws IOException {
+            InputStream is = mBlobs.openInputStream(blobId, offset, size);
+            if (is == null) {
+              throw new FileNotFoundException("Blob " + blobId + " was released");
+            }
+            Source source = Okio.source(is);
+            try {
+              sink.writeAll(source);
+            } finally {
+              source.close();
+            }
+          }
+        };
       }
     };
 
@@ -138,17 +201,75 @@ public class BlobModule extends ReactContextBaseJavaModule {
 
       @Override
       public WritableMap toResponseData(ResponseBody body) throws IOException {
-        byte[] data = body.bytes();
+        String blobId = UUID.randomUUID().toString();
+        InputStream is = body.byteStream();
+        try {
+          mBlobs.put(blobId, is);
+        } finally {
+          is.close();
+        }
         WritableMap blob = Arguments.createMap();
-        blob.putString("blobId", store(data));
+        blob.putString("blobId", blobId);
         blob.putInt("offset", 0);
-        blob.putInt("size", data.length);
+        blob.putInt("size", (int) mBlobs.size(blobId));
         return blob;
       }
     };
 
   public BlobModule(ReactApplicationContext reactContext) {
+    this(reactContext, DEFAULT_MEMORY_BUDGET_BYTES, DEFAULT_SPILL_THRESHOLD_BYTES);
+  }
+
+  /**
+   * @param memoryBudgetBytes total size of the blobs kept in memory before spilling to disk
+   * @param spillThresholdBytes size from which blobs are always spilled to disk
+   */
+  public BlobModule(
+      ReactApplicationContext reactContext, long memoryBudgetBytes, long spillThresholdBytes) {
     super(reactContext);
+    // Each instance gets its own directory as several React instances can be alive at once
+    mSpillDirectoryName = UUID.randomUUID().toString();
+    final File spillRoot = new File(reactContext.getCacheDir(), SPILL_DIRECTORY);
+    synchronized (sActiveSpillDirectories) {
+      sActiveSpillDirectories.add(mSpillDirectoryName);
+    }
+    mBlobs = new BlobStore(
+      new File(spillRoot, mSpillDirectoryName), memoryBudgetBytes, spillThresholdBytes);
+
+    // Directories of instances that were never destroyed, e.g. when the process was killed
+    new GuardedAsyncTask<Void, Void>(reactContext) {
+      @Override
+      protected void doInBackgroundGuarded(Void... params) {
+        deleteStaleSpillDirectories(spillRoot);
+      }
+    }.executeOnExecutor(GuardedAsyncTask.THREAD_POOL_EXECUTOR);
+  }
+
+  private static void deleteStaleSpillDirectories(File spillRoot) {
+    File[] directories = spillRoot.listFiles();
+    if (directories == null) {
+      return;
+    }
+    for (File directory : directories) {
+      synchronized (sActiveSpillDirectories) {
+        if (sActiveSpillDirectories.contains(directory.getName())) {
+          continue;
+        }
+      }
+      deleteRecursively(directory);
+    }
+  }
+
+  private static void deleteRecursively(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    if (!file.delete()) {
+      FLog.w(ReactConstants.TAG, "Could not delete stale blob file " + file);
+    }
   }
 
   @Override
@@ -181,58 +302,69 @@ public class BlobModule extends ReactContextBaseJavaModule {
     mBlobs.put(blobId, data);
   }
 
+  /**
+   * Stores the contents of the stream without buffering all of it in memory. The stream is read to
+   * its end but not closed.
+   */
+  public void store(InputStream inputStream, String blobId) throws IOException {
+    mBlobs.put(blobId, inputStream);
+  }
+
   public void remove(String blobId) {
     mBlobs.remove(blobId);
   }
 
   public @Nullable byte[] resolve(Uri uri) {
     String blobId = uri.getLastPathSegment();
-    int offset = 0;
-    int size = -1;
-    String offsetParam = uri.getQueryParameter("offset");
-    if (offsetParam != null) {
-      offset = Integer.parseInt(offsetParam, 10);
-    }
-    String sizeParam = uri.getQueryParameter("size");
-    if (sizeParam != null) {
-      size = Integer.parseInt(sizeParam, 10);
-    }
-    return resolve(blobId, offset, size);
+    return resolve(blobId, getOffsetFromUri(uri), getSizeFromUri(uri));
   }
 
   public @Nullable byte[] resolve(String blobId, int offset, int size) {
-    byte[] data = mBlobs.get(blobId);
-    if (data == null) {
+    try {
+      return mBlobs.get(blobId, offset, size);
+    } catch (IOException e) {
+      FLog.e(ReactConstants.TAG, "Could not read blob " + blobId, e);
       return null;
     }
-    if (size == -1) {
-      size = data.length - offset;
-    }
-    if (offset > 0 || size != data.length) {
-      data = Arrays.copyOfRange(data, offset, offset + size);
-    }
-    return data;
   }
 
   public @Nullable byte[] resolve(ReadableMap blob) {
     return resolve(blob.getString("blobId"), blob.getInt("offset"), blob.getInt("size"));
   }
 
-  private byte[] getBytesFromUri(Uri contentUri) throws IOException {
-    InputStream is = getReactApplicationContext().getContentResolver().openInputStream(contentUri);
+  /**
+   * Opens a stream over the range of the blob referenced by the uri, without loading it in memory.
+   */
+  public @Nullable InputStream openInputStream(Uri uri) throws IOException {
+    String blobId = uri.getLastPathSegment();
+    return mBlobs.openInputStream(blobId, getOffsetFromUri(uri), getSizeFromUri(uri));
+  }
 
-    if (is == null) {
-      throw new FileNotFoundException("File not found for " + contentUri);
+  /**
+   * @return the file holding the blob referenced by the uri if the blob was spilled to disk and the
+   * uri covers all of it, so it can be handed out directly
+   */
+  public @Nullable File getFile(Uri uri) {
+    String blobId = uri.getLastPathSegment();
+    File file = mBlobs.getFile(blobId);
+    if (file == null || getOffsetFromUri(uri) != 0) {
+      return null;
     }
-
-    ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
-    int bufferSize = 1024;
-    byte[] buffer = new byte[bufferSize];
-    int len;
-    while ((len = is.read(buffer)) != -1) {
-      byteBuffer.write(buffer, 0, len);
+    int size = getSizeFromUri(uri);
+    if (size != -1 && size != mBlobs.size(blobId)) {
+      return null;
     }
-    return byteBuffer.toByteArray();
+    return file;
+  }
+
+  private static int getOffsetFromUri(Uri uri) {
+    String offsetParam = uri.getQueryParameter("offset");
+    return offsetParam != null ? Integer.parseInt(offsetParam, 10) : 0;
+  }
+
+  private static int getSizeFromUri(Uri uri) {
+    String sizeParam = uri.getQueryParameter("size");
+    return sizeParam != null ? Integer.parseInt(sizeParam, 10) : -1;
   }
 
   private String getNameFromUri(Uri contentUri) {
@@ -314,34 +446,55 @@ public class BlobModule extends ReactContextBaseJavaModule {
 
   @ReactMethod
   public void createFromParts(ReadableArray parts, String blobId) {
-    int totalBlobSize = 0;
-    ArrayList<byte[]> partList = new ArrayList<>(parts.size());
-    for (int i = 0; i < parts.size(); i++) {
-      ReadableMap part = parts.getMap(i);
-      switch (part.getString("type")) {
-        case "blob":
-          ReadableMap blob = part.getMap("data");
-          totalBlobSize += blob.getInt("size");
-          partList.add(i, resolve(blob));
-          break;
-        case "string":
-          byte[] bytes = part.getString("data").getBytes(Charset.forName("UTF-8"));
-          totalBlobSize += bytes.length;
-          partList.add(i, bytes);
-          break;
-        default:
-          throw new IllegalArgumentException("Invalid type for blob: " + part.getString("type"));
+    // Parts are streamed into the new blob so large blobs don't need to be loaded in memory
+    ArrayList<InputStream> partList = new ArrayList<>(parts.size());
+    try {
+      for (int i = 0; i < parts.size(); i++) {
+        ReadableMap part = parts.getMap(i);
+        switch (part.getString("type")) {
+          case "blob":
+            ReadableMap blob = part.getMap("data");
+            InputStream is = mBlobs.openInputStream(
+              blob.getString("blobId"),
+              blob.getInt("offset"),
+              blob.getInt("size"));
+            if (is == null) {
+              throw new IllegalArgumentException("Invalid blob: " + blob.getString("blobId"));
+            }
+            partList.add(is);
+            break;
+          case "string":
+            byte[] bytes = part.getString("data").getBytes(Charset.forName("UTF-8"));
+            partList.add(new ByteArrayInputStream(bytes));
+            break;
+          default:
+            throw new IllegalArgumentException("Invalid type for blob: " + part.getString("type"));
+        }
+      }
+      store(new SequenceInputStream(Collections.enumeration(partList)), blobId);
+    } catch (IOException e) {
+      // The blob is not stored, so reading it from JS fails as for any released blob
+      FLog.e(ReactConstants.TAG, "Could not create blob " + blobId, e);
+    } finally {
+      for (InputStream is : partList) {
+        try {
+          is.close();
+        } catch (IOException ignored) {
+        }
       }
     }
-    ByteBuffer buffer = ByteBuffer.allocate(totalBlobSize);
-    for (byte[] bytes : partList) {
-      buffer.put(bytes);
-    }
-    store(buffer.array(), blobId);
   }
 
   @ReactMethod
   public void release(String blobId) {
     remove(blobId);
   }
+
+  @Override
+  public void onCatalystInstanceDestroy() {
+    mBlobs.clear();
+    synchronized (sActiveSpillDirectories) {
+      sActiveSpillDirectories.remove(mSpillDirectoryName);
+    }
+  }
 }
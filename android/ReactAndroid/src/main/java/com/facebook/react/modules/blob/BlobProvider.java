@@ -16,12 +16,22 @@ import android.support.annotation.Nullable;
 import com.facebook.react.ReactApplication;
 import com.facebook.react.ReactNativeHost;
 import com.facebook.react.bridge.ReactContext;
+import java.io.Closeable;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public final class BlobProvider extends ContentProvider {
 
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  // Writers block until their reader drains the pipe, so they don't share the AsyncTask pool
+  private static final ExecutorService sPipeExecutor = Executors.newCachedThreadPool();
+
   @Override
   public boolean onCreate() {
     return true;
@@ -71,8 +81,19 @@ public final class BlobProvider extends ContentProvider {
       throw new RuntimeException("No blob module associated with BlobProvider");
     }
 
-    byte[] data = blobModule.resolve(uri);
-    if (data == null) {
+    // Blobs spilled to disk are handed out as is, without copying them
+    File file = blobModule.getFile(uri);
+    if (file != null) {
+      return ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY);
+    }
+
+    final InputStream inputStream;
+    try {
+      inputStream = blobModule.openInputStream(uri);
+    } catch (IOException exception) {
+      throw new FileNotFoundException("Cannot open " + uri.toString() + ": " + exception.getMessage());
+    }
+    if (inputStream == null) {
       throw new FileNotFoundException("Cannot open " + uri.toString() + ", blob not found.");
     }
 
@@ -80,19 +101,39 @@ public final class BlobProvider extends ContentProvider {
     try {
       pipe = ParcelFileDescriptor.createPipe();
     } catch (IOException exception) {
+      closeQuietly(inputStream);
       return null;
     }
     ParcelFileDescriptor readSide = pipe[0];
     ParcelFileDescriptor writeSide = pipe[1];
 
-    OutputStream outputStream = new ParcelFileDescriptor.AutoCloseOutputStream(writeSide);
-    try {
-      outputStream.write(data);
-      outputStream.close();
-    } catch (IOException exception) {
-      return null;
-    }
+    // The pipe only buffers a few kilobytes, so it has to be filled while the reader drains it
+    final OutputStream outputStream = new ParcelFileDescriptor.AutoCloseOutputStream(writeSide);
+    sPipeExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+          int read;
+          while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+          }
+        } catch (IOException exception) {
+          // The reader went away
+        } finally {
+          closeQuietly(inputStream);
+          closeQuietly(outputStream);
+        }
+      }
+    });
 
     return readSide;
   }
+
+  private static void closeQuietly(Closeable closeable) {
+    try {
+      closeable.close();
+    } catch (IOException ignored) {
+    }
+  }
 }
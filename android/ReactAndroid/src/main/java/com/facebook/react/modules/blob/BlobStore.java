@@ -0,0 +1,299 @@
+/**
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.facebook.react.modules.blob;
+
+import android.support.annotation.Nullable;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the contents of blobs for {@link BlobModule}. Blobs are kept in memory as long as they fit
+ * in the memory budget and are smaller than the spill threshold, anything else is written to a
+ * file in the cache directory and read back with ranged reads.
+ */
+/* package */ final class BlobStore {
+
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  private static final class Entry {
+    final @Nullable byte[] bytes;
+    final @Nullable File file;
+    final long size;
+
+    Entry(byte[] bytes) {
+      this.bytes = bytes;
+      this.file = null;
+      this.size = bytes.length;
+    }
+
+    Entry(File file, long size) {
+      this.bytes = null;
+      this.file = file;
+      this.size = size;
+    }
+  }
+
+  private final Map<String, Entry> mEntries = new HashMap<>();
+  private final File mSpillDirectory;
+  private final long mMemoryBudget;
+  private final long mSpillThreshold;
+  private long mMemorySize = 0;
+
+  BlobStore(File spillDirectory, long memoryBudget, long spillThreshold) {
+    mSpillDirectory = spillDirectory;
+    mMemoryBudget = memoryBudget;
+    mSpillThreshold = spillThreshold;
+  }
+
+  void put(String blobId, byte[] data) {
+    if (shouldSpill(data.length)) {
+      File file = null;
+      try {
+        file = createSpillFile(blobId);
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+          outputStream.write(data);
+        } finally {
+          outputStream.close();
+        }
+        putEntry(blobId, new Entry(file, data.length));
+        return;
+      } catch (IOException e) {
+        FLog.w(ReactConstants.TAG, "Could not spill blob to disk, keeping it in memory", e);
+        if (file != null) {
+          file.delete();
+        }
+      }
+    }
+    putEntry(blobId, new Entry(data));
+  }
+
+  /**
+   * Reads the stream to its end and stores its contents. The data is buffered in memory until it
+   * grows past the spill threshold, at which point it is streamed into a file instead.
+   */
+  void put(String blobId, InputStream inputStream) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    ByteArrayOutputStream memoryStream = new ByteArrayOutputStream();
+    OutputStream outputStream = memoryStream;
+    File file = null;
+    long size = 0;
+    try {
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        if (file == null && shouldSpill(size + read)) {
+          file = createSpillFile(blobId);
+          outputStream = new FileOutputStream(file);
+          memoryStream.writeTo(outputStream);
+          memoryStream = null;
+        }
+        outputStream.write(buffer, 0, read);
+        size += read;
+      }
+    } catch (IOException e) {
+      outputStream.close();
+      if (file != null) {
+        file.delete();
+      }
+      throw e;
+    }
+    outputStream.close();
+
+    if (file != null) {
+      putEntry(blobId, new Entry(file, size));
+    } else {
+      putEntry(blobId, new Entry(memoryStream.toByteArray()));
+    }
+  }
+
+  synchronized void remove(String blobId) {
+    Entry entry = mEntries.remove(blobId);
+    if (entry != null) {
+      release(entry);
+    }
+  }
+
+  synchronized void clear() {
+    for (Entry entry : mEntries.values()) {
+      release(entry);
+    }
+    mEntries.clear();
+    mSpillDirectory.delete();
+  }
+
+  /**
+   * @return the size of the blob in bytes, or -1 if it doesn't exist
+   */
+  synchronized long size(String blobId) {
+    Entry entry = mEntries.get(blobId);
+    return entry != null ? entry.size : -1;
+  }
+
+  /**
+   * @return the file backing the blob if it was spilled to disk
+   */
+  synchronized @Nullable File getFile(String blobId) {
+    Entry entry = mEntries.get(blobId);
+    return entry != null ? entry.file : null;
+  }
+
+  /**
+   * Reads a range of the blob into memory. A size of -1 reads up to the end of the blob.
+   */
+  @Nullable byte[] get(String blobId, long offset, long size) throws IOException {
+    Entry entry;
+    synchronized (this) {
+      entry = mEntries.get(blobId);
+    }
+    if (entry == null) {
+      return null;
+    }
+    if (size == -1) {
+      size = entry.size - offset;
+    }
+    if (entry.bytes != null) {
+      if (offset == 0 && size == entry.size) {
+        return entry.bytes;
+      }
+      byte[] data = new byte[(int) size];
+      System.arraycopy(entry.bytes, (int) offset, data, 0, (int) size);
+      return data;
+    }
+
+    byte[] data = new byte[(int) size];
+    RandomAccessFile file = new RandomAccessFile(entry.file, "r");
+    try {
+      file.seek(offset);
+      file.readFully(data);
+    } finally {
+      file.close();
+    }
+    return data;
+  }
+
+  /**
+   * Opens a stream over a range of the blob without loading it in memory. A size of -1 reads up to
+   * the end of the blob.
+   */
+  @Nullable InputStream openInputStream(String blobId, long offset, long size) throws IOException {
+    Entry entry;
+    synchronized (this) {
+      entry = mEntries.get(blobId);
+    }
+    if (entry == null) {
+      return null;
+    }
+    if (size == -1) {
+      size = entry.size - offset;
+    }
+    if (entry.bytes != null) {
+      return new ByteArrayInputStream(entry.bytes, (int) offset, (int) size);
+    }
+
+    FileInputStream inputStream = new FileInputStream(entry.file);
+    try {
+      inputStream.getChannel().position(offset);
+    } catch (IOException e) {
+      inputStream.close();
+      throw e;
+    }
+    return new RangeInputStream(inputStream, size);
+  }
+
+  private synchronized boolean shouldSpill(long size) {
+    return size >= mSpillThreshold || mMemorySize + size > mMemoryBudget;
+  }
+
+  private synchronized void putEntry(String blobId, Entry entry) {
+    Entry previous = mEntries.put(blobId, entry);
+    if (previous != null) {
+      release(previous);
+    }
+    if (entry.bytes != null) {
+      mMemorySize += entry.size;
+    }
+  }
+
+  private void release(Entry entry) {
+    if (entry.file != null) {
+      entry.file.delete();
+    } else {
+      mMemorySize -= entry.size;
+    }
+  }
+
+  private File createSpillFile(String blobId) throws IOException {
+    if (!mSpillDirectory.isDirectory() && !mSpillDirectory.mkdirs()) {
+      throw new IOException("Could not create blob directory " + mSpillDirectory);
+    }
+    return File.createTempFile(blobId, null, mSpillDirectory);
+  }
+
+  private static class RangeInputStream extends FilterInputStream {
+    private long mRemaining;
+
+    RangeInputStream(InputStream inputStream, long size) {
+      super(inputStream);
+      mRemaining = size;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (mRemaining <= 0) {
+        return -1;
+      }
+      int result = super.read();
+      if (result != -1) {
+        mRemaining--;
+      }
+      return result;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      if (mRemaining <= 0) {
+        return -1;
+      }
+      int result = super.read(buffer, offset, (int) Math.min(length, mRemaining));
+      if (result != -1) {
+        mRemaining -= result;
+      }
+      return result;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+      long skipped = super.skip(Math.min(count, mRemaining));
+      mRemaining -= skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(super.available(), mRemaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+}
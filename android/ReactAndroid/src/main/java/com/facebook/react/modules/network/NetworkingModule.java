@@ -28,6 +28,9 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import okhttp3.Call;
@@ -123,8 +126,15 @@ public class NetworkingModule extends ReactContextBaseJavaModule {
     // 100ms
     public static int CHUNK_TIMEOUT_NS = 100 * 1000000;
 
+    // 64K, incremental text is coalesced up to this size between two events
+    public static int MAX_CHUNK_SIZE_BETWEEN_FLUSHES = 64 * 1024;
+
     // 8K
-    public static int MAX_CHUNK_SIZE_BETWEEN_FLUSHES = 8 * 1024;
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    // Flushes incremental text that has been pending for CHUNK_TIMEOUT_NS while its request is
+    // blocked reading from the network.
+    private static final ScheduledExecutorService sIncrementalFlushExecutor = Executors.newSingleThreadScheduledExecutor();
 
     public final OkHttpClient mClient;
 
@@ -492,30 +502,98 @@ public class NetworkingModule extends ReactContextBaseJavaModule {
         });
     }
 
+    /**
+     * Forwards the response text to JS as it is decoded. Decoded text is coalesced into a single
+     * event until {@link #MAX_CHUNK_SIZE_BETWEEN_FLUSHES} bytes were read, or until it has been
+     * pending for {@link #CHUNK_TIMEOUT_NS}, even if the next read is still blocked.
+     */
     private void readWithProgress(RCTDeviceEventEmitter eventEmitter, int requestId, ResponseBody responseBody) throws IOException {
-        long totalBytesRead = -1;
-        long contentLength = -1;
-        try {
-            ProgressResponseBody progressResponseBody = (ProgressResponseBody) responseBody;
-            totalBytesRead = progressResponseBody.totalBytesRead();
-            contentLength = progressResponseBody.contentLength();
-        } catch (ClassCastException e) {
-        // Ignore
-        }
+        ProgressResponseBody progressResponseBody = responseBody instanceof ProgressResponseBody ? (ProgressResponseBody) responseBody : null;
+        long contentLength = progressResponseBody != null ? progressResponseBody.contentLength() : -1;
         Charset charset = responseBody.contentType() == null ? StandardCharsets.UTF_8 : responseBody.contentType().charset(StandardCharsets.UTF_8);
         ProgressiveStringDecoder streamDecoder = new ProgressiveStringDecoder(charset);
+        IncrementalTextEmitter textEmitter = new IncrementalTextEmitter(eventEmitter, requestId, contentLength);
         InputStream inputStream = responseBody.byteStream();
         try {
-            byte[] buffer = new byte[MAX_CHUNK_SIZE_BETWEEN_FLUSHES];
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            long totalBytesRead = 0;
             int read;
             while ((read = inputStream.read(buffer)) != -1) {
-                ResponseUtil.onIncrementalDataReceived(eventEmitter, requestId, streamDecoder.decodeNext(buffer, read), totalBytesRead, contentLength);
+                totalBytesRead += read;
+                textEmitter.append(streamDecoder.decodeNext(buffer, read), read, getTotalBytesRead(progressResponseBody, totalBytesRead));
             }
+            textEmitter.flush();
         } finally {
+            textEmitter.discard();
             inputStream.close();
         }
     }
 
+    /**
+     * Coalesces the incremental text of a response, and emits it from the reading thread once
+     * enough of it is pending or from {@link #sIncrementalFlushExecutor} once it is old enough.
+     */
+    private static class IncrementalTextEmitter implements Runnable {
+        private final RCTDeviceEventEmitter mEventEmitter;
+        private final int mRequestId;
+        private final long mContentLength;
+        private final StringBuilder mPendingText = new StringBuilder();
+        private long mPendingBytes = 0;
+        private long mProgress = 0;
+        private @Nullable ScheduledFuture<?> mScheduledFlush;
+
+        IncrementalTextEmitter(RCTDeviceEventEmitter eventEmitter, int requestId, long contentLength) {
+            mEventEmitter = eventEmitter;
+            mRequestId = requestId;
+            mContentLength = contentLength;
+        }
+
+        synchronized void append(String text, int bytesRead, long progress) {
+            mPendingText.append(text);
+            mPendingBytes += bytesRead;
+            mProgress = progress;
+            if (mPendingBytes >= MAX_CHUNK_SIZE_BETWEEN_FLUSHES) {
+                flush();
+            } else if (mScheduledFlush == null) {
+                mScheduledFlush = sIncrementalFlushExecutor.schedule(this, CHUNK_TIMEOUT_NS, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void run() {
+            flush();
+        }
+
+        synchronized void flush() {
+            cancelScheduledFlush();
+            if (mPendingBytes == 0) {
+                return;
+            }
+            ResponseUtil.onIncrementalDataReceived(mEventEmitter, mRequestId, mPendingText.toString(), mProgress, mContentLength);
+            mPendingText.setLength(0);
+            mPendingBytes = 0;
+        }
+
+        // Drops the pending text so nothing is emitted after the request failed.
+        synchronized void discard() {
+            cancelScheduledFlush();
+            mPendingText.setLength(0);
+            mPendingBytes = 0;
+        }
+
+        private void cancelScheduledFlush() {
+            if (mScheduledFlush != null) {
+                mScheduledFlush.cancel(false);
+                mScheduledFlush = null;
+            }
+        }
+    }
+
+    private static long getTotalBytesRead(@Nullable ProgressResponseBody progressResponseBody, long decodedBytesRead) {
+        // Bytes read off the network, which differ from the decoded bytes for compressed responses
+        return progressResponseBody != null ? progressResponseBody.totalBytesRead() : decodedBytesRead;
+    }
+
     private static boolean shouldDispatch(long now, long last) {
         return last + CHUNK_TIMEOUT_NS < now;
     }
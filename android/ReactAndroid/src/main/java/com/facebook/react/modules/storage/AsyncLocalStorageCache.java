@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.storage;
+
+import javax.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the values stored by {@link AsyncStorageModule}, bounded by the
+ * number of characters of the keys and values it holds. A key mapped to null is known to be absent
+ * from the database.
+ */
+/* package */ class AsyncLocalStorageCache {
+
+  private final LinkedHashMap<String, String> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+  private final long mMaxSize;
+  private long mSize = 0;
+
+  AsyncLocalStorageCache(long maxSize) {
+    mMaxSize = maxSize;
+  }
+
+  synchronized boolean contains(String key) {
+    return mEntries.containsKey(key);
+  }
+
+  synchronized @Nullable String get(String key) {
+    return mEntries.get(key);
+  }
+
+  synchronized void put(String key, @Nullable String value) {
+    remove(key);
+    long size = sizeOf(key, value);
+    if (size > mMaxSize) {
+      return;
+    }
+    mEntries.put(key, value);
+    mSize += size;
+    trimToSize();
+  }
+
+  synchronized void remove(String key) {
+    if (mEntries.containsKey(key)) {
+      mSize -= sizeOf(key, mEntries.remove(key));
+    }
+  }
+
+  synchronized void clear() {
+    mEntries.clear();
+    mSize = 0;
+  }
+
+  private void trimToSize() {
+    Iterator<Map.Entry<String, String>> iterator = mEntries.entrySet().iterator();
+    while (mSize > mMaxSize && iterator.hasNext()) {
+      Map.Entry<String, String> eldest = iterator.next();
+      mSize -= sizeOf(eldest.getKey(), eldest.getValue());
+      iterator.remove();
+    }
+  }
+
+  private static long sizeOf(String key, @Nullable String value) {
+    return key.length() + (value != null ? value.length() : 0);
+  }
+}
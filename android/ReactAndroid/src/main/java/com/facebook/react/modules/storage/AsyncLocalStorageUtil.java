@@ -107,18 +107,22 @@ public class AsyncLocalStorageUtil {
   /* package */ static boolean mergeImpl(SQLiteDatabase db, String key, String value)
       throws JSONException {
     String oldValue = getItemImpl(db, key);
-    String newValue;
+    return setItemImpl(db, key, mergeValues(oldValue, value));
+  }
 
+  /**
+   * Returns the result of merging the JSON value into the old value, or the value itself if there
+   * is no old value.
+   */
+  /* package */ static String mergeValues(@Nullable String oldValue, String value)
+      throws JSONException {
     if (oldValue == null) {
-      newValue = value;
-    } else {
-      JSONObject oldJSON = new JSONObject(oldValue);
-      JSONObject newJSON = new JSONObject(value);
-      deepMergeInto(oldJSON, newJSON);
-      newValue = oldJSON.toString();
+      return value;
     }
-
-    return setItemImpl(db, key, newValue);
+    JSONObject oldJSON = new JSONObject(oldValue);
+    JSONObject newJSON = new JSONObject(value);
+    deepMergeInto(oldJSON, newJSON);
+    return oldJSON.toString();
   }
 
   /**
@@ -7,15 +7,24 @@
 package com.facebook.react.modules.storage;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
 import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.GuardedAsyncTask;
+import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
@@ -31,7 +40,7 @@ import static com.facebook.react.modules.storage.ReactDatabaseSupplier.TABLE_CAT
 import static com.facebook.react.modules.storage.ReactDatabaseSupplier.VALUE_COLUMN;
 
 @ReactModule(name = AsyncStorageModule.NAME)
-public class AsyncStorageModule extends ReactContextBaseJavaModule implements ModuleDataCleaner.Cleanable {
+public class AsyncStorageModule extends ReactContextBaseJavaModule implements ModuleDataCleaner.Cleanable, LifecycleEventListener {
 
     public static final String NAME = "AsyncSQLiteDBStorage";
 
@@ -39,6 +48,12 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
     // https://raw.githubusercontent.com/android/platform_external_sqlite/master/dist/sqlite3.c
     public static int MAX_SQL_KEYS = 999;
 
+    // Number of characters of keys and values kept in the read cache
+    public static long MAX_CACHE_SIZE = 1024 * 1024;
+
+    // Writes arriving within this window are committed in a single transaction in write-behind mode
+    public static long WRITE_BEHIND_DELAY_MS = 100;
+
     public ReactDatabaseSupplier mReactDatabaseSupplier;
 
     public boolean mShuttingDown = false;
@@ -81,6 +96,33 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
 
     public final SerialExecutor executor;
 
+    private final AsyncLocalStorageCache mCache = new AsyncLocalStorageCache(MAX_CACHE_SIZE);
+
+    // Writes not committed to the database yet, a null value removes the key
+    private final LinkedHashMap<String, String> mPendingWrites = new LinkedHashMap<>();
+
+    private boolean mWriteBehindEnabled = false;
+
+    private boolean mFlushScheduled = false;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final Runnable mFlushRunnable = new Runnable() {
+
+        @Override
+        public void run() {
+            flushPendingWrites();
+        }
+    };
+
+    private final Runnable mScheduleFlushRunnable = new Runnable() {
+
+        @Override
+        public void run() {
+            executor.execute(mFlushRunnable);
+        }
+    };
+
     public AsyncStorageModule(ReactApplicationContext reactContext) {
         this(reactContext, AsyncTask.THREAD_POOL_EXECUTOR);
     }
@@ -101,21 +143,56 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
     public void initialize() {
         super.initialize();
         mShuttingDown = false;
+        getReactApplicationContext().addLifecycleEventListener(this);
     }
 
     @Override
     public void onCatalystInstanceDestroy() {
+        getReactApplicationContext().removeLifecycleEventListener(this);
+        mHandler.removeCallbacks(mScheduleFlushRunnable);
+        executor.execute(mFlushRunnable);
         mShuttingDown = true;
     }
 
+    @Override
+    public void onHostResume() {
+    }
+
+    @Override
+    public void onHostPause() {
+        // The process may be killed at any point once in the background
+        executor.execute(mFlushRunnable);
+    }
+
+    @Override
+    public void onHostDestroy() {
+        executor.execute(mFlushRunnable);
+    }
+
     @Override
     public void clearSensitiveData() {
+        synchronized (mPendingWrites) {
+            mPendingWrites.clear();
+        }
+        mCache.clear();
         // Clear local storage. If fails, crash, since the app is potentially in a bad state and could
         // cause a privacy violation. We're still not recovering from this well, but at least the error
         // will be reported to the server.
         mReactDatabaseSupplier.clearAndCloseDatabase();
     }
 
+    /**
+   * In write-behind mode, writes are acknowledged once they are visible to reads and are committed
+   * to the database together shortly after, or when the app goes to the background. Writes that
+   * fail to be committed are only logged.
+   */
+    public void setWriteBehindEnabled(boolean enabled) {
+        mWriteBehindEnabled = enabled;
+        if (!enabled) {
+            executor.execute(mFlushRunnable);
+        }
+    }
+
     /**
    * Given an array of keys, this returns a map of (key, value) pairs for the keys found, and
    * (key, null) for the keys that haven't been found.
@@ -135,42 +212,68 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                     return;
                 }
                 String[] columns = { KEY_COLUMN, VALUE_COLUMN };
-                HashSet<String> keysRemaining = new HashSet<>();
+                HashSet<String> keysSeen = new HashSet<>();
+                ArrayList<String> batchKeys = new ArrayList<>();
+                ArrayList<String> keysToQuery = new ArrayList<>();
+                HashMap<String, String> values = new HashMap<>();
                 WritableArray data = Arguments.createArray();
                 for (int keyStart = 0; keyStart < keys.size(); keyStart += MAX_SQL_KEYS) {
                     int keyCount = Math.min(keys.size() - keyStart, MAX_SQL_KEYS);
-                    Cursor cursor = mReactDatabaseSupplier.get().query(TABLE_CATALYST, columns, AsyncLocalStorageUtil.buildKeySelection(keyCount), AsyncLocalStorageUtil.buildKeySelectionArgs(keys, keyStart, keyCount), null, null, null);
-                    keysRemaining.clear();
-                    try {
-                        if (cursor.getCount() != keys.size()) {
-                            // some keys have not been found - insert them with null into the final array
-                            for (int keyIndex = keyStart; keyIndex < keyStart + keyCount; keyIndex++) {
-                                keysRemaining.add(keys.getString(keyIndex));
+                    keysSeen.clear();
+                    batchKeys.clear();
+                    keysToQuery.clear();
+                    values.clear();
+                    // Only query the keys whose value isn't known from pending writes or the cache
+                    for (int keyIndex = keyStart; keyIndex < keyStart + keyCount; keyIndex++) {
+                        String key = keys.getString(keyIndex);
+                        if (!keysSeen.add(key)) {
+                            continue;
+                        }
+                        batchKeys.add(key);
+                        if (isValueKnown(key)) {
+                            values.put(key, getKnownValue(key));
+                        } else {
+                            keysToQuery.add(key);
+                        }
+                    }
+                    if (!keysToQuery.isEmpty()) {
+                        String[] selectionArgs = keysToQuery.toArray(new String[keysToQuery.size()]);
+                        Cursor cursor = mReactDatabaseSupplier.get().query(TABLE_CATALYST, columns, AsyncLocalStorageUtil.buildKeySelection(selectionArgs.length), selectionArgs, null, null, null);
+                        try {
+                            if (cursor.moveToFirst()) {
+                                do {
+                                    values.put(cursor.getString(0), cursor.getString(1));
+                                } while (cursor.moveToNext());
                             }
+                        } catch (Exception e) {
+                            FLog.w(ReactConstants.TAG, e.getMessage(), e);
+                            callback.invoke(AsyncStorageErrorUtil.getError(null, e.getMessage()), null);
+                            return;
+                        } finally {
+                            cursor.close();
                         }
-                        if (cursor.moveToFirst()) {
-                            do {
-                                WritableArray row = Arguments.createArray();
-                                row.pushString(cursor.getString(0));
-                                row.pushString(cursor.getString(1));
-                                data.pushArray(row);
-                                keysRemaining.remove(cursor.getString(0));
-                            } while (cursor.moveToNext());
+                        for (String key : keysToQuery) {
+                            mCache.put(key, values.get(key));
                         }
-                    } catch (Exception e) {
-                        FLog.w(ReactConstants.TAG, e.getMessage(), e);
-                        callback.invoke(AsyncStorageErrorUtil.getError(null, e.getMessage()), null);
-                        return;
-                    } finally {
-                        cursor.close();
                     }
-                    for (String key : keysRemaining) {
-                        WritableArray row = Arguments.createArray();
-                        row.pushString(key);
-                        row.pushNull();
-                        data.pushArray(row);
+                    // Found keys come first, then the keys that have not been found with null
+                    for (String key : batchKeys) {
+                        String value = values.get(key);
+                        if (value != null) {
+                            WritableArray row = Arguments.createArray();
+                            row.pushString(key);
+                            row.pushString(value);
+                            data.pushArray(row);
+                        }
+                    }
+                    for (String key : batchKeys) {
+                        if (values.get(key) == null) {
+                            WritableArray row = Arguments.createArray();
+                            row.pushString(key);
+                            row.pushNull();
+                            data.pushArray(row);
+                        }
                     }
-                    keysRemaining.clear();
                 }
                 callback.invoke(null, data);
             }
@@ -196,6 +299,18 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                     callback.invoke(AsyncStorageErrorUtil.getDBError(null));
                     return;
                 }
+                if (mWriteBehindEnabled) {
+                    WritableMap error = validateKeyValues(keyValueArray);
+                    if (error != null) {
+                        callback.invoke(error);
+                        return;
+                    }
+                    for (int idx = 0; idx < keyValueArray.size(); idx++) {
+                        enqueueWrite(keyValueArray.getArray(idx).getString(0), keyValueArray.getArray(idx).getString(1));
+                    }
+                    callback.invoke();
+                    return;
+                }
                 String sql = "INSERT OR REPLACE INTO " + TABLE_CATALYST + " VALUES (?, ?);";
                 SQLiteStatement statement = mReactDatabaseSupplier.get().compileStatement(sql);
                 WritableMap error = null;
@@ -236,6 +351,9 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                 if (error != null) {
                     callback.invoke(error);
                 } else {
+                    for (int idx = 0; idx < keyValueArray.size(); idx++) {
+                        mCache.put(keyValueArray.getArray(idx).getString(0), keyValueArray.getArray(idx).getString(1));
+                    }
                     callback.invoke();
                 }
             }
@@ -259,6 +377,16 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                     callback.invoke(AsyncStorageErrorUtil.getDBError(null));
                     return;
                 }
+                if (mWriteBehindEnabled) {
+                    for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
+                        String key = keys.getString(keyIndex);
+                        if (key != null) {
+                            enqueueWrite(key, null);
+                        }
+                    }
+                    callback.invoke();
+                    return;
+                }
                 WritableMap error = null;
                 try {
                     mReactDatabaseSupplier.get().beginTransaction();
@@ -283,6 +411,12 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                 if (error != null) {
                     callback.invoke(error);
                 } else {
+                    for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
+                        String key = keys.getString(keyIndex);
+                        if (key != null) {
+                            mCache.put(key, null);
+                        }
+                    }
                     callback.invoke();
                 }
             }
@@ -303,6 +437,27 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                     callback.invoke(AsyncStorageErrorUtil.getDBError(null));
                     return;
                 }
+                if (mWriteBehindEnabled) {
+                    WritableMap error = validateKeyValues(keyValueArray);
+                    if (error != null) {
+                        callback.invoke(error);
+                        return;
+                    }
+                    try {
+                        for (int idx = 0; idx < keyValueArray.size(); idx++) {
+                            String key = keyValueArray.getArray(idx).getString(0);
+                            enqueueWrite(key, AsyncLocalStorageUtil.mergeValues(lookupValue(key), keyValueArray.getArray(idx).getString(1)));
+                        }
+                    } catch (Exception e) {
+                        FLog.w(ReactConstants.TAG, e.getMessage(), e);
+                        callback.invoke(AsyncStorageErrorUtil.getError(null, e.getMessage()));
+                        return;
+                    }
+                    callback.invoke();
+                    return;
+                }
+                // Merged values are read back from here when a key is merged more than once
+                HashMap<String, String> mergedValues = new HashMap<>();
                 WritableMap error = null;
                 try {
                     mReactDatabaseSupplier.get().beginTransaction();
@@ -319,10 +474,14 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                             error = AsyncStorageErrorUtil.getInvalidValueError(null);
                             return;
                         }
-                        if (!AsyncLocalStorageUtil.mergeImpl(mReactDatabaseSupplier.get(), keyValueArray.getArray(idx).getString(0), keyValueArray.getArray(idx).getString(1))) {
+                        String key = keyValueArray.getArray(idx).getString(0);
+                        String oldValue = mergedValues.containsKey(key) ? mergedValues.get(key) : lookupValue(key);
+                        String mergedValue = AsyncLocalStorageUtil.mergeValues(oldValue, keyValueArray.getArray(idx).getString(1));
+                        if (!AsyncLocalStorageUtil.setItemImpl(mReactDatabaseSupplier.get(), key, mergedValue)) {
                             error = AsyncStorageErrorUtil.getDBError(null);
                             return;
                         }
+                        mergedValues.put(key, mergedValue);
                     }
                     mReactDatabaseSupplier.get().setTransactionSuccessful();
                 } catch (Exception e) {
@@ -341,6 +500,9 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                 if (error != null) {
                     callback.invoke(error);
                 } else {
+                    for (Map.Entry<String, String> entry : mergedValues.entrySet()) {
+                        mCache.put(entry.getKey(), entry.getValue());
+                    }
                     callback.invoke();
                 }
             }
@@ -361,6 +523,10 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                     return;
                 }
                 try {
+                    synchronized (mPendingWrites) {
+                        mPendingWrites.clear();
+                    }
+                    mCache.clear();
                     mReactDatabaseSupplier.clear();
                     callback.invoke();
                 } catch (Exception e) {
@@ -384,6 +550,8 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
                     callback.invoke(AsyncStorageErrorUtil.getDBError(null), null);
                     return;
                 }
+                // Keys are listed from the database, so it has to be up to date
+                flushPendingWrites();
                 WritableArray data = Arguments.createArray();
                 String[] columns = { KEY_COLUMN };
                 Cursor cursor = mReactDatabaseSupplier.get().query(TABLE_CATALYST, columns, null, null, null, null, null);
@@ -405,6 +573,116 @@ public class AsyncStorageModule extends ReactContextBaseJavaModule implements Mo
         }.executeOnExecutor(executor);
     }
 
+    private @Nullable WritableMap validateKeyValues(ReadableArray keyValueArray) {
+        for (int idx = 0; idx < keyValueArray.size(); idx++) {
+            if (keyValueArray.getArray(idx).size() != 2) {
+                return AsyncStorageErrorUtil.getInvalidValueError(null);
+            }
+            if (keyValueArray.getArray(idx).getString(0) == null) {
+                return AsyncStorageErrorUtil.getInvalidKeyError(null);
+            }
+            if (keyValueArray.getArray(idx).getString(1) == null) {
+                return AsyncStorageErrorUtil.getInvalidValueError(null);
+            }
+        }
+        return null;
+    }
+
+    private boolean isValueKnown(@Nullable String key) {
+        if (key == null) {
+            return false;
+        }
+        synchronized (mPendingWrites) {
+            if (mPendingWrites.containsKey(key)) {
+                return true;
+            }
+        }
+        return mCache.contains(key);
+    }
+
+    private @Nullable String getKnownValue(String key) {
+        synchronized (mPendingWrites) {
+            if (mPendingWrites.containsKey(key)) {
+                return mPendingWrites.get(key);
+            }
+        }
+        return mCache.get(key);
+    }
+
+    /**
+   * Returns the current value of the key, reading it from the database if it isn't known yet.
+   */
+    private @Nullable String lookupValue(String key) {
+        if (isValueKnown(key)) {
+            return getKnownValue(key);
+        }
+        String value = AsyncLocalStorageUtil.getItemImpl(mReactDatabaseSupplier.get(), key);
+        mCache.put(key, value);
+        return value;
+    }
+
+    private void enqueueWrite(String key, @Nullable String value) {
+        synchronized (mPendingWrites) {
+            mPendingWrites.put(key, value);
+            if (!mFlushScheduled) {
+                mFlushScheduled = true;
+                mHandler.postDelayed(mScheduleFlushRunnable, WRITE_BEHIND_DELAY_MS);
+            }
+        }
+        mCache.put(key, value);
+    }
+
+    /**
+   * Commits the pending writes in a single transaction. Must run on the executor.
+   */
+    private void flushPendingWrites() {
+        Map<String, String> writes;
+        synchronized (mPendingWrites) {
+            mFlushScheduled = false;
+            mHandler.removeCallbacks(mScheduleFlushRunnable);
+            if (mPendingWrites.isEmpty()) {
+                return;
+            }
+            writes = new LinkedHashMap<>(mPendingWrites);
+        }
+        boolean success = false;
+        try {
+            if (mReactDatabaseSupplier.ensureDatabase()) {
+                SQLiteDatabase db = mReactDatabaseSupplier.get();
+                SQLiteStatement statement = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_CATALYST + " VALUES (?, ?);");
+                db.beginTransaction();
+                try {
+                    for (Map.Entry<String, String> write : writes.entrySet()) {
+                        if (write.getValue() == null) {
+                            db.delete(TABLE_CATALYST, KEY_COLUMN + "=?", new String[] { write.getKey() });
+                        } else {
+                            statement.clearBindings();
+                            statement.bindString(1, write.getKey());
+                            statement.bindString(2, write.getValue());
+                            statement.execute();
+                        }
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                    statement.close();
+                }
+                success = true;
+            }
+        } catch (Exception e) {
+            FLog.w(ReactConstants.TAG, "Failed to commit pending AsyncStorage writes: " + e.getMessage(), e);
+        }
+        synchronized (mPendingWrites) {
+            mPendingWrites.keySet().removeAll(writes.keySet());
+        }
+        if (!success) {
+            // Let reads go back to the database
+            for (String key : writes.keySet()) {
+                mCache.remove(key);
+            }
+        }
+    }
+
     /**
    * Verify the database is open for reads and writes.
    */
@@ -53,6 +53,14 @@ public class ReactDatabaseSupplier extends SQLiteOpenHelper {
         return sReactDatabaseSupplierInstance;
     }
 
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // Commits append to the log instead of rewriting pages and syncing a rollback journal, which
+        // makes the many small transactions issued by AsyncStorage much cheaper
+        db.enableWriteAheadLogging();
+    }
+
     @Override
     public void onCreate(SQLiteDatabase db) {
         db.execSQL(VERSION_TABLE_CREATE);
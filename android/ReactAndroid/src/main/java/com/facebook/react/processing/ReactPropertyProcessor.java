@@ -204,8 +204,11 @@ public class ReactPropertyProcessor extends AbstractProcessor {
   private void findProperties(ClassInfo classInfo, TypeElement typeElement) {
     PropertyInfo.Builder propertyBuilder = new PropertyInfo.Builder(mTypes, mElements, classInfo);
 
-    // Recursively search class hierarchy
+    // Recursively search class hierarchy. A property annotated again in a subclass overrides the
+    // one of its superclass, like it does in ViewManagersPropertyCache.
+    Set<String> subclassPropertyNames = new HashSet<>();
     while (typeElement != null) {
+      Set<String> classPropertyNames = new HashSet<>();
       for (Element element : typeElement.getEnclosedElements()) {
         ReactProp prop = element.getAnnotation(ReactProp.class);
         ReactPropGroup propGroup = element.getAnnotation(ReactPropGroup.class);
@@ -216,17 +219,24 @@ public class ReactPropertyProcessor extends AbstractProcessor {
           }
 
           if (prop != null) {
-            classInfo.addProperty(propertyBuilder.build(element, new RegularProperty(prop)));
+            if (!subclassPropertyNames.contains(prop.name())) {
+              classInfo.addProperty(propertyBuilder.build(element, new RegularProperty(prop)));
+            }
+            classPropertyNames.add(prop.name());
           } else if (propGroup != null) {
             for (int i = 0, size = propGroup.names().length; i < size; i++) {
-              classInfo
-                  .addProperty(propertyBuilder.build(element, new GroupProperty(propGroup, i)));
+              if (!subclassPropertyNames.contains(propGroup.names()[i])) {
+                classInfo
+                    .addProperty(propertyBuilder.build(element, new GroupProperty(propGroup, i)));
+              }
+              classPropertyNames.add(propGroup.names()[i]);
             }
           }
         } catch (ReactPropertyException e) {
           error(e.element, e.getMessage());
         }
       }
+      subclassPropertyNames.addAll(classPropertyNames);
 
       typeElement = (TypeElement) mTypes.asElement(typeElement.getSuperclass());
     }
@@ -576,8 +586,7 @@ public class ReactPropertyProcessor extends AbstractProcessor {
       if (checkPropertyExists(name)) {
         throw new ReactPropertyException(
             "Module " + mClassName + " has already registered a property named \"" +
-                name + "\". If you want to override a property, don't add" +
-                "the @ReactProp annotation to the property in the subclass", propertyInfo);
+                name + "\".", propertyInfo);
       }
 
       mProperties.add(propertyInfo);
@@ -15,24 +15,39 @@ import com.facebook.imagepipeline.core.ImagePipelineConfig;
 public class MainPackageConfig {
 
   private ImagePipelineConfig mFrescoConfig;
+  private boolean mAsyncStorageWriteBehindEnabled;
 
   private MainPackageConfig(Builder builder) {
     mFrescoConfig = builder.mFrescoConfig;
+    mAsyncStorageWriteBehindEnabled = builder.mAsyncStorageWriteBehindEnabled;
   }
 
   public ImagePipelineConfig getFrescoConfig() {
     return mFrescoConfig;
   }
 
+  public boolean isAsyncStorageWriteBehindEnabled() {
+    return mAsyncStorageWriteBehindEnabled;
+  }
+
   public static class Builder {
 
     private ImagePipelineConfig mFrescoConfig;
+    private boolean mAsyncStorageWriteBehindEnabled;
 
     public Builder setFrescoConfig(ImagePipelineConfig frescoConfig) {
       mFrescoConfig = frescoConfig;
       return this;
     }
 
+    /**
+     * See {@link com.facebook.react.modules.storage.AsyncStorageModule#setWriteBehindEnabled}
+     */
+    public Builder setAsyncStorageWriteBehindEnabled(boolean enabled) {
+      mAsyncStorageWriteBehindEnabled = enabled;
+      return this;
+    }
+
     public MainPackageConfig build() {
       return new MainPackageConfig(this);
     }
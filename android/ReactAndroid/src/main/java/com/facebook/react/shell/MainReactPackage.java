@@ -155,7 +155,11 @@ public class MainReactPackage extends LazyReactPackage {
             new Provider<NativeModule>() {
               @Override
               public NativeModule get() {
-                return new AsyncStorageModule(context);
+                AsyncStorageModule asyncStorageModule = new AsyncStorageModule(context);
+                if (mConfig != null && mConfig.isAsyncStorageWriteBehindEnabled()) {
+                  asyncStorageModule.setWriteBehindEnabled(true);
+                }
+                return asyncStorageModule;
               }
             }),
         ModuleSpec.nativeModuleSpec(
@@ -34,6 +34,8 @@ import com.facebook.react.uimanager.layoutanimation.LayoutAnimationController;
 import com.facebook.react.uimanager.layoutanimation.LayoutAnimationListener;
 import com.facebook.systrace.Systrace;
 import com.facebook.systrace.SystraceMessage;
+import java.util.HashMap;
+import java.util.Map;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -64,6 +66,8 @@ public class NativeViewHierarchyManager {
 
     public static String TAG = NativeViewHierarchyManager.class.getSimpleName();
 
+    private static final String PROP_TRANSFORM = "transform";
+
     public final AnimationRegistry mAnimationRegistry;
 
     public final SparseArray<View> mTagsToViews;
@@ -84,6 +88,9 @@ public class NativeViewHierarchyManager {
 
     public PopupMenu mPopupMenu;
 
+    // Whether the typed opacity and transform setters of BaseViewManager update views of a view manager class
+    private final Map<Class, Boolean> mHasBaseOpacityAndTransformSetters = new HashMap<>();
+
     public NativeViewHierarchyManager(ViewManagerRegistry viewManagers) {
         this(viewManagers, new RootViewManager());
     }
@@ -113,6 +120,16 @@ public class NativeViewHierarchyManager {
         return viewManager;
     }
 
+    /**
+     * @return whether the view exists but has never been added to a parent, in which case updating it
+     * can't have any visible effect
+     */
+    public final synchronized boolean isUnmountedView(int tag) {
+        View view = mTagsToViews.get(tag);
+        // Views that were added to a parent at some point keep their layout params once removed
+        return view != null && !mRootTags.get(tag) && view.getParent() == null && view.getLayoutParams() == null;
+    }
+
     public AnimationRegistry getAnimationRegistry() {
         return mAnimationRegistry;
     }
@@ -148,6 +165,56 @@ public class NativeViewHierarchyManager {
         }
     }
 
+    /**
+     * Typed fast path of {@link #updateProperties} used by native animated module. Opacity is only
+     * set if {@code hasOpacity} is true and transform only if it's not null. Returns false without
+     * updating anything if the view's manager doesn't set these props through the setters of
+     * {@link BaseViewManager} or overrides of them.
+     */
+    public synchronized boolean updateOpacityAndTransform(
+            int tag,
+            boolean hasOpacity,
+            float opacity,
+            @Nullable ReadableArray transform) {
+        UiThreadUtil.assertOnUiThread();
+        try {
+            ViewManager viewManager = resolveViewManager(tag);
+            if (!hasBaseOpacityAndTransformSetters(viewManager)) {
+                return false;
+            }
+            BaseViewManager baseViewManager = (BaseViewManager) viewManager;
+            View viewToUpdate = resolveView(tag);
+            if (hasOpacity) {
+                baseViewManager.setOpacity(viewToUpdate, opacity);
+            }
+            if (transform != null) {
+                baseViewManager.setTransform(viewToUpdate, transform);
+            }
+            viewManager.onAfterUpdateTransaction(viewToUpdate);
+        } catch (IllegalViewOperationException e) {
+            FLog.e(TAG, "Unable to update properties for view tag " + tag, e);
+        }
+        return true;
+    }
+
+    private boolean hasBaseOpacityAndTransformSetters(ViewManager viewManager) {
+        if (!(viewManager instanceof BaseViewManager)) {
+            return false;
+        }
+        Class<? extends ViewManager> viewManagerClass = viewManager.getClass();
+        Boolean hasBaseSetters = mHasBaseOpacityAndTransformSetters.get(viewManagerClass);
+        if (hasBaseSetters == null) {
+            // Managers such as SVG ones overload the setters with other types instead of overriding them
+            hasBaseSetters =
+                ViewManagersPropertyCache.isBaseViewManagerPropSetter(
+                    viewManagerClass, ViewProps.OPACITY, "setOpacity", float.class)
+                && ViewManagersPropertyCache.isBaseViewManagerPropSetter(
+                    viewManagerClass, PROP_TRANSFORM, "setTransform", ReadableArray.class);
+            mHasBaseOpacityAndTransformSetters.put(viewManagerClass, hasBaseSetters);
+        }
+        return hasBaseSetters;
+    }
+
     public synchronized void updateViewExtraData(int tag, Object extraData) {
         UiThreadUtil.assertOnUiThread();
         ViewManager viewManager = resolveViewManager(tag);
@@ -26,6 +26,7 @@ import com.facebook.react.common.ReactConstants;
 import com.facebook.react.modules.i18nmanager.I18nUtil;
 import com.facebook.react.uimanager.common.MeasureSpecProvider;
 import com.facebook.react.uimanager.common.SizeMonitoringFrameLayout;
+import com.facebook.react.uimanager.debug.NotThreadSafeUIBatchMetricsListener;
 import com.facebook.react.uimanager.debug.NotThreadSafeViewHierarchyUpdateDebugListener;
 import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.systrace.Systrace;
@@ -345,6 +346,22 @@ public class UIImplementation {
     mOperationsQueue.getNativeViewHierarchyManager().updateProperties(tag, props);
   }
 
+  /**
+   * Typed counterpart of {@link #synchronouslyUpdateViewOnUIThread} for the props animated most
+   * often, sets them through the view manager's setters without building a props map. Returns
+   * false if the view's manager doesn't have those setters, the caller should then use
+   * {@link #synchronouslyUpdateViewOnUIThread} instead.
+   */
+  public boolean synchronouslyUpdateViewOpacityAndTransformOnUIThread(
+      int tag,
+      boolean hasOpacity,
+      float opacity,
+      @Nullable ReadableArray transform) {
+    UiThreadUtil.assertOnUiThread();
+    return mOperationsQueue.getNativeViewHierarchyManager()
+        .updateOpacityAndTransform(tag, hasOpacity, opacity, transform);
+  }
+
   protected void handleUpdateView(
       ReactShadowNode cssNode,
       String className,
@@ -848,6 +865,17 @@ public class UIImplementation {
     mOperationsQueue.setViewHierarchyUpdateDebugListener(listener);
   }
 
+  public void setBatchMetricsListener(@Nullable NotThreadSafeUIBatchMetricsListener listener) {
+    mOperationsQueue.setBatchMetricsListener(listener);
+  }
+
+  /**
+   * @see UIViewOperationQueue#setIncrementalBatchExecutionEnabled
+   */
+  public void setIncrementalBatchExecutionEnabled(boolean enabled) {
+    mOperationsQueue.setIncrementalBatchExecutionEnabled(enabled);
+  }
+
   protected final void removeShadowNode(ReactShadowNode nodeToRemove) {
     removeShadowNodeRecursive(nodeToRemove);
     nodeToRemove.dispose();
@@ -39,6 +39,7 @@ import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.uimanager.common.MeasureSpecProvider;
 import com.facebook.react.uimanager.common.SizeMonitoringFrameLayout;
 import com.facebook.react.uimanager.common.ViewUtil;
+import com.facebook.react.uimanager.debug.NotThreadSafeUIBatchMetricsListener;
 import com.facebook.react.uimanager.debug.NotThreadSafeViewHierarchyUpdateDebugListener;
 import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
@@ -769,6 +770,17 @@ public class UIManagerModule extends ReactContextBaseJavaModule
     mUIImplementation.setViewHierarchyUpdateDebugListener(listener);
   }
 
+  public void setBatchMetricsListener(@Nullable NotThreadSafeUIBatchMetricsListener listener) {
+    mUIImplementation.setBatchMetricsListener(listener);
+  }
+
+  /**
+   * @see UIViewOperationQueue#setIncrementalBatchExecutionEnabled
+   */
+  public void setIncrementalBatchExecutionEnabled(boolean enabled) {
+    mUIImplementation.setIncrementalBatchExecutionEnabled(enabled);
+  }
+
   public EventDispatcher getEventDispatcher() {
     return mEventDispatcher;
   }
@@ -106,6 +106,9 @@ import javax.annotation.Nullable;
       }
     }
 
+    // Props setters of all the view managers have been looked up by now.
+    ViewManagerPropertyUpdater.logReflectionFallbacks();
+
     constants.put("genericBubblingEventTypes", genericBubblingEventTypes);
     constants.put("genericDirectEventTypes", genericDirectEventTypes);
     return constants;
@@ -8,6 +8,7 @@
 package com.facebook.react.uimanager;
 
 import android.os.SystemClock;
+import android.util.SparseBooleanArray;
 import com.facebook.common.logging.FLog;
 import com.facebook.react.animation.Animation;
 import com.facebook.react.animation.AnimationRegistry;
@@ -22,6 +23,7 @@ import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.common.ReactConstants;
 import com.facebook.react.modules.core.ReactChoreographer;
 import com.facebook.react.uimanager.common.SizeMonitoringFrameLayout;
+import com.facebook.react.uimanager.debug.NotThreadSafeUIBatchMetricsListener;
 import com.facebook.react.uimanager.debug.NotThreadSafeViewHierarchyUpdateDebugListener;
 import com.facebook.systrace.Systrace;
 import com.facebook.systrace.SystraceMessage;
@@ -47,6 +49,8 @@ public class UIViewOperationQueue {
 
   public static final int DEFAULT_MIN_TIME_LEFT_IN_FRAME_FOR_NONBATCHED_OPERATION_MS = 8;
 
+  private static final long NO_DEADLINE = Long.MAX_VALUE;
+
   private final int[] mMeasureBuffer = new int[4];
 
   /**
@@ -610,12 +614,14 @@ public class UIViewOperationQueue {
   private ArrayList<UIOperation> mOperations = new ArrayList<>();
 
   @GuardedBy("mDispatchRunnablesLock")
-  private ArrayList<Runnable> mDispatchUIRunnables = new ArrayList<>();
+  private ArrayList<DispatchUIBatch> mDispatchUIBatches = new ArrayList<>();
 
   @GuardedBy("mNonBatchedOperationsLock")
   private ArrayDeque<UIOperation> mNonBatchedOperations = new ArrayDeque<>();
 
   private @Nullable NotThreadSafeViewHierarchyUpdateDebugListener mViewHierarchyUpdateDebugListener;
+  private @Nullable NotThreadSafeUIBatchMetricsListener mBatchMetricsListener;
+  private boolean mIsIncrementalBatchExecutionEnabled = false;
   private boolean mIsDispatchUIFrameCallbackEnqueued = false;
   private boolean mIsInIllegalUIState = false;
   private boolean mIsProfilingNextBatch = false;
@@ -652,6 +658,20 @@ public class UIViewOperationQueue {
     mViewHierarchyUpdateDebugListener = listener;
   }
 
+  public void setBatchMetricsListener(@Nullable NotThreadSafeUIBatchMetricsListener listener) {
+    mBatchMetricsListener = listener;
+  }
+
+  /**
+   * When enabled, large batches are executed over several frames instead of blocking the UI thread
+   * for as long as it takes to execute them. Only the creation and the updates of views that aren't
+   * displayed yet are spread over frames, the changes to the views on screen are still applied in a
+   * single frame.
+   */
+  public void setIncrementalBatchExecutionEnabled(boolean enabled) {
+    mIsIncrementalBatchExecutionEnabled = enabled;
+  }
+
   public void profileNextBatch() {
     mIsProfilingNextBatch = true;
     mProfiledBatchCommitStartTime = 0;
@@ -894,73 +914,16 @@ public class UIViewOperationQueue {
         mViewHierarchyUpdateDebugListener.onViewHierarchyUpdateEnqueued();
       }
 
-      Runnable runOperations =
-          new Runnable() {
-            @Override
-            public void run() {
-              SystraceMessage.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "DispatchUI")
-                  .arg("BatchId", batchId)
-                  .flush();
-              try {
-                long runStartTime = SystemClock.uptimeMillis();
-
-                // All nonBatchedOperations should be executed before regular operations as
-                // regular operations may depend on them
-                if (nonBatchedOperations != null) {
-                  for (UIOperation op : nonBatchedOperations) {
-                    op.execute();
-                  }
-                }
-
-                if (batchedOperations != null) {
-                  for (UIOperation op : batchedOperations) {
-                    op.execute();
-                  }
-                }
-
-                if (mIsProfilingNextBatch && mProfiledBatchCommitStartTime == 0) {
-                  mProfiledBatchCommitStartTime = commitStartTime;
-                  mProfiledBatchLayoutTime = layoutTime;
-                  mProfiledBatchDispatchViewUpdatesTime = dispatchViewUpdatesTime;
-                  mProfiledBatchRunStartTime = runStartTime;
-                  mThreadCpuTime = nativeModulesThreadCpuTime;
-
-                  Systrace.beginAsyncSection(
-                      Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-                      "delayBeforeDispatchViewUpdates",
-                      0,
-                      mProfiledBatchCommitStartTime * 1000000);
-                  Systrace.endAsyncSection(
-                      Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-                      "delayBeforeDispatchViewUpdates",
-                      0,
-                      mProfiledBatchDispatchViewUpdatesTime * 1000000);
-                  Systrace.beginAsyncSection(
-                      Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-                      "delayBeforeBatchRunStart",
-                      0,
-                      mProfiledBatchDispatchViewUpdatesTime * 1000000);
-                  Systrace.endAsyncSection(
-                      Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-                      "delayBeforeBatchRunStart",
-                      0,
-                      mProfiledBatchRunStartTime * 1000000);
-                }
-
-                // Clear layout animation, as animation only apply to current UI operations batch.
-                mNativeViewHierarchyManager.clearLayoutAnimation();
-
-                if (mViewHierarchyUpdateDebugListener != null) {
-                  mViewHierarchyUpdateDebugListener.onViewHierarchyUpdateFinished();
-                }
-              } catch (Exception e) {
-                mIsInIllegalUIState = true;
-                throw e;
-              } finally {
-                Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
-              }
-            }
-          };
+      DispatchUIBatch batch =
+          new DispatchUIBatch(
+              batchId,
+              commitStartTime,
+              layoutTime,
+              dispatchViewUpdatesTime,
+              nativeModulesThreadCpuTime,
+              nonBatchedOperations,
+              batchedOperations,
+              mIsIncrementalBatchExecutionEnabled && canExecuteIncrementally(batchedOperations));
 
       SystraceMessage.beginSection(
         Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
@@ -969,7 +932,7 @@ public class UIViewOperationQueue {
         .flush();
       synchronized (mDispatchRunnablesLock) {
         Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
-        mDispatchUIRunnables.add(runOperations);
+        mDispatchUIBatches.add(batch);
       }
 
       // In the case where the frame callback isn't enqueued, the UI isn't being displayed or is being
@@ -980,7 +943,7 @@ public class UIViewOperationQueue {
           new GuardedRunnable(mReactApplicationContext) {
             @Override
             public void runGuarded() {
-              flushPendingBatches();
+              flushPendingBatches(NO_DEADLINE);
             }
           });
       }
@@ -999,10 +962,14 @@ public class UIViewOperationQueue {
     mIsDispatchUIFrameCallbackEnqueued = false;
     ReactChoreographer.getInstance()
         .removeFrameCallback(ReactChoreographer.CallbackType.DISPATCH_UI, mDispatchUIFrameCallback);
-    flushPendingBatches();
+    flushPendingBatches(NO_DEADLINE);
   }
 
-  private void flushPendingBatches() {
+  /**
+   * Executes the pending batches in order. A batch executed incrementally that can't be finished
+   * before {@code deadlineNanos} is kept, along with the batches that follow it, for the next frame.
+   */
+  private void flushPendingBatches(long deadlineNanos) {
     if (mIsInIllegalUIState) {
       FLog.w(
         ReactConstants.TAG,
@@ -1010,19 +977,24 @@ public class UIViewOperationQueue {
       return;
     }
 
-    final ArrayList<Runnable> runnables;
+    final ArrayList<DispatchUIBatch> batches;
     synchronized (mDispatchRunnablesLock) {
-      if (!mDispatchUIRunnables.isEmpty()) {
-        runnables = mDispatchUIRunnables;
-        mDispatchUIRunnables = new ArrayList<>();
+      if (!mDispatchUIBatches.isEmpty()) {
+        batches = mDispatchUIBatches;
+        mDispatchUIBatches = new ArrayList<>();
       } else {
         return;
       }
     }
 
     final long batchedExecutionStartTime = SystemClock.uptimeMillis();
-    for (Runnable runnable : runnables) {
-      runnable.run();
+    for (int i = 0; i < batches.size(); i++) {
+      if (!batches.get(i).execute(deadlineNanos)) {
+        synchronized (mDispatchRunnablesLock) {
+          mDispatchUIBatches.addAll(0, batches.subList(i, batches.size()));
+        }
+        return;
+      }
     }
 
     if (mIsProfilingNextBatch) {
@@ -1040,6 +1012,222 @@ public class UIViewOperationQueue {
     mNonBatchedExecutionTotalTime = 0;
   }
 
+  private static boolean canExecuteIncrementally(@Nullable ArrayList<UIOperation> operations) {
+    if (operations == null) {
+      return true;
+    }
+    // Layout animations depend on whether views are attached when their layout is updated, so
+    // batches configuring one are executed in a single frame
+    for (int i = 0; i < operations.size(); i++) {
+      if (operations.get(i) instanceof ConfigureLayoutAnimationOperation) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The operations dispatched to the UI thread by a call to {@link #dispatchViewUpdates}.
+   *
+   * By default a batch is executed at once. When executed incrementally, the batch runs in two
+   * phases: first the view creations and the updates of views that have never been added to a
+   * parent, spread over as many frames as needed to stay within the frame budget since they can't
+   * have any visible effect; then all the other operations in their original order and in a single
+   * frame, so that the changes to the hierarchy on screen still appear at once.
+   */
+  private final class DispatchUIBatch {
+
+    private final int mBatchId;
+    private final long mCommitStartTime;
+    private final long mLayoutTime;
+    private final long mDispatchViewUpdatesTime;
+    private final long mNativeModulesThreadCpuTime;
+    private final int mOperationCount;
+    private final @Nullable ArrayDeque<UIOperation> mNonBatchedOperations;
+    private @Nullable ArrayList<UIOperation> mBatchedOperations;
+    private boolean mIsIncremental;
+
+    // State of the first phase of an incremental execution
+    private int mNextOperationIndex = 0;
+    private final ArrayList<UIOperation> mDeferredOperations = new ArrayList<>();
+    private final SparseBooleanArray mDeferredTags = new SparseBooleanArray();
+
+    private int mFrameCount = 0;
+    private long mRunStartTime = 0;
+    private long mExecutionTime = 0;
+
+    private DispatchUIBatch(
+        int batchId,
+        long commitStartTime,
+        long layoutTime,
+        long dispatchViewUpdatesTime,
+        long nativeModulesThreadCpuTime,
+        @Nullable ArrayDeque<UIOperation> nonBatchedOperations,
+        @Nullable ArrayList<UIOperation> batchedOperations,
+        boolean isIncremental) {
+      mBatchId = batchId;
+      mCommitStartTime = commitStartTime;
+      mLayoutTime = layoutTime;
+      mDispatchViewUpdatesTime = dispatchViewUpdatesTime;
+      mNativeModulesThreadCpuTime = nativeModulesThreadCpuTime;
+      mNonBatchedOperations = nonBatchedOperations;
+      mBatchedOperations = batchedOperations;
+      mIsIncremental = isIncremental;
+      mOperationCount =
+          (nonBatchedOperations != null ? nonBatchedOperations.size() : 0)
+              + (batchedOperations != null ? batchedOperations.size() : 0);
+    }
+
+    /**
+     * @return whether the batch has been entirely executed
+     */
+    public boolean execute(long deadlineNanos) {
+      SystraceMessage.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "DispatchUI")
+          .arg("BatchId", mBatchId)
+          .flush();
+      long startTime = SystemClock.uptimeMillis();
+      if (mRunStartTime == 0) {
+        mRunStartTime = startTime;
+      }
+      mFrameCount++;
+      try {
+        if (mIsIncremental) {
+          if (!executeUnmountedViewOperations(deadlineNanos)) {
+            mExecutionTime += SystemClock.uptimeMillis() - startTime;
+            return false;
+          }
+          mBatchedOperations = mDeferredOperations;
+          mIsIncremental = false;
+        }
+
+        // All nonBatchedOperations should be executed before regular operations as
+        // regular operations may depend on them
+        if (mNonBatchedOperations != null) {
+          for (UIOperation op : mNonBatchedOperations) {
+            op.execute();
+          }
+        }
+
+        if (mBatchedOperations != null) {
+          for (int i = 0; i < mBatchedOperations.size(); i++) {
+            mBatchedOperations.get(i).execute();
+          }
+        }
+
+        if (mIsProfilingNextBatch && mProfiledBatchCommitStartTime == 0) {
+          mProfiledBatchCommitStartTime = mCommitStartTime;
+          mProfiledBatchLayoutTime = mLayoutTime;
+          mProfiledBatchDispatchViewUpdatesTime = mDispatchViewUpdatesTime;
+          mProfiledBatchRunStartTime = mRunStartTime;
+          mThreadCpuTime = mNativeModulesThreadCpuTime;
+
+          Systrace.beginAsyncSection(
+              Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+              "delayBeforeDispatchViewUpdates",
+              0,
+              mProfiledBatchCommitStartTime * 1000000);
+          Systrace.endAsyncSection(
+              Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+              "delayBeforeDispatchViewUpdates",
+              0,
+              mProfiledBatchDispatchViewUpdatesTime * 1000000);
+          Systrace.beginAsyncSection(
+              Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+              "delayBeforeBatchRunStart",
+              0,
+              mProfiledBatchDispatchViewUpdatesTime * 1000000);
+          Systrace.endAsyncSection(
+              Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+              "delayBeforeBatchRunStart",
+              0,
+              mProfiledBatchRunStartTime * 1000000);
+        }
+
+        // Clear layout animation, as animation only apply to current UI operations batch.
+        mNativeViewHierarchyManager.clearLayoutAnimation();
+
+        if (mViewHierarchyUpdateDebugListener != null) {
+          mViewHierarchyUpdateDebugListener.onViewHierarchyUpdateFinished();
+        }
+
+        mExecutionTime += SystemClock.uptimeMillis() - startTime;
+        if (mBatchMetricsListener != null) {
+          mBatchMetricsListener.onBatchExecuted(
+              mBatchId,
+              mOperationCount,
+              mFrameCount,
+              mCommitStartTime,
+              mRunStartTime,
+              mExecutionTime);
+        }
+        return true;
+      } catch (Exception e) {
+        mIsInIllegalUIState = true;
+        throw e;
+      } finally {
+        Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+      }
+    }
+
+    /**
+     * Executes the first phase of an incremental execution until the deadline, always making
+     * progress by at least one operation.
+     *
+     * @return whether the phase is over
+     */
+    private boolean executeUnmountedViewOperations(long deadlineNanos) {
+      boolean hasExecutedOperation = false;
+      if (mNonBatchedOperations != null) {
+        while (!mNonBatchedOperations.isEmpty()) {
+          if (hasExecutedOperation && System.nanoTime() > deadlineNanos) {
+            return false;
+          }
+          mNonBatchedOperations.pollFirst().execute();
+          hasExecutedOperation = true;
+        }
+      }
+
+      if (mBatchedOperations != null) {
+        while (mNextOperationIndex < mBatchedOperations.size()) {
+          UIOperation op = mBatchedOperations.get(mNextOperationIndex);
+          if (isUnmountedViewOperation(op)) {
+            if (hasExecutedOperation && System.nanoTime() > deadlineNanos) {
+              return false;
+            }
+            op.execute();
+            hasExecutedOperation = true;
+          } else {
+            deferOperation(op);
+          }
+          mNextOperationIndex++;
+        }
+      }
+      return true;
+    }
+
+    private boolean isUnmountedViewOperation(UIOperation op) {
+      if (!(op instanceof UpdatePropertiesOperation
+          || op instanceof UpdateLayoutOperation
+          || op instanceof UpdateViewExtraData
+          || op instanceof UpdateInstanceHandleOperation)) {
+        return false;
+      }
+      int tag = ((ViewOperation) op).mTag;
+      return !mDeferredTags.get(tag) && mNativeViewHierarchyManager.isUnmountedView(tag);
+    }
+
+    private void deferOperation(UIOperation op) {
+      mDeferredOperations.add(op);
+      // Operations targeting a view after one of its operations was deferred are deferred as well to
+      // keep their order. Adding children doesn't need to be ordered with the updates of the children.
+      if (op instanceof ViewOperation
+          && !(op instanceof ManageChildrenOperation)
+          && !(op instanceof SetChildrenOperation)) {
+        mDeferredTags.put(((ViewOperation) op).mTag, true);
+      }
+    }
+  }
+
   /**
    * Choreographer FrameCallback responsible for actually dispatching view updates on the UI thread
    * that were enqueued via {@link #dispatchViewUpdates(int)}. The reason we don't just enqueue
@@ -1082,7 +1270,9 @@ public class UIViewOperationQueue {
         Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
       }
 
-      flushPendingBatches();
+      flushPendingBatches(
+          frameTimeNanos
+              + (FRAME_TIME_MS - mMinTimeLeftInFrameForNonBatchedOperationMs) * 1000000L);
 
       ReactChoreographer.getInstance().postFrameCallback(
         ReactChoreographer.CallbackType.DISPATCH_UI, this);
@@ -5,8 +5,12 @@
 
 package com.facebook.react.uimanager;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import android.view.View;
 
@@ -32,11 +36,36 @@ public class ViewManagerPropertyUpdater {
   private static final Map<Class<?>, ViewManagerSetter<?, ?>> VIEW_MANAGER_SETTER_MAP =
       new HashMap<>();
   private static final Map<Class<?>, ShadowNodeSetter<?>> SHADOW_NODE_SETTER_MAP = new HashMap<>();
+  // Names of the classes without a generated setter, whose props are set through reflection.
+  private static final Set<String> REFLECTION_FALLBACK_CLASS_NAMES = new TreeSet<>();
 
   public static void clear() {
     ViewManagersPropertyCache.clear();
     VIEW_MANAGER_SETTER_MAP.clear();
     SHADOW_NODE_SETTER_MAP.clear();
+    synchronized (REFLECTION_FALLBACK_CLASS_NAMES) {
+      REFLECTION_FALLBACK_CLASS_NAMES.clear();
+    }
+  }
+
+  /**
+   * Returns the names of the view managers and shadow nodes looked up so far that have no
+   * generated {@code $$PropsSetter} and have their props set through reflection.
+   */
+  public static List<String> getReflectionFallbackClassNames() {
+    synchronized (REFLECTION_FALLBACK_CLASS_NAMES) {
+      return new ArrayList<>(REFLECTION_FALLBACK_CLASS_NAMES);
+    }
+  }
+
+  /* package */ static void logReflectionFallbacks() {
+    List<String> classNames = getReflectionFallbackClassNames();
+    if (!classNames.isEmpty()) {
+      FLog.w(
+          TAG,
+          classNames.size() + " view managers and shadow nodes set props through reflection: " +
+              classNames);
+    }
   }
 
   public static <T extends ViewManager, V extends View> void updateProps(
@@ -80,6 +109,7 @@ public class ViewManagerPropertyUpdater {
       setter = findGeneratedSetter(managerClass);
       if (setter == null) {
         setter = new FallbackViewManagerSetter<>(managerClass);
+        addReflectionFallback(managerClass);
       }
       VIEW_MANAGER_SETTER_MAP.put(managerClass, setter);
     }
@@ -95,6 +125,7 @@ public class ViewManagerPropertyUpdater {
       setter = findGeneratedSetter(nodeClass);
       if (setter == null) {
         setter = new FallbackShadowNodeSetter<>(nodeClass);
+        addReflectionFallback(nodeClass);
       }
       SHADOW_NODE_SETTER_MAP.put(nodeClass, setter);
     }
@@ -102,6 +133,12 @@ public class ViewManagerPropertyUpdater {
     return setter;
   }
 
+  private static void addReflectionFallback(Class<?> cls) {
+    synchronized (REFLECTION_FALLBACK_CLASS_NAMES) {
+      REFLECTION_FALLBACK_CLASS_NAMES.add(cls.getName());
+    }
+  }
+
   private static <T> T findGeneratedSetter(Class<?> cls) {
     String clsName = cls.getName();
     try {
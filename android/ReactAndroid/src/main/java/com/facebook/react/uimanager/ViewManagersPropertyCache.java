@@ -301,6 +301,38 @@ import javax.annotation.Nullable;
     return nativeProps;
   }
 
+  /**
+   * Returns true if the prop is set through the given setter of {@link BaseViewManager}, or through
+   * an override of it, so that calling that setter directly updates views of the class the same way
+   * as updating their props does.
+   */
+  /*package*/ static boolean isBaseViewManagerPropSetter(
+      Class<? extends ViewManager> cls,
+      String propName,
+      String setterName,
+      Class<?> valueType) {
+    PropSetter setter = getNativePropSettersForViewManagerClass(cls).get(propName);
+    if (setter == null || !setter.mSetter.getName().equals(setterName)) {
+      return false;
+    }
+    Class<?>[] parameterTypes = setter.mSetter.getParameterTypes();
+    if (parameterTypes.length != 2 || parameterTypes[1] != valueType) {
+      return false;
+    }
+    Class<?> declaringClass = setter.mSetter.getDeclaringClass();
+    if (declaringClass == BaseViewManager.class || parameterTypes[0] == View.class) {
+      return true;
+    }
+    try {
+      // An override for a narrower view type comes with a bridge method with the erased signature
+      // in the same class, an overload doesn't
+      declaringClass.getDeclaredMethod(setterName, View.class, valueType);
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
   /**
    * Returns map from property name to setter instances for all the property setters annotated with
    * {@link ReactProp} in the given {@link ViewManager} class plus all the setter declared by its
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager.debug;
+
+import com.facebook.react.uimanager.UIManagerModule;
+
+/**
+ * A listener that is notified with timings of the UI batches executed by {@link UIManagerModule}.
+ * This listener should only be used for monitoring purposes and should not affect application
+ * state. It is always called from the UI thread.
+ */
+public interface NotThreadSafeUIBatchMetricsListener {
+
+  /**
+   * Called once all the operations of a UI batch have been executed.
+   *
+   * @param batchId id of the JS batch the operations come from
+   * @param operationCount number of operations in the batch
+   * @param frameCount number of frames the execution of the batch was spread over
+   * @param commitStartTime uptime in ms at which JS started committing the batch
+   * @param runStartTime uptime in ms at which the UI thread started executing the batch
+   * @param executionTime time in ms spent executing the batch on the UI thread
+   */
+  void onBatchExecuted(
+      int batchId,
+      int operationCount,
+      int frameCount,
+      long commitStartTime,
+      long runStartTime,
+      long executionTime);
+}
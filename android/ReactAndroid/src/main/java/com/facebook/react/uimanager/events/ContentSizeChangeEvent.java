@@ -5,6 +5,8 @@
 
 package com.facebook.react.uimanager.events;
 
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.PixelUtil;
@@ -16,15 +18,43 @@ public class ContentSizeChangeEvent extends Event<ContentSizeChangeEvent> {
 
   public static final String EVENT_NAME = "topContentSizeChange";
 
-  private final int mWidth;
-  private final int mHeight;
+  private static final Pools.SynchronizedPool<ContentSizeChangeEvent> EVENTS_POOL =
+      new Pools.SynchronizedPool<>(4);
+
+  private int mWidth;
+  private int mHeight;
+
+  public static ContentSizeChangeEvent obtain(int viewTag, int width, int height) {
+    ContentSizeChangeEvent event = EVENTS_POOL.acquire();
+    if (event == null) {
+      event = new ContentSizeChangeEvent();
+    }
+    event.init(viewTag, width, height);
+    return event;
+  }
 
+  /**
+   * @deprecated use {@link #obtain(int, int, int)} so that events are recycled
+   */
+  @Deprecated
   public ContentSizeChangeEvent(int viewTag, int width, int height) {
-    super(viewTag);
+    init(viewTag, width, height);
+  }
+
+  private ContentSizeChangeEvent() {
+  }
+
+  private void init(int viewTag, int width, int height) {
+    super.init(viewTag);
     mWidth = width;
     mHeight = height;
   }
 
+  @Override
+  public void onDispose() {
+    EVENTS_POOL.release(this);
+  }
+
   @Override
   public String getEventName() {
     return EVENT_NAME;
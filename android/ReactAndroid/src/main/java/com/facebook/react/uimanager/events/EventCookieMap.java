@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from event cookies to indices in the dispatch queue, used by
+ * {@link EventDispatcher} to coalesce events without boxing either of them.
+ */
+/* package */ final class EventCookieMap {
+
+  public static final int NO_INDEX = -1;
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  private long[] mKeys = new long[INITIAL_CAPACITY];
+  // Index + 1 so that the zero filled array means empty slots
+  private int[] mValues = new int[INITIAL_CAPACITY];
+  private int mSize = 0;
+
+  /**
+   * @return the index stored for the cookie, or {@link #NO_INDEX}
+   */
+  public int get(long cookie) {
+    int mask = mKeys.length - 1;
+    for (int slot = hash(cookie) & mask; mValues[slot] != 0; slot = (slot + 1) & mask) {
+      if (mKeys[slot] == cookie) {
+        return mValues[slot] - 1;
+      }
+    }
+    return NO_INDEX;
+  }
+
+  public void put(long cookie, int index) {
+    // Keep the load factor under 1/2 so probe sequences stay short
+    if (2 * (mSize + 1) > mKeys.length) {
+      grow();
+    }
+    int mask = mKeys.length - 1;
+    int slot = hash(cookie) & mask;
+    while (mValues[slot] != 0) {
+      if (mKeys[slot] == cookie) {
+        mValues[slot] = index + 1;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    mKeys[slot] = cookie;
+    mValues[slot] = index + 1;
+    mSize++;
+  }
+
+  public void clear() {
+    if (mSize > 0) {
+      Arrays.fill(mValues, 0);
+      mSize = 0;
+    }
+  }
+
+  private void grow() {
+    long[] keys = mKeys;
+    int[] values = mValues;
+    mKeys = new long[keys.length * 2];
+    mValues = new int[values.length * 2];
+    mSize = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (values[i] != 0) {
+        put(keys[i], values[i] - 1);
+      }
+    }
+  }
+
+  private static int hash(long cookie) {
+    // The view tag lives in the low bits and the event type and coalescing key in the high bits,
+    // mix them so that all of them affect the slot
+    long h = cookie * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
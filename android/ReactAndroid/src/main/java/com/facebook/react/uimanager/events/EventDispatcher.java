@@ -7,7 +7,6 @@
 
 package com.facebook.react.uimanager.events;
 
-import android.util.LongSparseArray;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -22,6 +21,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -82,13 +82,13 @@ public class EventDispatcher implements LifecycleEventListener {
     }
   };
 
-  private final Object mEventsStagingLock = new Object();
   private final Object mEventsToDispatchLock = new Object();
   private final ReactApplicationContext mReactContext;
-  private final LongSparseArray<Integer> mEventCookieToLastEventIdx = new LongSparseArray<>();
+  private final EventCookieMap mEventCookieToLastEventIdx = new EventCookieMap();
   private final Map<String, Short> mEventNameToEventId = MapBuilder.newHashMap();
   private final DispatchEventsRunnable mDispatchEventsRunnable = new DispatchEventsRunnable();
-  private final ArrayList<Event> mEventStaging = new ArrayList<>();
+  // Events can be dispatched from any thread, staging them doesn't take a lock
+  private final ConcurrentLinkedQueue<Event> mEventStaging = new ConcurrentLinkedQueue<>();
   private final ArrayList<EventDispatcherListener> mListeners = new ArrayList<>();
   private final List<BatchEventDispatchedListener> mPostEventDispatchListeners = new ArrayList<>();
   private final ScheduleDispatchFrameCallback mCurrentFrameCallback =
@@ -113,17 +113,15 @@ public class EventDispatcher implements LifecycleEventListener {
   public void dispatchEvent(Event event) {
     Assertions.assertCondition(event.isInitialized(), "Dispatched event hasn't been initialized");
 
-    for (EventDispatcherListener listener : mListeners) {
-      listener.onEventDispatch(event);
+    for (int i = 0; i < mListeners.size(); i++) {
+      mListeners.get(i).onEventDispatch(event);
     }
 
-    synchronized (mEventsStagingLock) {
-      mEventStaging.add(event);
-      Systrace.startAsyncFlow(
-          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-          event.getEventName(),
-          event.getUniqueID());
-    }
+    Systrace.startAsyncFlow(
+        Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+        event.getEventName(),
+        event.getUniqueID());
+    mEventStaging.offer(event);
     maybePostFrameCallbackFromNonUI();
   }
 
@@ -202,50 +200,46 @@ public class EventDispatcher implements LifecycleEventListener {
    * frame and another from this frame during the next.
    */
   private void moveStagedEventsToDispatchQueue() {
-    synchronized (mEventsStagingLock) {
-      synchronized (mEventsToDispatchLock) {
-        for (int i = 0; i < mEventStaging.size(); i++) {
-          Event event = mEventStaging.get(i);
-
-          if (!event.canCoalesce()) {
-            addEventToEventsToDispatch(event);
-            continue;
-          }
-
-          long eventCookie = getEventCookie(
-              event.getViewTag(),
-              event.getEventName(),
-              event.getCoalescingKey());
-
-          Event eventToAdd = null;
-          Event eventToDispose = null;
-          Integer lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie);
+    synchronized (mEventsToDispatchLock) {
+      Event event;
+      while ((event = mEventStaging.poll()) != null) {
+        if (!event.canCoalesce()) {
+          addEventToEventsToDispatch(event);
+          continue;
+        }
 
-          if (lastEventIdx == null) {
-            eventToAdd = event;
+        long eventCookie = getEventCookie(
+            event.getViewTag(),
+            event.getEventName(),
+            event.getCoalescingKey());
+
+        Event eventToAdd = null;
+        Event eventToDispose = null;
+        int lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie);
+
+        if (lastEventIdx == EventCookieMap.NO_INDEX) {
+          eventToAdd = event;
+          mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+        } else {
+          Event lastEvent = mEventsToDispatch[lastEventIdx];
+          Event coalescedEvent = event.coalesce(lastEvent);
+          if (coalescedEvent != lastEvent) {
+            eventToAdd = coalescedEvent;
             mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+            eventToDispose = lastEvent;
+            mEventsToDispatch[lastEventIdx] = null;
           } else {
-            Event lastEvent = mEventsToDispatch[lastEventIdx];
-            Event coalescedEvent = event.coalesce(lastEvent);
-            if (coalescedEvent != lastEvent) {
-              eventToAdd = coalescedEvent;
-              mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
-              eventToDispose = lastEvent;
-              mEventsToDispatch[lastEventIdx] = null;
-            } else {
-              eventToDispose = event;
-            }
+            eventToDispose = event;
           }
+        }
 
-          if (eventToAdd != null) {
-            addEventToEventsToDispatch(eventToAdd);
-          }
-          if (eventToDispose != null) {
-            eventToDispose.dispose();
-          }
+        if (eventToAdd != null) {
+          addEventToEventsToDispatch(eventToAdd);
+        }
+        if (eventToDispose != null) {
+          eventToDispose.dispose();
         }
       }
-      mEventStaging.clear();
     }
   }
 
@@ -25,7 +25,7 @@ import com.facebook.react.bridge.SoftAssertions;
  */
 public class TouchEvent extends Event<TouchEvent> {
 
-  private static final int TOUCH_EVENTS_POOL_SIZE = 3;
+  private static final int TOUCH_EVENTS_POOL_SIZE = 12;
 
   private static final Pools.SynchronizedPool<TouchEvent> EVENTS_POOL =
       new Pools.SynchronizedPool<>(TOUCH_EVENTS_POOL_SIZE);
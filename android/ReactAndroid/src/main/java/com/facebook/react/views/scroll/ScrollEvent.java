@@ -26,7 +26,7 @@ import com.facebook.react.uimanager.events.RCTEventEmitter;
 public class ScrollEvent extends Event<ScrollEvent> {
 
   private static final Pools.SynchronizedPool<ScrollEvent> EVENTS_POOL =
-      new Pools.SynchronizedPool<>(3);
+      new Pools.SynchronizedPool<>(8);
 
   private int mScrollX;
   private int mScrollY;
@@ -720,7 +720,7 @@ public class ReactWebViewManager extends SimpleViewManager<WebView> {
             public void onNewPicture(WebView webView, Picture picture) {
               dispatchEvent(
                   webView,
-                  new ContentSizeChangeEvent(
+                  ContentSizeChangeEvent.obtain(
                       webView.getId(), webView.getWidth(), webView.getContentHeight()));
             }
           };
@@ -11,6 +11,7 @@ import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.uimanager.ReactStylesDiffMap;
@@ -37,10 +38,14 @@ import org.robolectric.RobolectricTestRunner;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyFloat;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -183,6 +188,31 @@ public class NativeAnimatedNodeTraversalTest {
     verifyNoMoreInteractions(mUIImplementationMock);
   }
 
+  @Test
+  public void testOpacityIsUpdatedThroughTypedSetters() {
+    createSimpleAnimatedViewWithOpacity(1000, 0d);
+    PowerMockito
+        .when(mUIImplementationMock.synchronouslyUpdateViewOpacityAndTransformOnUIThread(
+            anyInt(), anyBoolean(), anyFloat(), any(ReadableArray.class)))
+        .thenReturn(true);
+
+    JavaOnlyArray frames = JavaOnlyArray.of(0d, 0.5d, 1d);
+    Callback animationCallback = mock(Callback.class);
+    mNativeAnimatedNodesManager.startAnimatingNode(
+      1,
+      1,
+      JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1d),
+      animationCallback);
+
+    for (int i = 0; i < frames.size(); i++) {
+      mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+      verify(mUIImplementationMock).synchronouslyUpdateViewOpacityAndTransformOnUIThread(
+          eq(1000), eq(true), eq((float) frames.getDouble(i)), (ReadableArray) isNull());
+    }
+    verify(mUIImplementationMock, never())
+        .synchronouslyUpdateViewOnUIThread(anyInt(), any(ReactStylesDiffMap.class));
+  }
+
   @Test
   public void testFramesAnimationLoopsFiveTimes() {
     createSimpleAnimatedViewWithOpacity(1000, 0d);
@@ -29,6 +29,7 @@ import org.powermock.modules.junit4.rule.PowerMockRule;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.io.File;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Arrays;
@@ -36,6 +37,8 @@ import java.util.Random;
 import java.util.UUID;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
@@ -146,6 +149,54 @@ public class BlobModuleTest {
     assertArrayEquals(result, buffer.array());
   }
 
+  @Test
+  public void testResolveSpilledBlob() {
+    BlobModule blobModule = new BlobModule(ReactTestHelper.createCatalystContextForTest(), 0, 16);
+    String blobId = blobModule.store(mBytes);
+    Uri uri = new Uri.Builder().appendPath(blobId).build();
+
+    File file = blobModule.getFile(uri);
+    assertNotNull(file);
+    assertEquals(mBytes.length, file.length());
+    assertArrayEquals(mBytes, blobModule.resolve(blobId, 0, mBytes.length));
+    assertArrayEquals(
+        Arrays.copyOfRange(mBytes, 30, 50),
+        blobModule.resolve(blobId, 30, 20));
+
+    blobModule.remove(blobId);
+
+    assertNull(blobModule.resolve(blobId, 0, mBytes.length));
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void testCreateFromPartsSpillsLargeBlobs() {
+    BlobModule blobModule = new BlobModule(ReactTestHelper.createCatalystContextForTest(), 0, 16);
+    String blobId = blobModule.store(mBytes);
+    String id = UUID.randomUUID().toString();
+
+    JavaOnlyMap blobData = new JavaOnlyMap();
+    blobData.putString("blobId", blobId);
+    blobData.putInt("offset", 10);
+    blobData.putInt("size", 40);
+    JavaOnlyMap blob = new JavaOnlyMap();
+    blob.putMap("data", blobData);
+    blob.putString("type", "blob");
+
+    JavaOnlyArray parts = new JavaOnlyArray();
+    parts.pushMap(blob);
+    parts.pushMap(blob);
+
+    blobModule.createFromParts(parts, id);
+
+    ByteBuffer buffer = ByteBuffer.allocate(80);
+    buffer.put(mBytes, 10, 40);
+    buffer.put(mBytes, 10, 40);
+
+    assertNotNull(blobModule.getFile(new Uri.Builder().appendPath(id).build()));
+    assertArrayEquals(buffer.array(), blobModule.resolve(id, 0, 80));
+  }
+
   @Test
   public void testRelease() {
     assertNotNull(mBlobModule.resolve(mBlobId, 0, mBytes.length));
@@ -324,6 +324,44 @@ public class AsyncStorageModuleTest {
         });
   }
 
+  @Test
+  public void testWriteBehind() throws Exception {
+    mStorage.setWriteBehindEnabled(true);
+
+    JavaOnlyArray keyValues = new JavaOnlyArray();
+    keyValues.pushArray(getArray("foo", "bar"));
+    keyValues.pushArray(getArray("merge", createJSONObject("key1", "val1").toString()));
+    Callback setCallback = mock(Callback.class);
+    mStorage.multiSet(keyValues, setCallback);
+    verify(setCallback, Mockito.times(1)).invoke();
+
+    mStorage.multiMerge(
+        JavaOnlyArray.of(getArray("merge", createJSONObject("key2", "val2").toString())),
+        mock(Callback.class));
+    mStorage.multiRemove(getArray("foo"), mock(Callback.class));
+
+    String mergedValue = createJSONObject("key1", "val1", "key2", "val2").toString();
+    Callback getCallback = mock(Callback.class);
+    mStorage.multiGet(getArray("merge", "foo"), getCallback);
+    verify(getCallback, Mockito.times(1)).invoke(
+        null,
+        JavaOnlyArray.of(getArray("merge", mergedValue), JavaOnlyArray.of("foo", null)));
+
+    // Listing keys commits the pending writes
+    Callback getAllCallback = mock(Callback.class);
+    mStorage.getAllKeys(getAllCallback);
+    verify(getAllCallback, Mockito.times(1)).invoke(null, getArray("merge"));
+
+    AsyncStorageModule storage = new AsyncStorageModule(
+        ReactTestHelper.createCatalystContextForTest(),
+        new RoboExecutorService());
+    Callback getCallback2 = mock(Callback.class);
+    storage.multiGet(getArray("merge"), getCallback2);
+    verify(getCallback2, Mockito.times(1)).invoke(
+        null,
+        JavaOnlyArray.of(getArray("merge", mergedValue)));
+  }
+
   private static JSONArray createJSONArray(Object... objects) {
     return new JSONArray(Arrays.asList(objects));
   }
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.view.View;
+import android.widget.FrameLayout;
+import com.facebook.react.bridge.Dynamic;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.uimanager.annotations.ReactProp;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Test {@link ViewManagersPropertyCache#isBaseViewManagerPropSetter}, used to tell whether a view
+ * can be updated through the typed setters of {@link BaseViewManager}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ViewManagersPropertyCacheTest {
+
+  private static class PlainViewManager extends SimpleViewManager<View> {
+    @Override
+    public String getName() {
+      return "PlainView";
+    }
+
+    @Override
+    protected View createViewInstance(ThemedReactContext reactContext) {
+      return new View(reactContext);
+    }
+  }
+
+  private static class OverridingViewManager extends SimpleViewManager<FrameLayout> {
+    @Override
+    public String getName() {
+      return "OverridingView";
+    }
+
+    @Override
+    protected FrameLayout createViewInstance(ThemedReactContext reactContext) {
+      return new FrameLayout(reactContext);
+    }
+
+    @Override
+    @ReactProp(name = ViewProps.OPACITY, defaultFloat = 1.f)
+    public void setOpacity(FrameLayout view, float opacity) {
+      super.setOpacity(view, opacity);
+    }
+  }
+
+  private static class OverloadingViewManager extends SimpleViewManager<View> {
+    @Override
+    public String getName() {
+      return "OverloadingView";
+    }
+
+    @Override
+    protected View createViewInstance(ThemedReactContext reactContext) {
+      return new View(reactContext);
+    }
+
+    @ReactProp(name = "transform")
+    public void setTransform(FrameLayout view, Dynamic matrix) {
+    }
+  }
+
+  @Test
+  public void testInheritedSetters() {
+    assertThat(ViewManagersPropertyCache.isBaseViewManagerPropSetter(
+        PlainViewManager.class, ViewProps.OPACITY, "setOpacity", float.class)).isTrue();
+    assertThat(ViewManagersPropertyCache.isBaseViewManagerPropSetter(
+        PlainViewManager.class, "transform", "setTransform", ReadableArray.class)).isTrue();
+  }
+
+  @Test
+  public void testOverriddenSetter() {
+    assertThat(ViewManagersPropertyCache.isBaseViewManagerPropSetter(
+        OverridingViewManager.class, ViewProps.OPACITY, "setOpacity", float.class)).isTrue();
+  }
+
+  @Test
+  public void testOverloadedSetter() {
+    assertThat(ViewManagersPropertyCache.isBaseViewManagerPropSetter(
+        OverloadingViewManager.class, "transform", "setTransform", ReadableArray.class)).isFalse();
+  }
+}
@@ -36,6 +36,11 @@
 -keepclassmembers class * {
   @org.unimodules.core.interfaces.ExpoMethod *;
 }
+# Generated method dispatchers are looked up by the name of their module.
+-keepnames class * extends org.unimodules.core.ExportedModule
+-keep class * implements org.unimodules.core.interfaces.ExportedMethodDispatcher {
+  <init>();
+}
 
 -keepclassmembers class * {
   @**.expo.core.interfaces.ExpoProp *;
@@ -70,6 +75,10 @@
 -keepclassmembers class *  { @**.facebook.react.uimanager.UIProp <fields>; }
 -keepclassmembers class *  { @**.facebook.react.uimanager.ReactProp <methods>; }
 -keepclassmembers class *  { @**.facebook.react.uimanager.ReactPropGroup <methods>; }
+# Generated prop setters are looked up by the name of their view manager or shadow node.
+-keepnames class * extends **.facebook.react.uimanager.ViewManager
+-keepnames class * implements **.facebook.react.uimanager.ReactShadowNode
+-keep class **$$PropsSetter { <init>(); }
 
 # TODO: shouldn't need these two rules
 -keep interface **.facebook.react.bridge.** { *; }
@@ -34,6 +34,7 @@ public abstract class AppLoader {
   private JSONObject mCachedManifest;
   private JSONObject mManifest;
   private String mLocalBundlePath;
+  private SpeculativeBundleFetch mSpeculativeBundleFetch;
   private boolean hasResolved = false;
   private final boolean mUseCacheOnly;
   private Runnable mRunnable;
@@ -135,6 +136,7 @@ public abstract class AppLoader {
         }
 
         if (shouldCheckForUpdate) {
+          startSpeculativeBundleFetch();
           startTimerAndFetchRemoteManifest(fallbackToCacheTimeout);
         } else {
           resolve();
@@ -207,6 +209,23 @@ public abstract class AppLoader {
     });
   }
 
+  // Starts fetching the bundle of the cached manifest while the remote manifest is still in flight.
+  // Most launches don't have an update so this saves waiting for the manifest before the bundle
+  // request goes out.
+  private void startSpeculativeBundleFetch() {
+    try {
+      String bundleUrl = mCachedManifest.getString(ExponentManifest.MANIFEST_BUNDLE_URL_KEY);
+      String id = mCachedManifest.getString(ExponentManifest.MANIFEST_ID_KEY);
+      String sdkVersion = mCachedManifest.getString(ExponentManifest.MANIFEST_SDK_VERSION_KEY);
+
+      mSpeculativeBundleFetch = new SpeculativeBundleFetch(bundleUrl, id, sdkVersion);
+      mSpeculativeBundleFetch.start(mCachedManifest);
+    } catch (Exception e) {
+      EXL.e(TAG, "Couldn't start speculative bundle fetch: " + e.toString());
+      mSpeculativeBundleFetch = null;
+    }
+  }
+
   private void stopTimer() {
     mExpoHandler.removeCallbacks(mRunnable);
   }
@@ -289,7 +308,7 @@ public abstract class AppLoader {
 
         final JSONObject finalManifest = mManifest;
 
-        Exponent.getInstance().loadJSBundle(mManifest, bundleUrl, Exponent.getInstance().encodeExperienceId(id), sdkVersion, new Exponent.BundleListener() {
+        Exponent.BundleListener bundleListener = new Exponent.BundleListener() {
           @Override
           public void onError(Exception e) {
             // if we fail to get a cached bundle, try to download it over the network as a last resort before failing
@@ -336,9 +355,21 @@ public abstract class AppLoader {
             }
             resolve();
           }
-          // forceNetwork fetch the bundle depending on whether or not the bundleUrl has changed
-          // since the last version we have cached
-        }, wasUpdated, forceCache);
+        };
+
+        SpeculativeBundleFetch speculativeBundleFetch = mSpeculativeBundleFetch;
+        mSpeculativeBundleFetch = null;
+        if (speculativeBundleFetch != null) {
+          if (!forceCache && !wasUpdated && speculativeBundleFetch.matches(bundleUrl, id, sdkVersion)) {
+            speculativeBundleFetch.confirm(bundleListener);
+            return;
+          }
+          speculativeBundleFetch.cancel();
+        }
+
+        // forceNetwork fetch the bundle depending on whether or not the bundleUrl has changed
+        // since the last version we have cached
+        Exponent.getInstance().loadJSBundle(mManifest, bundleUrl, Exponent.getInstance().encodeExperienceId(id), sdkVersion, bundleListener, wasUpdated, forceCache);
 
       } catch (JSONException e) {
         EXL.e(TAG, e);
@@ -353,4 +384,89 @@ public abstract class AppLoader {
       resolve(e);
     }
   }
+
+  // A bundle fetch started before we know whether the remote manifest still points at this bundle.
+  // Once the manifest arrives the fetch is either confirmed, in which case its result is handed to
+  // the real listener, or cancelled, in which case its result is dropped.
+  private static class SpeculativeBundleFetch implements Exponent.BundleListener {
+    private final String mBundleUrl;
+    private final String mId;
+    private final String mSdkVersion;
+
+    private boolean mIsCancelled = false;
+    private boolean mIsDone = false;
+    private String mLocalBundlePath;
+    private Exception mError;
+    private Exponent.BundleListener mListener;
+
+    SpeculativeBundleFetch(String bundleUrl, String id, String sdkVersion) {
+      mBundleUrl = bundleUrl;
+      mId = id;
+      mSdkVersion = sdkVersion;
+    }
+
+    void start(JSONObject manifest) throws Exception {
+      Analytics.markEvent(Analytics.TimedEvent.STARTED_SPECULATIVE_BUNDLE_FETCH);
+      Exponent.getInstance().loadJSBundle(manifest, mBundleUrl, Exponent.getInstance().encodeExperienceId(mId), mSdkVersion, this, false, false);
+    }
+
+    boolean matches(String bundleUrl, String id, String sdkVersion) {
+      return mBundleUrl.equals(bundleUrl) && mId.equals(id) && mSdkVersion.equals(sdkVersion);
+    }
+
+    void confirm(Exponent.BundleListener listener) {
+      Analytics.markEvent(Analytics.TimedEvent.CONFIRMED_SPECULATIVE_BUNDLE_FETCH);
+      synchronized (this) {
+        if (!mIsDone) {
+          mListener = listener;
+          return;
+        }
+      }
+      deliver(listener);
+    }
+
+    synchronized void cancel() {
+      Analytics.markEvent(Analytics.TimedEvent.CANCELLED_SPECULATIVE_BUNDLE_FETCH);
+      mIsCancelled = true;
+      mListener = null;
+    }
+
+    @Override
+    public void onBundleLoaded(String localBundlePath) {
+      Exponent.BundleListener listener;
+      synchronized (this) {
+        mIsDone = true;
+        mLocalBundlePath = localBundlePath;
+        listener = mListener;
+      }
+      if (listener != null) {
+        deliver(listener);
+      }
+    }
+
+    @Override
+    public void onError(Exception e) {
+      Exponent.BundleListener listener;
+      synchronized (this) {
+        mIsDone = true;
+        mError = e;
+        listener = mListener;
+      }
+      if (listener != null) {
+        deliver(listener);
+      }
+    }
+
+    private void deliver(Exponent.BundleListener listener) {
+      if (mIsCancelled) {
+        return;
+      }
+
+      if (mError != null) {
+        listener.onError(mError);
+      } else {
+        listener.onBundleLoaded(mLocalBundlePath);
+      }
+    }
+  }
 }
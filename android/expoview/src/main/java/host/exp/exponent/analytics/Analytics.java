@@ -47,6 +47,9 @@ public class Analytics {
     FINISHED_MANIFEST_NETWORK_REQUEST,
     FINISHED_FETCHING_MANIFEST,
     STARTED_FETCHING_BUNDLE,
+    STARTED_SPECULATIVE_BUNDLE_FETCH,
+    CONFIRMED_SPECULATIVE_BUNDLE_FETCH,
+    CANCELLED_SPECULATIVE_BUNDLE_FETCH,
     FINISHED_FETCHING_BUNDLE,
     STARTED_WRITING_BUNDLE,
     FINISHED_WRITING_BUNDLE,
@@ -145,6 +148,7 @@ public class Analytics {
       addDuration(eventProperties, "MANIFEST_TOTAL_DURATION", TimedEvent.FINISHED_FETCHING_MANIFEST, TimedEvent.STARTED_FETCHING_MANIFEST);
       addDuration(eventProperties, "MANIFEST_NETWORK_DURATION", TimedEvent.FINISHED_MANIFEST_NETWORK_REQUEST, TimedEvent.STARTED_MANIFEST_NETWORK_REQUEST);
       addDuration(eventProperties, "BUNDLE_FETCH_DURATION", TimedEvent.FINISHED_FETCHING_BUNDLE, TimedEvent.STARTED_FETCHING_BUNDLE);
+      addDuration(eventProperties, "SPECULATIVE_BUNDLE_HEAD_START_DURATION", TimedEvent.CONFIRMED_SPECULATIVE_BUNDLE_FETCH, TimedEvent.STARTED_SPECULATIVE_BUNDLE_FETCH);
       addDuration(eventProperties, "BUNDLE_WRITE_DURATION", TimedEvent.FINISHED_WRITING_BUNDLE, TimedEvent.STARTED_WRITING_BUNDLE);
       addDuration(eventProperties, "REACT_NATIVE_DURATION", TimedEvent.FINISHED_LOADING_REACT_NATIVE, TimedEvent.STARTED_LOADING_REACT_NATIVE);
 
@@ -9,7 +9,9 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.inject.Inject;
@@ -191,6 +193,27 @@ public class ExponentSharedPreferences {
     }
   }
 
+  // Bundle urls of every manifest saved with `updateManifest`.
+  public Set<String> getSavedBundleUrls() {
+    Set<String> bundleUrls = new HashSet<>();
+    for (Object value : mSharedPreferences.getAll().values()) {
+      if (!(value instanceof String) || !((String) value).contains(BUNDLE_URL_KEY)) {
+        continue;
+      }
+
+      try {
+        JSONObject json = new JSONObject((String) value);
+        String bundleUrl = json.optString(BUNDLE_URL_KEY, null);
+        if (bundleUrl != null) {
+          bundleUrls.add(bundleUrl);
+        }
+      } catch (JSONException e) {
+        // Not a saved manifest
+      }
+    }
+    return bundleUrls;
+  }
+
   public void updateSafeManifest(String manifestUrl, JSONObject manifest) {
     try {
       JSONObject parentObject;
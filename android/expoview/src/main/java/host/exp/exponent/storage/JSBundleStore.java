@@ -0,0 +1,383 @@
+// Copyright 2015-present 650 Industries. All rights reserved.
+
+package host.exp.exponent.storage;
+
+import android.content.Context;
+
+import com.facebook.common.internal.ByteStreams;
+import com.raizlabs.android.dbflow.sql.language.Select;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import host.exp.exponent.analytics.EXL;
+import host.exp.exponent.kernel.KernelConstants;
+
+/**
+ * Content-addressed store for downloaded JS bundles.
+ *
+ * Bundle bytes live in a single directory under the SHA-256 of their contents, so identical bundles
+ * downloaded for different manifests, experiences or ABI versions share one file. An index maps the
+ * logical bundle key (experience id + bundle url + ABI version) to a content hash. Bundles that are
+ * not referenced by a saved manifest and have not been used recently are garbage collected on a
+ * background thread, oldest first, until the store fits in its quota.
+ */
+public class JSBundleStore {
+
+  private static final String TAG = JSBundleStore.class.getSimpleName();
+
+  private static final String STORE_DIRECTORY_NAME = "bundle-store";
+  private static final String INDEX_FILE_NAME = "index.json";
+  private static final String TEMP_FILE_SUFFIX = ".tmp";
+  private static final String HASH_KEY = "hash";
+  private static final String URL_KEY = "url";
+  private static final String ABI_VERSION_KEY = "abiVersion";
+  private static final String LAST_USED_KEY = "lastUsed";
+
+  private static final long MAX_STORE_SIZE_BYTES = 100 * 1024 * 1024;
+  private static final long MAX_UNUSED_AGE_MS = 30L * 24 * 60 * 60 * 1000;
+  private static final long MAX_TEMP_FILE_AGE_MS = 24 * 60 * 60 * 1000;
+
+  private static class Entry {
+    String key;
+    String hash;
+    String url;
+    String abiVersion;
+    long lastUsed;
+  }
+
+  private final Context mContext;
+  private final File mDirectory;
+  private final File mIndexFile;
+  private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+  private final Set<String> mKeysUsedThisSession = new HashSet<>();
+  private Map<String, Entry> mIndex;
+
+  public JSBundleStore(Context context) {
+    mContext = context;
+    mDirectory = new File(context.getFilesDir(), STORE_DIRECTORY_NAME);
+    mIndexFile = new File(mDirectory, INDEX_FILE_NAME);
+  }
+
+  public static String getBundleKey(String id, String urlString, String abiVersion) {
+    return id + Integer.toString(urlString.hashCode()) + '-' + abiVersion;
+  }
+
+  public synchronized boolean hasBundle(String key) {
+    Entry entry = getIndex().get(key);
+    return entry != null && fileForHash(entry.hash).exists();
+  }
+
+  // Returns the stored bundle for `key` or null if there is none.
+  public synchronized File getBundleFile(String key) {
+    Entry entry = getIndex().get(key);
+    if (entry == null) {
+      return null;
+    }
+
+    File file = fileForHash(entry.hash);
+    if (!file.exists()) {
+      getIndex().remove(key);
+      writeIndex();
+      return null;
+    }
+
+    entry.lastUsed = System.currentTimeMillis();
+    mKeysUsedThisSession.add(key);
+    writeIndex();
+    return file;
+  }
+
+  // Streams `inputStream` into the store and points `key` at it. Returns the stored file.
+  public File putBundle(String key, String url, String abiVersion, InputStream inputStream) throws IOException {
+    ensureDirectory();
+
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+
+    File tempFile = File.createTempFile("bundle-", TEMP_FILE_SUFFIX, mDirectory);
+    FileOutputStream fileOutputStream = null;
+    DigestOutputStream digestOutputStream = null;
+    try {
+      fileOutputStream = new FileOutputStream(tempFile);
+      digestOutputStream = new DigestOutputStream(fileOutputStream, digest);
+      ByteStreams.copy(inputStream, digestOutputStream);
+      digestOutputStream.flush();
+      fileOutputStream.getFD().sync();
+    } catch (IOException e) {
+      tempFile.delete();
+      throw e;
+    } finally {
+      IOUtils.closeQuietly(digestOutputStream);
+      IOUtils.closeQuietly(fileOutputStream);
+      IOUtils.closeQuietly(inputStream);
+    }
+
+    String hash = String.valueOf(Hex.encodeHex(digest.digest()));
+    File file = fileForHash(hash);
+
+    synchronized (this) {
+      if (file.exists()) {
+        // Same bytes are already stored for another key or an earlier download.
+        tempFile.delete();
+      } else if (!tempFile.renameTo(file)) {
+        tempFile.delete();
+        throw new IOException("Could not move bundle to " + file.getAbsolutePath());
+      }
+
+      Entry entry = new Entry();
+      entry.key = key;
+      entry.hash = hash;
+      entry.url = url;
+      entry.abiVersion = abiVersion;
+      entry.lastUsed = System.currentTimeMillis();
+      getIndex().put(key, entry);
+      mKeysUsedThisSession.add(key);
+      writeIndex();
+    }
+
+    collectGarbageAsync();
+    return file;
+  }
+
+  public synchronized void removeBundlesForAbiVersion(String abiVersion) {
+    Iterator<Entry> iterator = getIndex().values().iterator();
+    while (iterator.hasNext()) {
+      Entry entry = iterator.next();
+      if (abiVersion.equals(entry.abiVersion)) {
+        iterator.remove();
+        mKeysUsedThisSession.remove(entry.key);
+      }
+    }
+    writeIndex();
+    deleteUnreferencedFiles();
+  }
+
+  public void collectGarbageAsync() {
+    mExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          collectGarbage();
+        } catch (Throwable e) {
+          EXL.e(TAG, "Error collecting bundle garbage: " + e.toString());
+        }
+      }
+    });
+  }
+
+  private void collectGarbage() {
+    // Queried outside of the lock since these hit the database and shared preferences.
+    Set<String> referencedUrls = getReferencedBundleUrls();
+    deleteLegacyBundleFiles();
+
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      Map<String, Long> sizes = new HashMap<>();
+      long totalSize = 0;
+      for (Entry entry : getIndex().values()) {
+        if (!sizes.containsKey(entry.hash)) {
+          long size = fileForHash(entry.hash).length();
+          sizes.put(entry.hash, size);
+          totalSize += size;
+        }
+      }
+
+      List<Entry> candidates = new ArrayList<>();
+      for (Entry entry : getIndex().values()) {
+        if (!mKeysUsedThisSession.contains(entry.key) && !referencedUrls.contains(entry.url)) {
+          candidates.add(entry);
+        }
+      }
+      Collections.sort(candidates, new Comparator<Entry>() {
+        @Override
+        public int compare(Entry lhs, Entry rhs) {
+          return Long.compare(lhs.lastUsed, rhs.lastUsed);
+        }
+      });
+
+      for (Entry entry : candidates) {
+        boolean isExpired = now - entry.lastUsed > MAX_UNUSED_AGE_MS;
+        if (!isExpired && totalSize <= MAX_STORE_SIZE_BYTES) {
+          break;
+        }
+
+        getIndex().remove(entry.key);
+        if (!isHashReferenced(entry.hash) && sizes.containsKey(entry.hash)) {
+          totalSize -= sizes.remove(entry.hash);
+        }
+      }
+
+      writeIndex();
+      deleteUnreferencedFiles();
+    }
+  }
+
+  private Set<String> getReferencedBundleUrls() {
+    Set<String> urls = new HashSet<>();
+    try {
+      List<ExperienceDBObject> experiences = new Select().from(ExperienceDBObject.class).queryList();
+      for (ExperienceDBObject experience : experiences) {
+        if (experience.bundleUrl != null) {
+          urls.add(experience.bundleUrl);
+        }
+      }
+    } catch (Throwable e) {
+      EXL.e(TAG, "Couldn't read experiences: " + e.toString());
+    }
+    urls.addAll(new ExponentSharedPreferences(mContext).getSavedBundleUrls());
+    return urls;
+  }
+
+  // Bundles used to be written to `getFilesDir()/<abiVersion>/cached-bundle-*`. Those are never
+  // read anymore.
+  private void deleteLegacyBundleFiles() {
+    File[] abiDirectories = mContext.getFilesDir().listFiles();
+    if (abiDirectories == null) {
+      return;
+    }
+
+    for (File abiDirectory : abiDirectories) {
+      if (!abiDirectory.isDirectory() || abiDirectory.equals(mDirectory)) {
+        continue;
+      }
+
+      File[] files = abiDirectory.listFiles();
+      if (files == null) {
+        continue;
+      }
+
+      for (File file : files) {
+        if (file.getName().startsWith(KernelConstants.BUNDLE_FILE_PREFIX)) {
+          file.delete();
+        }
+      }
+    }
+  }
+
+  private boolean isHashReferenced(String hash) {
+    for (Entry entry : getIndex().values()) {
+      if (entry.hash.equals(hash)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void deleteUnreferencedFiles() {
+    File[] files = mDirectory.listFiles();
+    if (files == null) {
+      return;
+    }
+
+    Set<String> hashes = new HashSet<>();
+    for (Entry entry : getIndex().values()) {
+      hashes.add(entry.hash);
+    }
+
+    for (File file : files) {
+      String name = file.getName();
+      if (name.equals(INDEX_FILE_NAME) || hashes.contains(name)) {
+        continue;
+      }
+      // Don't delete temp files of downloads that are still being written.
+      if (name.endsWith(TEMP_FILE_SUFFIX) && System.currentTimeMillis() - file.lastModified() < MAX_TEMP_FILE_AGE_MS) {
+        continue;
+      }
+      file.delete();
+    }
+  }
+
+  private File fileForHash(String hash) {
+    return new File(mDirectory, hash);
+  }
+
+  private void ensureDirectory() throws IOException {
+    if (!(mDirectory.isDirectory() || mDirectory.mkdirs())) {
+      throw new IOException("Couldn't create directory '" + mDirectory + "'");
+    }
+  }
+
+  private Map<String, Entry> getIndex() {
+    if (mIndex == null) {
+      mIndex = readIndex();
+    }
+    return mIndex;
+  }
+
+  private Map<String, Entry> readIndex() {
+    Map<String, Entry> index = new HashMap<>();
+    if (!mIndexFile.exists()) {
+      return index;
+    }
+
+    try {
+      JSONObject json = new JSONObject(FileUtils.readFileToString(mIndexFile, "UTF-8"));
+      Iterator<String> keys = json.keys();
+      while (keys.hasNext()) {
+        String key = keys.next();
+        JSONObject entryJson = json.getJSONObject(key);
+
+        Entry entry = new Entry();
+        entry.key = key;
+        entry.hash = entryJson.getString(HASH_KEY);
+        entry.url = entryJson.optString(URL_KEY, null);
+        entry.abiVersion = entryJson.optString(ABI_VERSION_KEY, null);
+        entry.lastUsed = entryJson.optLong(LAST_USED_KEY, 0);
+        index.put(key, entry);
+      }
+    } catch (IOException | JSONException e) {
+      EXL.e(TAG, "Couldn't read bundle index: " + e.toString());
+    }
+    return index;
+  }
+
+  private void writeIndex() {
+    try {
+      JSONObject json = new JSONObject();
+      for (Entry entry : getIndex().values()) {
+        JSONObject entryJson = new JSONObject();
+        entryJson.put(HASH_KEY, entry.hash);
+        entryJson.put(URL_KEY, entry.url);
+        entryJson.put(ABI_VERSION_KEY, entry.abiVersion);
+        entryJson.put(LAST_USED_KEY, entry.lastUsed);
+        json.put(entry.key, entryJson);
+      }
+
+      ensureDirectory();
+      File tempFile = new File(mDirectory, INDEX_FILE_NAME + TEMP_FILE_SUFFIX);
+      FileUtils.writeStringToFile(tempFile, json.toString(), "UTF-8");
+      if (!tempFile.renameTo(mIndexFile)) {
+        EXL.e(TAG, "Couldn't move bundle index into place");
+      }
+    } catch (IOException | JSONException e) {
+      EXL.e(TAG, "Couldn't write bundle index: " + e.toString());
+    }
+  }
+}
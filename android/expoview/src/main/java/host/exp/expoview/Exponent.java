@@ -14,16 +14,17 @@ import android.os.StrictMode;
 import android.os.UserManager;
 import android.provider.Settings;
 import android.util.Log;
+import android.util.LruCache;
 
 import com.crashlytics.android.Crashlytics;
-import com.facebook.common.internal.ByteStreams;
 import com.facebook.drawee.backends.pipeline.Fresco;
 import com.facebook.stetho.Stetho;
 import com.raizlabs.android.dbflow.config.FlowManager;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
 import org.apache.commons.io.output.ByteArrayOutputStream;
-import org.apache.commons.io.output.TeeOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.io.output.ThresholdingOutputStream;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -32,17 +33,16 @@ import org.spongycastle.jce.provider.BouncyCastleProvider;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.net.URLEncoder;
 import java.security.Provider;
 import java.security.Security;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -74,6 +74,7 @@ import host.exp.exponent.network.ExpoResponse;
 import host.exp.exponent.network.ExponentHttpClient;
 import host.exp.exponent.network.ExponentNetwork;
 import host.exp.exponent.storage.ExponentSharedPreferences;
+import host.exp.exponent.storage.JSBundleStore;
 import host.exp.exponent.utils.PermissionsHelper;
 import versioned.host.exp.exponent.ExponentPackageDelegate;
 
@@ -82,24 +83,27 @@ public class Exponent {
   private static final String TAG = Exponent.class.getSimpleName();
   private static final String PACKAGER_RUNNING = "running";
   private static final Pattern ABIVERSION_PATTERN = Pattern.compile("\\d+\\.\\d+\\.\\d+|UNVERSIONED");
+  // Max number of bundle source bytes kept on the heap. Bundles bigger than this are only
+  // written to disk and React Native memory-maps the file instead.
+  private static final int BUNDLE_SOURCE_CACHE_MAX_BYTES = 4 * 1024 * 1024;
 
   private static Exponent sInstance;
 
   private Context mContext;
   private Application mApplication;
   private Activity mActivity;
-  private Map<String, String> mBundleStrings = new HashMap<>();
+  private JSBundleStore mBundleStore;
+  private final LruCache<String, String> mBundleStrings = new LruCache<String, String>(BUNDLE_SOURCE_CACHE_MAX_BYTES) {
+    @Override
+    protected int sizeOf(String key, String value) {
+      // Java strings are UTF-16 so each char takes two bytes.
+      return value.length() * 2;
+    }
+  };
 
+  // Returns null if the source isn't in memory, in which case the caller should load it from the file.
   public String getBundleSource(final String path) {
-    synchronized (mBundleStrings) {
-      if (mBundleStrings.containsKey(path)) {
-        final String result = mBundleStrings.get(path);
-        mBundleStrings.remove(path);
-        return result;
-      } else {
-        return null;
-      }
-    }
+    return mBundleStrings.remove(path);
   }
 
   @Inject
@@ -129,6 +133,7 @@ public class Exponent {
 
     mContext = context;
     mApplication = application;
+    mBundleStore = new JSBundleStore(context);
 
     // Ensure Spongy Castle installed so the security providers don't change
     // non-deterministically during the process's lifetime
@@ -181,6 +186,9 @@ public class Exponent {
       Stetho.initializeWithDefaults(context);
     }
 
+    // Needs FlowManager to be initialized.
+    mBundleStore.collectGarbageAsync();
+
     if (!ExpoViewBuildConfig.DEBUG) {
       // There are a few places in RN code that throw NetworkOnMainThreadException.
       // WebsocketJavaScriptExecutor.connectInternal closes a websocket on the main thread.
@@ -348,17 +356,13 @@ public class Exponent {
 
     // The bundle is cached in two places:
     //   1. The OkHttp cache (which lives in internal storage)
-    //   2. Written to our own file (in cache dir)
+    //   2. Written to our own content-addressed store (in files dir)
     // Ideally we'd take the OkHttp response and send the InputStream directly to RN but RN doesn't
     // support that right now so we need to write the response to a file.
     // getCacheDir() doesn't work here! Some phones clean the file up in between when we check
     // file.exists() and when we feed it into React Native!
-    // TODO: clean up files here!
-    final String fileName = KernelConstants.BUNDLE_FILE_PREFIX + id + Integer.toString(urlString.hashCode()) + '-' + abiVersion;
-    final File directory = new File(mContext.getFilesDir(), abiVersion);
-    if (!directory.exists()) {
-      directory.mkdir();
-    }
+    final String bundleKey = JSBundleStore.getBundleKey(id, urlString, abiVersion);
+    final String bundleAbiVersion = abiVersion;
 
     try {
       Request.Builder requestBuilder = KernelConstants.KERNEL_BUNDLE_ID.equals(id)
@@ -398,47 +402,23 @@ public class Exponent {
             if (!id.equals(KernelConstants.KERNEL_BUNDLE_ID)) {
               Analytics.markEvent(Analytics.TimedEvent.STARTED_WRITING_BUNDLE);
             }
-            final File sourceFile = new File(directory, fileName);
-            boolean hasCachedSourceFile = false;
+            File cachedSourceFile = null;
 
             if (response.networkResponse() == null || response.networkResponse().code() == KernelConstants.HTTP_NOT_MODIFIED) {
               // If we're getting a cached response don't rewrite the file to disk.
               EXL.d(TAG, "Got cached OkHttp response for " + urlString);
-              if (sourceFile.exists()) {
-                hasCachedSourceFile = true;
+              cachedSourceFile = mBundleStore.getBundleFile(bundleKey);
+              if (cachedSourceFile != null) {
                 EXL.d(TAG, "Have cached source file for " + urlString);
               }
             }
 
-            if (!hasCachedSourceFile) {
-              InputStream inputStream = null;
-              FileOutputStream fileOutputStream = null;
-              ByteArrayOutputStream byteArrayOutputStream = null;
-              TeeOutputStream teeOutputStream = null;
-
-              try {
-                EXL.d(TAG, "Do not have cached source file for " + urlString);
-                inputStream = response.body().byteStream();
-
-                fileOutputStream = new FileOutputStream(sourceFile);
-                byteArrayOutputStream = new ByteArrayOutputStream();
-
-                // Multiplex the stream. Write both to file and string.
-                teeOutputStream = new TeeOutputStream(fileOutputStream, byteArrayOutputStream);
-
-                ByteStreams.copy(inputStream, teeOutputStream);
-                teeOutputStream.flush();
-
-                mBundleStrings.put(sourceFile.getAbsolutePath(), byteArrayOutputStream.toString());
-
-                fileOutputStream.flush();
-                fileOutputStream.getFD().sync();
-              } finally {
-                IOUtils.closeQuietly(teeOutputStream);
-                IOUtils.closeQuietly(fileOutputStream);
-                IOUtils.closeQuietly(byteArrayOutputStream);
-                IOUtils.closeQuietly(inputStream);
-              }
+            final File sourceFile;
+            if (cachedSourceFile != null) {
+              sourceFile = cachedSourceFile;
+            } else {
+              EXL.d(TAG, "Do not have cached source file for " + urlString);
+              sourceFile = writeBundleToStore(response.body().byteStream(), bundleKey, urlString, bundleAbiVersion);
             }
 
             if (!id.equals(KernelConstants.KERNEL_BUNDLE_ID)) {
@@ -479,26 +459,54 @@ public class Exponent {
     }
 
     // Guess whether we'll use the cache based on whether the source file is saved.
-    final File sourceFile = new File(directory, fileName);
-    return sourceFile.exists();
+    return mBundleStore.hasBundle(bundleKey);
+  }
+
+  // Streams the bundle into the bundle store. Small bundles are also kept in memory until React
+  // Native asks for them.
+  private File writeBundleToStore(final InputStream inputStream, final String bundleKey, final String urlString, final String abiVersion) throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    BoundedOutputStream boundedOutputStream = new BoundedOutputStream(byteArrayOutputStream, BUNDLE_SOURCE_CACHE_MAX_BYTES / 2);
+
+    // Multiplex the stream. Write both to file and, while it stays small enough, to memory.
+    File sourceFile = mBundleStore.putBundle(bundleKey, urlString, abiVersion, new TeeInputStream(inputStream, boundedOutputStream, true));
+
+    if (boundedOutputStream.isThresholdExceeded()) {
+      mBundleStrings.remove(sourceFile.getAbsolutePath());
+    } else {
+      mBundleStrings.put(sourceFile.getAbsolutePath(), byteArrayOutputStream.toString("UTF-8"));
+    }
+    return sourceFile;
+  }
+
+  // Forwards writes to `out` until more than `threshold` bytes have been written, then drops them.
+  private static class BoundedOutputStream extends ThresholdingOutputStream {
+    private OutputStream mOut;
+
+    BoundedOutputStream(OutputStream out, int threshold) {
+      super(threshold);
+      mOut = out;
+    }
+
+    @Override
+    protected OutputStream getStream() {
+      return mOut;
+    }
+
+    @Override
+    protected void thresholdReached() {
+      mOut = NullOutputStream.NULL_OUTPUT_STREAM;
+    }
   }
 
   // As OTAs piles up, the JS bundles will consume quite an amount of storage space
   // App developers, if find needed, can purge all the existing cache
   public boolean clearAllJSBundleCache(final String abiVersion) throws IOException {
-    final File filesDir = mContext.getFilesDir();
-    final File directory = new File(filesDir, abiVersion);
     if (!ABIVERSION_PATTERN.matcher(abiVersion).matches()) {
       return false;
     }
-    if (!directory.getCanonicalPath().startsWith(filesDir.getCanonicalPath())) {
-      return false;
-    }
-    if (directory.exists()) {
-      return directory.delete();
-    } else {
-      return false;
-    }
+    mBundleStore.removeBundlesForAbiVersion(abiVersion);
+    return true;
   }
 
   private void printSourceFile(String path) {
@@ -650,12 +658,37 @@ public class Exponent {
   }
 
   public void preloadManifestAndBundle(final String manifestUrl) {
+    // Start on the bundle we already know about while the manifest request is in flight. If the new
+    // manifest points at the same bundle there's nothing left to do once it arrives.
+    String speculativeBundleUrl = null;
+    ExponentSharedPreferences.ManifestAndBundleUrl cachedManifestAndBundleUrl = mExponentSharedPreferences.getManifest(manifestUrl);
+    if (cachedManifestAndBundleUrl != null && !ExponentManifest.isDebugModeEnabled(cachedManifestAndBundleUrl.manifest)) {
+      try {
+        JSONObject cachedManifest = cachedManifestAndBundleUrl.manifest;
+        speculativeBundleUrl = cachedManifest.getString(ExponentManifest.MANIFEST_BUNDLE_URL_KEY);
+        preloadBundle(
+            cachedManifest,
+            manifestUrl,
+            speculativeBundleUrl,
+            cachedManifest.getString(ExponentManifest.MANIFEST_ID_KEY),
+            cachedManifest.getString(ExponentManifest.MANIFEST_SDK_VERSION_KEY));
+      } catch (Exception e) {
+        EXL.e(TAG, "Couldn't speculatively preload bundle: " + e.toString());
+        speculativeBundleUrl = null;
+      }
+    }
+    final String finalSpeculativeBundleUrl = speculativeBundleUrl;
+
     try {
       mExponentManifest.fetchManifest(manifestUrl, new ExponentManifest.ManifestListener() {
         @Override
         public void onCompleted(JSONObject manifest) {
           try {
             String bundleUrl = manifest.getString(ExponentManifest.MANIFEST_BUNDLE_URL_KEY);
+            if (bundleUrl.equals(finalSpeculativeBundleUrl)) {
+              EXL.d(TAG, "Bundle for " + manifestUrl + " was already preloaded");
+              return;
+            }
 
             preloadBundle(
                 manifest,
@@ -2,21 +2,43 @@ package versioned.host.exp.exponent.modules.api.components.svg;
 
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.util.LruCache;
 
 import java.util.ArrayList;
 
+import javax.annotation.Nullable;
+
 class GlyphPathBag {
+    // Number of typeface, size and feature combinations kept around between text layouts
+    private static final int MAX_CACHED_BAGS = 32;
+
+    private static final LruCache<Key, GlyphPathBag> sBags = new LruCache<>(MAX_CACHED_BAGS);
+
     private final ArrayList<Path> paths = new ArrayList<>();
     private final int[][] data = new int[256][];
-    private final Paint paint;
 
-    GlyphPathBag(Paint paint) {
-        this.paint = paint;
+    /**
+     * Returns the bag of glyph outlines for the current typeface, text size and font feature
+     * settings of the paint, shared by every text layout using the same font.
+     */
+    static GlyphPathBag obtain(Paint paint) {
+        Key key = new Key(paint);
+        GlyphPathBag bag = sBags.get(key);
+        if (bag == null) {
+            bag = new GlyphPathBag();
+            sBags.put(key, bag);
+        }
+        return bag;
+    }
+
+    private GlyphPathBag() {
         // Make indexed-by-one, to allow zero to represent non-cached
         paths.add(new Path());
     }
 
-    Path getOrCreateAndCache(char ch, String current) {
+    synchronized Path getOrCreateAndCache(Paint paint, char ch, String current) {
         int index = getIndex(ch);
         Path cached;
 
@@ -45,4 +67,42 @@ class GlyphPathBag {
         if (bin == null) return 0;
         return bin[ch & 0xFF];
     }
+
+    private static class Key {
+        private final @Nullable Typeface typeface;
+        private final float textSize;
+        private final @Nullable String fontFeatureSettings;
+
+        Key(Paint paint) {
+            typeface = paint.getTypeface();
+            textSize = paint.getTextSize();
+            fontFeatureSettings = Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP ?
+                    paint.getFontFeatureSettings() :
+                    null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return textSize == other.textSize &&
+                    (typeface == null ? other.typeface == null : typeface.equals(other.typeface)) &&
+                    (fontFeatureSettings == null ?
+                            other.fontFeatureSettings == null :
+                            fontFeatureSettings.equals(other.fontFeatureSettings));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = typeface != null ? typeface.hashCode() : 0;
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + (fontFeatureSettings != null ? fontFeatureSettings.hashCode() : 0);
+            return result;
+        }
+    }
 }
@@ -11,14 +11,30 @@ package versioned.host.exp.exponent.modules.api.components.svg;
 
 import android.annotation.SuppressLint;
 import android.graphics.Canvas;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.util.LruCache;
 
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.uimanager.annotations.ReactProp;
 
 @SuppressLint("ViewConstructor")
 class PathView extends RenderableView {
+    // Budget of the parsed path cache, measured in characters of path data
+    private static final int PARSED_PATH_CACHE_MAX_CHARS = 512 * 1024;
+
+    /**
+     * Unscaled paths keyed by their path data, shared by every PathView. Entries are never handed
+     * out directly, views get a scaled copy of them.
+     */
+    private static final LruCache<String, Path> sParsedPaths = new LruCache<String, Path>(PARSED_PATH_CACHE_MAX_CHARS) {
+        @Override
+        protected int sizeOf(String d, Path path) {
+            return d.length();
+        }
+    };
+
     private Path mPath;
 
     public PathView(ReactContext reactContext) {
@@ -27,8 +43,16 @@ class PathView extends RenderableView {
 
     @ReactProp(name = "d")
     public void setD(String d) {
-        PropHelper.PathParser mD = new PropHelper.PathParser(d, mScale);
-        mPath = mD.getPath();
+        Path parsed = sParsedPaths.get(d);
+        if (parsed == null) {
+            PropHelper.PathParser mD = new PropHelper.PathParser(d, 1);
+            parsed = mD.getPath();
+            sParsedPaths.put(d, parsed);
+        }
+        Matrix scale = new Matrix();
+        scale.setScale(mScale, mScale);
+        mPath = new Path();
+        parsed.transform(scale, mPath);
         invalidate();
     }
 
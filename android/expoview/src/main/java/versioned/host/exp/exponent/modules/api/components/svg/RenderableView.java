@@ -11,6 +11,8 @@ package versioned.host.exp.exponent.modules.api.components.svg;
 
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.ColorMatrix;
+import android.graphics.ColorMatrixColorFilter;
 import android.graphics.DashPathEffect;
 import android.graphics.Matrix;
 import android.graphics.Paint;
@@ -256,14 +258,28 @@ abstract public class RenderableView extends VirtualView {
         invalidate();
     }
 
-    private static double saturate(double v) {
-        return v <= 0 ? 0 : (v >= 1 ? 1 : v);
+    // luminanceToAlpha filter primitive https://www.w3.org/TR/SVG11/filters.html#feColorMatrixElement
+    private static final Paint sMaskLuminancePaint = new Paint();
+    // Multiplies the luminance mask by the coverage of the mask content
+    private static final Paint sMaskAlphaPaint = new Paint();
+
+    static {
+        ColorMatrix luminanceToAlpha = new ColorMatrix(new float[] {
+                0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0,
+                0.299f, 0.587f, 0.144f, 0, 0
+        });
+        sMaskLuminancePaint.setColorFilter(new ColorMatrixColorFilter(luminanceToAlpha));
+        sMaskLuminancePaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_IN));
+        sMaskAlphaPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_IN));
     }
 
     void render(Canvas canvas, Paint paint, float opacity) {
         MaskView mask = null;
+        SvgView root = null;
         if (mMask != null) {
-            SvgView root = getSvgView();
+            root = getSvgView();
             mask = (MaskView) root.getDefinedMask(mMask);
         }
         if (mask != null) {
@@ -271,55 +287,36 @@ abstract public class RenderableView extends VirtualView {
             int height = clipBounds.height();
             int width = clipBounds.width();
 
-            Bitmap maskBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-            Bitmap original = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-            Bitmap result = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-
-            Canvas originalCanvas = new Canvas(original);
-            Canvas maskCanvas = new Canvas(maskBitmap);
-            Canvas resultCanvas = new Canvas(result);
-
-            // Clip to mask bounds and render the mask
-            float maskX = (float) relativeOnWidth(mask.mX);
-            float maskY = (float) relativeOnWidth(mask.mY);
-            float maskWidth = (float) relativeOnWidth(mask.mW);
-            float maskHeight = (float) relativeOnWidth(mask.mH);
-            maskCanvas.clipRect(maskX, maskY, maskWidth, maskHeight);
-
-            Paint maskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            mask.draw(maskCanvas, maskPaint, 1);
-
-            // Apply luminanceToAlpha filter primitive https://www.w3.org/TR/SVG11/filters.html#feColorMatrixElement
-            int nPixels = width * height;
-            int[] pixels = new int[nPixels];
-            maskBitmap.getPixels(pixels, 0, width, 0, 0, width, height);
-
-            for (int i = 0; i < nPixels; i++) {
-                int color = pixels[i];
-
-                int r = (color >> 16) & 0xFF;
-                int g = (color >> 8) & 0xFF;
-                int b = color & 0xFF;
-                int a = color >>> 24;
-
-                double luminance = saturate(((0.299 * r) + (0.587 * g) + (0.144 * b)) / 255);
-                int alpha = (int) (a * luminance);
-                int pixel = (alpha << 24);
-                pixels[i] = pixel;
+            Bitmap maskBitmap = root.obtainMaskBitmap(width, height);
+            Bitmap original = root.obtainMaskBitmap(width, height);
+            try {
+                Canvas originalCanvas = new Canvas(original);
+                Canvas maskCanvas = new Canvas(maskBitmap);
+
+                // Clip to mask bounds and render the mask
+                float maskX = (float) relativeOnWidth(mask.mX);
+                float maskY = (float) relativeOnWidth(mask.mY);
+                float maskWidth = (float) relativeOnWidth(mask.mW);
+                float maskHeight = (float) relativeOnWidth(mask.mH);
+                maskCanvas.clipRect(maskX, maskY, maskWidth, maskHeight);
+
+                Paint maskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+                mask.draw(maskCanvas, maskPaint, 1);
+
+                // Render content of current SVG Renderable to image
+                draw(originalCanvas, paint, opacity);
+
+                // Blend current element and mask, the color filter yields the luminance of the
+                // unpremultiplied mask color so its own alpha is applied in a second pass
+                originalCanvas.drawBitmap(maskBitmap, 0, 0, sMaskLuminancePaint);
+                originalCanvas.drawBitmap(maskBitmap, 0, 0, sMaskAlphaPaint);
+
+                // Render composited result into current render context
+                canvas.drawBitmap(original, 0, 0, paint);
+            } finally {
+                root.releaseMaskBitmap(maskBitmap);
+                root.releaseMaskBitmap(original);
             }
-
-            maskBitmap.setPixels(pixels, 0, width, 0, 0, width, height);
-
-            // Render content of current SVG Renderable to image
-            draw(originalCanvas, paint, opacity);
-
-            // Blend current element and mask
-            maskPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_IN));
-            resultCanvas.drawBitmap(original, 0, 0, null);
-            resultCanvas.drawBitmap(maskBitmap, 0, 0, maskPaint);
-
-            // Render composited result into current render context
-            canvas.drawBitmap(result, 0, 0, paint);
         } else {
             draw(canvas, paint, opacity);
         }
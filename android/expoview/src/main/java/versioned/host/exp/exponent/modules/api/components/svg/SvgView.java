@@ -12,6 +12,7 @@ package versioned.host.exp.exponent.modules.api.components.svg;
 import android.annotation.SuppressLint;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Rect;
@@ -30,6 +31,7 @@ import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.views.view.ReactViewGroup;
 
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -63,7 +65,11 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
         }
     }
 
+    private static final int MAX_POOLED_MASK_BITMAPS = 4;
+
     private @Nullable Bitmap mBitmap;
+    private boolean mBitmapDirty = true;
+    private final ArrayList<Bitmap> mMaskBitmapPool = new ArrayList<>();
 
     public SvgView(ReactContext reactContext) {
         super(reactContext);
@@ -88,10 +94,8 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
             ((VirtualView) parent).getSvgView().invalidate();
             return;
         }
-        if (mBitmap != null) {
-            mBitmap.recycle();
-        }
-        mBitmap = null;
+        // Keep the bitmap around, it is redrawn in place on the next frame
+        mBitmapDirty = true;
     }
 
     @Override
@@ -100,8 +104,9 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
             return;
         }
         super.onDraw(canvas);
-        if (mBitmap == null) {
+        if (mBitmapDirty || mBitmap == null) {
             mBitmap = drawOutput();
+            mBitmapDirty = false;
         }
         if (mBitmap != null) {
             canvas.drawBitmap(mBitmap, 0, 0, null);
@@ -121,9 +126,21 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
+        clearMaskBitmapPool();
         this.invalidate();
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+        mBitmapDirty = true;
+        clearMaskBitmapPool();
+    }
+
     @Override
     public int reactTagForTouch(float touchX, float touchY) {
         return hitTest(touchX, touchY);
@@ -239,18 +256,59 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
         float width = getWidth();
         float height = getHeight();
         boolean invalid = Float.isNaN(width) || Float.isNaN(height) || width < 1 || height < 1 || (Math.log10(width) + Math.log10(height) > 42);
+        Bitmap bitmap = mBitmap;
         if (invalid) {
+            if (bitmap != null) {
+                bitmap.recycle();
+            }
             return null;
         }
-        Bitmap bitmap = Bitmap.createBitmap(
-                (int) width,
-                (int) height,
-                Bitmap.Config.ARGB_8888);
+        if (bitmap == null || bitmap.isRecycled() || bitmap.getWidth() != (int) width || bitmap.getHeight() != (int) height) {
+            if (bitmap != null) {
+                bitmap.recycle();
+            }
+            bitmap = Bitmap.createBitmap(
+                    (int) width,
+                    (int) height,
+                    Bitmap.Config.ARGB_8888);
+        } else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
 
         drawChildren(new Canvas(bitmap));
         return bitmap;
     }
 
+    /**
+     * Returns a cleared ARGB_8888 bitmap of the given size, used as an offscreen layer when
+     * rendering masks. Must be handed back through {@link #releaseMaskBitmap(Bitmap)}.
+     */
+    synchronized Bitmap obtainMaskBitmap(int width, int height) {
+        for (int i = mMaskBitmapPool.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = mMaskBitmapPool.get(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                mMaskBitmapPool.remove(i);
+                bitmap.eraseColor(Color.TRANSPARENT);
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    synchronized void releaseMaskBitmap(Bitmap bitmap) {
+        if (mMaskBitmapPool.size() >= MAX_POOLED_MASK_BITMAPS) {
+            mMaskBitmapPool.remove(0).recycle();
+        }
+        mMaskBitmapPool.add(bitmap);
+    }
+
+    private synchronized void clearMaskBitmapPool() {
+        for (Bitmap bitmap : mMaskBitmapPool) {
+            bitmap.recycle();
+        }
+        mMaskBitmapPool.clear();
+    }
+
     Rect getCanvasBounds() {
         return mCanvas.getClipBounds();
     }
@@ -30,6 +30,7 @@ import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.views.text.ReactFontManager;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import javax.annotation.Nullable;
 
@@ -48,6 +49,8 @@ class TSpanView extends TextView {
     private static final String OTF = ".otf";
     private static final String TTF = ".ttf";
 
+    private static final HashMap<String, Typeface> sAssetTypefaces = new HashMap<>();
+
     private Path mCachedPath;
     @Nullable String mContent;
     private TextPathView textPath;
@@ -195,7 +198,6 @@ class TSpanView extends TextView {
         GlyphContext gc = getTextRootGlyphContext();
         FontData font = gc.getFont();
         applyTextPropertiesToPaint(paint, font);
-        GlyphPathBag bag = new GlyphPathBag(paint);
         boolean[] ligature = new boolean[length];
         final char[] chars = line.toCharArray();
 
@@ -379,6 +381,7 @@ class TSpanView extends TextView {
         final double textMeasure = anchorRoot.getSubtreeTextChunksTotalAdvance(paint);
         double offset = getTextAnchorOffset(textAnchor, textMeasure);
         applyTextPropertiesToPaint(paint, font);
+        GlyphPathBag bag = GlyphPathBag.obtain(paint);
 
         int side = 1;
         double startOfRendering = 0;
@@ -935,7 +938,7 @@ class TSpanView extends TextView {
                 glyph = new Path();
                 paint.getTextPath(current, 0, current.length(), 0, 0, glyph);
             } else {
-                glyph = bag.getOrCreateAndCache(currentChar, current);
+                glyph = bag.getOrCreateAndCache(paint, currentChar, current);
             }
             RectF bounds = new RectF();
             glyph.computeBounds(bounds, true);
@@ -1007,18 +1010,29 @@ class TSpanView extends TextView {
 
         Typeface typeface = null;
         final String fontFamily = font.fontFamily;
-        try {
-            String path = FONTS + fontFamily + OTF;
-            typeface = Typeface.createFromAsset(assetManager, path);
-        } catch (Exception ignored) {
-            try {
-                String path = FONTS + fontFamily + TTF;
-                typeface = Typeface.createFromAsset(assetManager, path);
-            } catch (Exception ignored2) {
+        // Assets can't change at runtime, so both hits and misses are remembered to avoid
+        // reopening the asset and throwing on every layout
+        synchronized (sAssetTypefaces) {
+            if (sAssetTypefaces.containsKey(fontFamily)) {
+                typeface = sAssetTypefaces.get(fontFamily);
+            } else {
                 try {
-                    typeface = ReactFontManager.getInstance().getTypeface(fontFamily, fontStyle, assetManager);
-                } catch (Exception ignored3) {
+                    String path = FONTS + fontFamily + OTF;
+                    typeface = Typeface.createFromAsset(assetManager, path);
+                } catch (Exception ignored) {
+                    try {
+                        String path = FONTS + fontFamily + TTF;
+                        typeface = Typeface.createFromAsset(assetManager, path);
+                    } catch (Exception ignored2) {
+                    }
                 }
+                sAssetTypefaces.put(fontFamily, typeface);
+            }
+        }
+        if (typeface == null) {
+            try {
+                typeface = ReactFontManager.getInstance().getTypeface(fontFamily, fontStyle, assetManager);
+            } catch (Exception ignored3) {
             }
         }
 
@@ -835,7 +835,7 @@ public class RNCWebViewManager extends SimpleViewManager<WebView> {
       if (sendContentSizeChangeEvents) {
         dispatchEvent(
             this,
-            new ContentSizeChangeEvent(
+            ContentSizeChangeEvent.obtain(
                 this.getId(),
                 w,
                 h
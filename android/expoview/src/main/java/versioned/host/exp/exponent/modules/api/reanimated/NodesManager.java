@@ -200,6 +200,17 @@ public class NodesManager implements EventDispatcherListener {
     return ZERO;
   }
 
+  /**
+   * Same as {@link #getNodeValue(int)} but doesn't box numeric values.
+   */
+  public double getNodeDoubleValue(int nodeID) {
+    Node node = mAnimatedNodes.get(nodeID);
+    if (node != null) {
+      return node.doubleValue();
+    }
+    return 0;
+  }
+
   /**
    * Null-safe way of getting node reference. This method always returns non-null instance. If the
    * node is not present we try to return a "no-op" node that allows for "set" calls and always
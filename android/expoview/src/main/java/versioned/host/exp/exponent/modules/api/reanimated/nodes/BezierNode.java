@@ -75,9 +75,19 @@ public class BezierNode extends Node {
     mInterpolator = new CubicBezierInterpolator(startX, startY, endX, endY);
   }
 
+  @Override
+  public boolean hasNumericValue() {
+    return true;
+  }
+
   @Override
   protected Double evaluate() {
-    Double in = (Double) mNodesManager.getNodeValue(mInputID);
-    return Double.valueOf(mInterpolator.getInterpolation(in.floatValue()));
+    return evaluateDouble();
+  }
+
+  @Override
+  protected double evaluateDouble() {
+    double in = mNodesManager.getNodeDoubleValue(mInputID);
+    return mInterpolator.getInterpolation((float) in);
   }
 }
@@ -13,12 +13,33 @@ public class BlockNode extends Node {
     mBlock = Utils.processIntArray(config.getArray("block"));
   }
 
+  @Override
+  public boolean hasNumericValue() {
+    return mBlock.length > 0 &&
+            mNodesManager.findNodeById(mBlock[mBlock.length - 1], Node.class).hasNumericValue();
+  }
+
   @Override
   protected Object evaluate() {
-    Object res = null;
-    for (int i = 0; i < mBlock.length; i++) {
-      res = mNodesManager.findNodeById(mBlock[i], Node.class).value();
+    if (mBlock.length == 0) {
+      return null;
+    }
+    evaluateAllButLast();
+    return mNodesManager.findNodeById(mBlock[mBlock.length - 1], Node.class).value();
+  }
+
+  @Override
+  protected double evaluateDouble() {
+    if (mBlock.length == 0) {
+      return 0;
+    }
+    evaluateAllButLast();
+    return mNodesManager.findNodeById(mBlock[mBlock.length - 1], Node.class).doubleValue();
+  }
+
+  private void evaluateAllButLast() {
+    for (int i = 0; i < mBlock.length - 1; i++) {
+      mNodesManager.findNodeById(mBlock[i], Node.class).ensureEvaluated();
     }
-    return res;
   }
 }
@@ -25,8 +25,18 @@ public class ClockNode extends Node implements NodesManager.OnAnimationFrame {
     isRunning = false;
   }
 
+  @Override
+  public boolean hasNumericValue() {
+    return true;
+  }
+
   @Override
   protected Double evaluate() {
+    return evaluateDouble();
+  }
+
+  @Override
+  protected double evaluateDouble() {
     return mNodesManager.currentFrameTimeMs;
   }
 
@@ -11,9 +11,9 @@ public abstract class ClockOpNode extends Node {
     }
 
     @Override
-    protected Double eval(ClockNode clock) {
+    protected double eval(ClockNode clock) {
       clock.start();
-      return ZERO;
+      return 0;
     }
   }
 
@@ -23,9 +23,9 @@ public abstract class ClockOpNode extends Node {
     }
 
     @Override
-    protected Double eval(ClockNode clock) {
+    protected double eval(ClockNode clock) {
       clock.stop();
-      return ZERO;
+      return 0;
     }
   }
 
@@ -35,7 +35,7 @@ public abstract class ClockOpNode extends Node {
     }
 
     @Override
-    protected Double eval(ClockNode clock) {
+    protected double eval(ClockNode clock) {
       return clock.isRunning ? 1. : 0.;
     }
   }
@@ -47,11 +47,21 @@ public abstract class ClockOpNode extends Node {
     clockID = config.getInt("clock");
   }
 
+  @Override
+  public boolean hasNumericValue() {
+    return true;
+  }
+
   @Override
   protected Double evaluate() {
+    return evaluateDouble();
+  }
+
+  @Override
+  protected double evaluateDouble() {
     ClockNode clock = mNodesManager.findNodeById(clockID, ClockNode.class);
     return eval(clock);
   }
 
-  protected abstract Double eval(ClockNode clock);
+  protected abstract double eval(ClockNode clock);
 }
@@ -14,13 +14,38 @@ public class CondNode extends Node {
     mElseBlockID = config.hasKey("elseBlock") ? config.getInt("elseBlock") : -1;
   }
 
+  @Override
+  public boolean hasNumericValue() {
+    return isBranchNumeric(mIfBlockID) && isBranchNumeric(mElseBlockID);
+  }
+
   @Override
   protected Object evaluate() {
-    Object cond = mNodesManager.getNodeValue(mCondID);
-    if (cond instanceof Number && ((Number) cond).doubleValue() != 0.0) {
-      // This is not a good way to compare doubles but in this case it is what we want
+    if (evaluateCondition()) {
       return mIfBlockID != -1 ? mNodesManager.getNodeValue(mIfBlockID) : ZERO;
     }
     return mElseBlockID != -1 ? mNodesManager.getNodeValue(mElseBlockID) : ZERO;
   }
+
+  @Override
+  protected double evaluateDouble() {
+    if (evaluateCondition()) {
+      return mIfBlockID != -1 ? mNodesManager.getNodeDoubleValue(mIfBlockID) : 0;
+    }
+    return mElseBlockID != -1 ? mNodesManager.getNodeDoubleValue(mElseBlockID) : 0;
+  }
+
+  private boolean evaluateCondition() {
+    Node cond = mNodesManager.findNodeById(mCondID, Node.class);
+    // This is not a good way to compare doubles but in this case it is what we want
+    if (cond.hasNumericValue()) {
+      return cond.doubleValue() != 0.0;
+    }
+    Object value = cond.value();
+    return value instanceof Number && ((Number) value).doubleValue() != 0.0;
+  }
+
+  private boolean isBranchNumeric(int branchID) {
+    return branchID == -1 || mNodesManager.findNodeById(branchID, Node.class).hasNumericValue();
+  }
 }
@@ -21,7 +21,9 @@ public class JSCallNode extends Node {
     WritableArray args = Arguments.createArray();
     for (int i = 0; i < mInputIDs.length; i++) {
       Node node = mNodesManager.findNodeById(mInputIDs[i], Node.class);
-      if (node.value() == null) {
+      if (node.hasNumericValue()) {
+        args.pushDouble(node.doubleValue());
+      } else if (node.value() == null) {
         args.pushNull();
       } else {
         Object value = node.value();
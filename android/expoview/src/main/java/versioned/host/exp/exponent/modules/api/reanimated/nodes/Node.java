@@ -25,6 +25,11 @@ public abstract class Node {
 
   private long mLastLoopID = -1;
   private @Nullable Object mMemoizedValue;
+  // Numeric values are memoized unboxed, mMemoizedValue is then only filled in if someone asks for
+  // the boxed value.
+  private double mMemoizedDoubleValue;
+  private boolean mMemoizedValueIsDouble;
+  private boolean mEvaluatedAsObject;
   private @Nullable List<Node> mChildren; /* lazy-initialized when a child is added */
 
   public Node(int nodeID, @Nullable ReadableMap config, NodesManager nodesManager) {
@@ -35,29 +40,77 @@ public abstract class Node {
 
   protected abstract @Nullable Object evaluate();
 
+  /**
+   * Nodes that can compute their value without boxing override this method together with
+   * {@link #hasNumericValue()}. The default implementation falls back to {@link #evaluate()}.
+   */
+  protected double evaluateDouble() {
+    Object value = evaluate();
+    mMemoizedValue = value;
+    mMemoizedValueIsDouble = false;
+    mEvaluatedAsObject = true;
+    return toDouble(value);
+  }
+
+  /**
+   * Whether the node's value is currently known to be a number, in which case reading it with
+   * {@link #doubleValue()} doesn't allocate and never throws.
+   */
+  public boolean hasNumericValue() {
+    return false;
+  }
+
   public final @Nullable Object value() {
     if (mLastLoopID < mUpdateContext.updateLoopID) {
       mLastLoopID = mUpdateContext.updateLoopID;
-      return (mMemoizedValue = evaluate());
+      Object value = evaluate();
+      mMemoizedValueIsDouble = false;
+      return (mMemoizedValue = value);
+    }
+    if (mMemoizedValueIsDouble && mMemoizedValue == null) {
+      mMemoizedValue = mMemoizedDoubleValue;
     }
     return mMemoizedValue;
   }
 
   /**
-   * This method will never return null. If value is null or of a different type we try to cast and
-   * return 0 if we fail to properly cast the value. This is to match iOS behavior where the node
-   * would not throw even if the value was not set.
+   * If value is null or of a different type we try to cast and return 0 if we fail to properly cast
+   * the value. This is to match iOS behavior where the node would not throw even if the value was
+   * not set.
    */
-  public final Double doubleValue() {
-    Object value = value();
+  public final double doubleValue() {
+    if (mLastLoopID < mUpdateContext.updateLoopID) {
+      mLastLoopID = mUpdateContext.updateLoopID;
+      mEvaluatedAsObject = false;
+      double value = evaluateDouble();
+      if (!mEvaluatedAsObject) {
+        mMemoizedValue = null;
+        mMemoizedDoubleValue = value;
+        mMemoizedValueIsDouble = true;
+      }
+      return value;
+    }
+    return mMemoizedValueIsDouble ? mMemoizedDoubleValue : toDouble(mMemoizedValue);
+  }
+
+  /**
+   * Evaluates the node for its side effects, without boxing its value if it's a number.
+   */
+  public final void ensureEvaluated() {
+    if (hasNumericValue()) {
+      doubleValue();
+    } else {
+      value();
+    }
+  }
+
+  protected final double toDouble(@Nullable Object value) {
     if (value == null) {
-      return ZERO;
-    } else if (value instanceof Double) {
-      return (Double) value;
+      return 0;
     } else if (value instanceof Number) {
-      return Double.valueOf(((Number) value).doubleValue());
+      return ((Number) value).doubleValue();
     } else if (value instanceof Boolean) {
-      return ((Boolean) value).booleanValue() ? ONE : ZERO;
+      return ((Boolean) value).booleanValue() ? 1 : 0;
     }
     throw new IllegalStateException("Value of node " + this + " cannot be cast to a number");
   }
@@ -89,6 +142,14 @@ public abstract class Node {
 
   protected final void forceUpdateMemoizedValue(Object value) {
     mMemoizedValue = value;
+    mMemoizedValueIsDouble = false;
+    markUpdated();
+  }
+
+  protected final void forceUpdateMemoizedValue(double value) {
+    mMemoizedValue = null;
+    mMemoizedDoubleValue = value;
+    mMemoizedValueIsDouble = true;
     markUpdated();
   }
 
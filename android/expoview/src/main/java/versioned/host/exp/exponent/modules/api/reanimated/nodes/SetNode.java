@@ -14,6 +14,19 @@ public class SetNode extends Node {
     mValueNodeID = config.getInt("value");
   }
 
+  @Override
+  public boolean hasNumericValue() {
+    return mNodesManager.findNodeById(mValueNodeID, Node.class).hasNumericValue();
+  }
+
+  @Override
+  protected double evaluateDouble() {
+    double newValue = mNodesManager.getNodeDoubleValue(mValueNodeID);
+    ValueNode what = mNodesManager.findNodeById(mWhatNodeID, ValueNode.class);
+    what.setValue(newValue);
+    return newValue;
+  }
+
   @Override
   protected Object evaluate() {
     Object newValue = mNodesManager.getNodeValue(mValueNodeID);
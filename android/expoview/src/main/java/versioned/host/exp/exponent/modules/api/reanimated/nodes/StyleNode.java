@@ -27,6 +27,8 @@ public class StyleNode extends Node {
       Node node = mNodesManager.findNodeById(entry.getValue(), Node.class);
       if (node instanceof TransformNode) {
         propMap.putArray(entry.getKey(), (WritableArray) node.value());
+      } else if (node.hasNumericValue()) {
+        propMap.putDouble(entry.getKey(), node.doubleValue());
       } else {
         Object val = node.value();
         if (val instanceof Double) {
@@ -9,6 +9,9 @@ import javax.annotation.Nullable;
 public class ValueNode extends Node {
 
   private Object mValue;
+  // Set for numeric values, mValue then holds the boxed value only once it's been requested.
+  private boolean mIsDouble;
+  private double mDoubleValue;
 
   public ValueNode(int nodeID, @Nullable ReadableMap config, NodesManager nodesManager) {
     super(nodeID, config, nodesManager);
@@ -20,7 +23,8 @@ public class ValueNode extends Node {
     if (type == ReadableType.String) {
       mValue = config.getString("value");
     } else if (type == ReadableType.Number) {
-      mValue = config.getDouble("value");
+      mIsDouble = true;
+      mDoubleValue = config.getDouble("value");
     } else if (type == ReadableType.Null) {
       mValue = null;
     } else {
@@ -30,11 +34,32 @@ public class ValueNode extends Node {
 
   public void setValue(Object value) {
     mValue = value;
+    mIsDouble = false;
     forceUpdateMemoizedValue(mValue);
   }
 
+  public void setValue(double value) {
+    mValue = null;
+    mIsDouble = true;
+    mDoubleValue = value;
+    forceUpdateMemoizedValue(value);
+  }
+
+  @Override
+  public boolean hasNumericValue() {
+    return mIsDouble;
+  }
+
   @Override
   protected Object evaluate() {
+    if (mIsDouble && mValue == null) {
+      mValue = mDoubleValue;
+    }
     return mValue;
   }
+
+  @Override
+  protected double evaluateDouble() {
+    return mIsDouble ? mDoubleValue : toDouble(mValue);
+  }
 }
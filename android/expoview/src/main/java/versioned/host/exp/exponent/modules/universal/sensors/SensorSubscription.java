@@ -30,6 +30,17 @@ public class SensorSubscription implements SensorServiceSubscription {
     mSensorKernelServiceSubscription.setUpdateInterval(updateInterval);
   }
 
+  @Override
+  public long getMaxReportLatency() {
+    return 0;
+  }
+
+  @Override
+  public void setMaxReportLatency(long maxReportLatency) {
+    // Kernel sensor services are shared between experiences and don't use FIFO batching,
+    // events are still batched by the module before they're sent to JS.
+  }
+
   @Override
   public void stop() {
     mSensorKernelServiceSubscription.stop();
@@ -0,0 +1,310 @@
+package org.unimodules.processor;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import static javax.tools.Diagnostic.Kind.ERROR;
+import static javax.tools.Diagnostic.Kind.NOTE;
+
+/**
+ * Generates an `ExportedMethodDispatcher` for every class with methods annotated with `ExpoMethod`,
+ * so `ExportedModule` can call them with a switch over the method name instead of `Method#invoke`.
+ *
+ * Classes whose exported methods can't be called from generated code in the same package
+ * (eg. private methods or generic modules) are skipped and keep using reflection.
+ */
+@SupportedAnnotationTypes(ExportedMethodDispatcherProcessor.EXPO_METHOD_ANNOTATION)
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+public class ExportedMethodDispatcherProcessor extends AbstractProcessor {
+  static final String EXPO_METHOD_ANNOTATION = "org.unimodules.core.interfaces.ExpoMethod";
+  private static final String EXPORTED_MODULE_CLASS = "org.unimodules.core.ExportedModule";
+  private static final ClassName DISPATCHER_INTERFACE = ClassName.get("org.unimodules.core.interfaces", "ExportedMethodDispatcher");
+  private static final String DISPATCHER_SUFFIX = "$$ExportedMethodDispatcher";
+
+  private Filer mFiler;
+  private Elements mElements;
+  private Messager mMessager;
+  private Types mTypes;
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+
+    mFiler = processingEnv.getFiler();
+    mElements = processingEnv.getElementUtils();
+    mMessager = processingEnv.getMessager();
+    mTypes = processingEnv.getTypeUtils();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeElement expoMethodAnnotation = mElements.getTypeElement(EXPO_METHOD_ANNOTATION);
+    if (expoMethodAnnotation == null) {
+      return false;
+    }
+
+    Set<TypeElement> moduleClasses = new LinkedHashSet<>();
+    for (Element element : roundEnv.getElementsAnnotatedWith(expoMethodAnnotation)) {
+      if (element.getKind() == ElementKind.METHOD) {
+        moduleClasses.add((TypeElement) element.getEnclosingElement());
+      }
+    }
+
+    for (TypeElement moduleClass : moduleClasses) {
+      Map<String, ExecutableElement> exportedMethods = getExportedMethods(moduleClass);
+      if (exportedMethods == null) {
+        continue;
+      }
+      try {
+        createDispatcherFile(moduleClass, exportedMethods).writeTo(mFiler);
+      } catch (IOException e) {
+        mMessager.printMessage(ERROR, "Couldn't write the method dispatcher of " + moduleClass.getQualifiedName()
+            + ": " + e.getMessage(), moduleClass);
+      }
+    }
+
+    // Other processors may be interested in `ExpoMethod` too.
+    return false;
+  }
+
+  /**
+   * Collects the exported methods of the class and its superclasses the same way `ExportedModule` does
+   * at runtime, or returns null if the generated dispatcher wouldn't be able to call all of them.
+   */
+  private Map<String, ExecutableElement> getExportedMethods(TypeElement moduleClass) {
+    if (moduleClass.getKind() != ElementKind.CLASS
+        || moduleClass.getModifiers().contains(Modifier.PRIVATE)
+        || !moduleClass.getTypeParameters().isEmpty()
+        || !isExportedModule(moduleClass)) {
+      skip(moduleClass, "it's not a non-generic ExportedModule accessible from its package");
+      return null;
+    }
+
+    PackageElement modulePackage = mElements.getPackageOf(moduleClass);
+    Map<String, ExecutableElement> exportedMethods = new LinkedHashMap<>();
+    TypeElement klass = moduleClass;
+    while (klass != null && !klass.getQualifiedName().contentEquals(EXPORTED_MODULE_CLASS)) {
+      Set<String> declaredMethodNames = new HashSet<>();
+      for (Element element : klass.getEnclosedElements()) {
+        if (element.getKind() != ElementKind.METHOD || !isExpoMethod(element)) {
+          continue;
+        }
+        ExecutableElement method = (ExecutableElement) element;
+        String methodName = method.getSimpleName().toString();
+        if (!declaredMethodNames.add(methodName)) {
+          // Overloads are rejected by `ExportedModule` at runtime, so let it report them.
+          skip(moduleClass, "method " + methodName + " is overloaded");
+          return null;
+        }
+        if (exportedMethods.containsKey(methodName)) {
+          // Overridden in a subclass.
+          continue;
+        }
+        if (!isAccessibleFrom(method, modulePackage) || !method.getTypeParameters().isEmpty()) {
+          skip(moduleClass, "method " + methodName + " can't be called from generated code");
+          return null;
+        }
+        exportedMethods.put(methodName, method);
+      }
+      klass = getSuperclass(klass);
+    }
+    return exportedMethods;
+  }
+
+  private JavaFile createDispatcherFile(TypeElement moduleClass, Map<String, ExecutableElement> exportedMethods) {
+    ClassName moduleClassName = ClassName.get(moduleClass);
+
+    CodeBlock.Builder methodNames = CodeBlock.builder().add("return new $T {", ArrayTypeName.of(String.class));
+    boolean isFirst = true;
+    for (String methodName : exportedMethods.keySet()) {
+      methodNames.add(isFirst ? "$S" : ", $S", methodName);
+      isFirst = false;
+    }
+    methodNames.add("};\n");
+
+    CodeBlock.Builder invoke = CodeBlock.builder().beginControlFlow("switch (methodName)");
+    for (Map.Entry<String, ExecutableElement> entry : exportedMethods.entrySet()) {
+      ExecutableElement method = entry.getValue();
+      CodeBlock call = CodeBlock.of("$L.$N($L)",
+          method.getModifiers().contains(Modifier.STATIC) ? CodeBlock.of("$T", moduleClassName) : "module",
+          method.getSimpleName().toString(),
+          getArguments(method.getParameters()));
+
+      invoke.add("case $S:\n", entry.getKey()).indent();
+      if (method.getReturnType().getKind() == TypeKind.VOID) {
+        invoke.addStatement("$L", call).addStatement("return null");
+      } else {
+        invoke.addStatement("return $L", call);
+      }
+      invoke.unindent();
+    }
+    invoke.add("default:\n").indent()
+        .addStatement("throw new $T($S + methodName + $S)", NoSuchMethodException.class,
+            "Module " + moduleClass.getSimpleName() + " does not export method ", ".")
+        .unindent()
+        .endControlFlow();
+
+    TypeSpec dispatcher = TypeSpec.classBuilder(String.join("$", moduleClassName.simpleNames()) + DISPATCHER_SUFFIX)
+        .addOriginatingElement(moduleClass)
+        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+        .addSuperinterface(ParameterizedTypeName.get(DISPATCHER_INTERFACE, moduleClassName))
+        .addMethod(MethodSpec.methodBuilder("getMethodNames")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(ArrayTypeName.of(String.class))
+            .addCode(methodNames.build())
+            .build())
+        .addMethod(MethodSpec.methodBuilder("invoke")
+            .addAnnotation(Override.class)
+            .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+            .addModifiers(Modifier.PUBLIC)
+            .returns(Object.class)
+            .addParameter(moduleClassName, "module")
+            .addParameter(String.class, "methodName")
+            .addParameter(ArrayTypeName.of(Object.class), "arguments")
+            .addException(Exception.class)
+            .addCode(invoke.build())
+            .build())
+        .build();
+
+    return JavaFile.builder(moduleClassName.packageName(), dispatcher)
+        .addFileComment("Generated by " + getClass().getName())
+        .build();
+  }
+
+  // Arguments have been validated by `ExportedModule` already, numbers may be any `Number` subclass.
+  private CodeBlock getArguments(List<? extends VariableElement> parameters) {
+    CodeBlock.Builder arguments = CodeBlock.builder();
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) {
+        arguments.add(", ");
+      }
+      TypeMirror type = parameters.get(i).asType();
+      switch (type.getKind()) {
+        case BOOLEAN:
+          arguments.add("($T) arguments[$L]", Boolean.class, i);
+          break;
+        case CHAR:
+          arguments.add("($T) arguments[$L]", Character.class, i);
+          break;
+        case BYTE:
+          arguments.add("(($T) arguments[$L]).byteValue()", Number.class, i);
+          break;
+        case SHORT:
+          arguments.add("(($T) arguments[$L]).shortValue()", Number.class, i);
+          break;
+        case INT:
+          arguments.add("(($T) arguments[$L]).intValue()", Number.class, i);
+          break;
+        case LONG:
+          arguments.add("(($T) arguments[$L]).longValue()", Number.class, i);
+          break;
+        case FLOAT:
+          arguments.add("(($T) arguments[$L]).floatValue()", Number.class, i);
+          break;
+        case DOUBLE:
+          arguments.add("(($T) arguments[$L]).doubleValue()", Number.class, i);
+          break;
+        default:
+          arguments.add("($T) arguments[$L]", TypeName.get(containsTypeVariable(type) ? mTypes.erasure(type) : type), i);
+          break;
+      }
+    }
+    return arguments.build();
+  }
+
+  private boolean containsTypeVariable(TypeMirror type) {
+    if (type.getKind() == TypeKind.TYPEVAR || type.getKind() == TypeKind.WILDCARD) {
+      return true;
+    }
+    if (type.getKind() == TypeKind.DECLARED) {
+      for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+        if (containsTypeVariable(typeArgument)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean isExportedModule(TypeElement klass) {
+    for (TypeElement superclass = klass; superclass != null; superclass = getSuperclass(superclass)) {
+      if (superclass.getQualifiedName().contentEquals(EXPORTED_MODULE_CLASS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isExpoMethod(Element element) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      TypeElement annotationElement = (TypeElement) annotation.getAnnotationType().asElement();
+      if (annotationElement.getQualifiedName().contentEquals(EXPO_METHOD_ANNOTATION)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isAccessibleFrom(ExecutableElement method, PackageElement packageElement) {
+    Set<Modifier> modifiers = method.getModifiers();
+    if (modifiers.contains(Modifier.PUBLIC)) {
+      return true;
+    }
+    if (modifiers.contains(Modifier.PRIVATE)) {
+      return false;
+    }
+    // Package-private and protected methods can only be called from the same package.
+    return mElements.getPackageOf(method).equals(packageElement);
+  }
+
+  private TypeElement getSuperclass(TypeElement klass) {
+    TypeMirror superclass = klass.getSuperclass();
+    if (superclass.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    return (TypeElement) mTypes.asElement(superclass);
+  }
+
+  private void skip(TypeElement moduleClass, String reason) {
+    mMessager.printMessage(NOTE, "Not generating a method dispatcher for " + moduleClass.getQualifiedName()
+        + " because " + reason + ", its methods will be called through reflection.", moduleClass);
+  }
+}
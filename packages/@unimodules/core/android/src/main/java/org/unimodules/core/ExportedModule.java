@@ -4,14 +4,15 @@ import android.content.Context;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.unimodules.core.interfaces.ExportedMethodDispatcher;
 import org.unimodules.core.interfaces.RegistryLifecycleListener;
 import org.unimodules.core.interfaces.ExpoMethod;
 
@@ -36,6 +37,8 @@ public abstract class ExportedModule implements RegistryLifecycleListener {
   private Context mContext;
   private Map<String, Method> mExportedMethods;
   private Map<String, MethodInfo> mExportedMethodInfos;
+  private volatile ExportedMethodDispatcher<ExportedModule> mExportedMethodDispatcher;
+  private volatile boolean mDidLoadExportedMethodDispatcher = false;
 
   public ExportedModule(Context context) {
     mContext = context;
@@ -69,32 +72,47 @@ public abstract class ExportedModule implements RegistryLifecycleListener {
   }
 
   /**
-   * Invokes an exported method
+   * Invokes an exported method. Uses the generated {@link ExportedMethodDispatcher} if there is one
+   * and falls back to reflection otherwise.
    */
   public Object invokeExportedMethod(String methodName, Collection<Object> arguments) throws NoSuchMethodException, RuntimeException {
-    Method method = mExportedMethods.get(methodName);
+    Method method = getExportedMethods().get(methodName);
 
     if (method  == null) {
       throw new NoSuchMethodException("Module " + getName() + "does not export method " + methodName + ".");
     }
 
-    int expectedArgumentsCount = method.getParameterTypes().length;
+    // Parameter types are cached, Method#getParameterTypes copies the array on every call.
+    Class<?>[] expectedArgumentClasses = getExportedMethodInfos().get(methodName).getParameterTypes();
+    int expectedArgumentsCount = expectedArgumentClasses.length;
     if (arguments.size() != expectedArgumentsCount) {
       throw new IllegalArgumentException(
               "Method " + methodName + " on class " + getName() + " expects " + expectedArgumentsCount + " arguments, "
                       + "whereas " + arguments.size() + " arguments have been provided.");
     }
 
-    Class<?>[] expectedArgumentClasses = method.getParameterTypes();
     Iterator<Object> actualArgumentsIterator = arguments.iterator();
-    List<Object> transformedArguments = new ArrayList<>(arguments.size());
+    Object[] transformedArguments = new Object[expectedArgumentsCount];
 
     for (int i = 0; i < expectedArgumentsCount; i++) {
-      transformedArguments.add(transformArgumentToClass(actualArgumentsIterator.next(), expectedArgumentClasses[i]));
+      transformedArguments[i] = transformArgumentToClass(actualArgumentsIterator.next(), expectedArgumentClasses[i]);
+    }
+
+    ExportedMethodDispatcher<ExportedModule> dispatcher = getExportedMethodDispatcher();
+    if (dispatcher != null) {
+      try {
+        return dispatcher.invoke(this, methodName, transformedArguments);
+      } catch (Throwable e) {
+        // Wrapped the same way as on the reflection path below, where Method#invoke wraps anything
+        // the method throws, errors included.
+        e.printStackTrace();
+        throw new RuntimeException("Exception occurred while executing exported method " + methodName
+                + " on module " + getName() + ": " + e.getMessage(), e);
+      }
     }
 
     try {
-      return method.invoke(this, transformedArguments.toArray());
+      return method.invoke(this, transformedArguments);
     } catch (IllegalAccessException | InvocationTargetException e) {
       e.printStackTrace();
       throw new RuntimeException("Exception occurred while executing exported method " + methodName
@@ -131,6 +149,44 @@ public abstract class ExportedModule implements RegistryLifecycleListener {
     return mExportedMethods;
   }
 
+  /**
+   * Returns the generated dispatcher of the closest class in the hierarchy that has one, as long as
+   * it exports the same methods as this module. Otherwise returns null and methods are called through
+   * reflection, eg. when the annotation processor didn't run or a subclass exports methods of its own.
+   */
+  @SuppressWarnings("unchecked")
+  protected ExportedMethodDispatcher<ExportedModule> getExportedMethodDispatcher() {
+    // Looking the dispatcher up twice from different threads is harmless, so there's no lock
+    // on this path that every call goes through.
+    if (mDidLoadExportedMethodDispatcher) {
+      return mExportedMethodDispatcher;
+    }
+
+    ExportedMethodDispatcher<ExportedModule> result = null;
+    Class klass = getClass();
+    while (klass != null && klass != ExportedModule.class && ExportedModule.class.isAssignableFrom(klass)) {
+      try {
+        Class<?> dispatcherClass = Class.forName(klass.getName() + "$$ExportedMethodDispatcher", true, klass.getClassLoader());
+        ExportedMethodDispatcher<ExportedModule> dispatcher = (ExportedMethodDispatcher<ExportedModule>) dispatcherClass.newInstance();
+        Set<String> dispatcherMethodNames = new HashSet<>();
+        Collections.addAll(dispatcherMethodNames, dispatcher.getMethodNames());
+        if (dispatcherMethodNames.equals(getExportedMethods().keySet())) {
+          result = dispatcher;
+        }
+        break;
+      } catch (ClassNotFoundException e) {
+        klass = klass.getSuperclass();
+      } catch (IllegalAccessException | InstantiationException e) {
+        e.printStackTrace();
+        break;
+      }
+    }
+
+    mExportedMethodDispatcher = result;
+    mDidLoadExportedMethodDispatcher = true;
+    return result;
+  }
+
   protected Map<String, Method> getExportedMethods(Class klass) {
     Map<String, Method> exportedMethods = new HashMap<>();
     Method[] declaredMethodsArray = klass.getDeclaredMethods();
@@ -0,0 +1,22 @@
+package org.unimodules.core.interfaces;
+
+import org.unimodules.core.ExportedModule;
+
+/**
+ * Calls methods annotated with {@link ExpoMethod} directly instead of through reflection.
+ *
+ * Implementations are generated at build time by the unimodules annotation processor as
+ * `<ModuleClass>$$ExportedMethodDispatcher` and picked up by {@link ExportedModule} if present.
+ */
+public interface ExportedMethodDispatcher<T extends ExportedModule> {
+  /**
+   * Names of all the methods the dispatcher can call, including the ones inherited from superclasses.
+   */
+  String[] getMethodNames();
+
+  /**
+   * Calls the method with the given name. Arguments have already been validated against
+   * the method's parameter types, so the dispatcher only has to cast them.
+   */
+  Object invoke(T module, String methodName, Object[] arguments) throws Exception;
+}
@@ -111,10 +111,11 @@ public class NativeModulesProxy extends ReactContextBaseJavaModule {
     }
 
     try {
-      List<Object> nativeArguments = getNativeArgumentsForMethod(arguments, mModuleRegistry.getExportedModule(moduleName).getExportedMethodInfos().get(methodName));
+      ExportedModule exportedModule = mModuleRegistry.getExportedModule(moduleName);
+      List<Object> nativeArguments = getNativeArgumentsForMethod(arguments, exportedModule.getExportedMethodInfos().get(methodName));
       nativeArguments.add(new PromiseWrapper(promise));
 
-      mModuleRegistry.getExportedModule(moduleName).invokeExportedMethod(methodName, nativeArguments);
+      exportedModule.invokeExportedMethod(methodName, nativeArguments);
     } catch (IllegalArgumentException e) {
       promise.reject(ARGS_TYPES_MISMATCH_ERROR, e.getMessage(), e);
     } catch (RuntimeException e) {
@@ -134,7 +135,8 @@ public class NativeModulesProxy extends ReactContextBaseJavaModule {
    * Method is used when converting Double to proper argument.
    */
   private static List<Object> getNativeArgumentsForMethod(ReadableArray arguments, ExportedModule.MethodInfo methodInfo) {
-    List<Object> nativeArguments = new ArrayList<>();
+    // One more for the promise.
+    List<Object> nativeArguments = new ArrayList<>(arguments.size() + 1);
 
     for (int i = 0; i < arguments.size(); i++) {
       nativeArguments.add(ArgumentsHelper.getNativeArgumentForExpectedClass(arguments.getDynamic(i), methodInfo.getParameterTypes()[i]));
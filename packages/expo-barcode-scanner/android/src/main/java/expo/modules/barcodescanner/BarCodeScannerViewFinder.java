@@ -1,14 +1,19 @@
 package expo.modules.barcodescanner;
 
 import android.content.Context;
+import android.graphics.ImageFormat;
 import android.graphics.SurfaceTexture;
 import android.hardware.Camera;
-import android.os.AsyncTask;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
+import android.util.Log;
 import android.view.TextureView;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.unimodules.core.ModuleRegistry;
 import org.unimodules.interfaces.barcodescanner.BarCodeScanner;
@@ -26,8 +31,11 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
   private BarCodeScannerView mBarCodeScannerView;
   private Camera mCamera;
 
-  // Concurrency lock for barcode scanner to avoid flooding the runtime
-  public static volatile boolean barCodeScannerTaskLock = false;
+  // Number of preview buffers cycled between the camera and the frame decoder
+  private static final int PREVIEW_BUFFER_COUNT = 3;
+
+  private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+  private volatile FrameDecoder mFrameDecoder;
 
   // Scanner instance for the barcode scanning
   private BarCodeScanner mBarCodeScanner;
@@ -120,8 +128,18 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
         mCamera.setParameters(parameters);
         mCamera.setPreviewTexture(mSurfaceTexture);
         mCamera.startPreview();
-        // send previews to `onPreviewFrame`
-        mCamera.setPreviewCallback(this);
+        // send previews to `onPreviewFrame`, recycling a few buffers instead of allocating one per frame
+        Camera.Size previewSize = parameters.getPreviewSize();
+        int bufferSize = previewSize.width * previewSize.height
+            * ImageFormat.getBitsPerPixel(parameters.getPreviewFormat()) / 8;
+        for (int i = 0; i < PREVIEW_BUFFER_COUNT; i++) {
+          mCamera.addCallbackBuffer(new byte[bufferSize]);
+        }
+        if (mFrameDecoder != null) {
+          mFrameDecoder.release();
+        }
+        mFrameDecoder = new FrameDecoder(mCamera, previewSize.width, previewSize.height);
+        mCamera.setPreviewCallbackWithBuffer(this);
         mBarCodeScannerView.layoutViewFinder();
       } catch (NullPointerException e) {
         e.printStackTrace();
@@ -141,7 +159,7 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
         if (mCamera != null) {
           mCamera.stopPreview();
           // stop sending previews to `onPreviewFrame`
-          mCamera.setPreviewCallback(null);
+          mCamera.setPreviewCallbackWithBuffer(null);
           ExpoBarCodeScanner.getInstance().releaseCameraInstance();
           mCamera = null;
         }
@@ -151,6 +169,10 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
         mIsStopping = false;
       }
     }
+    if (mFrameDecoder != null) {
+      mFrameDecoder.release();
+      mFrameDecoder = null;
+    }
   }
 
   /**
@@ -166,9 +188,10 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
   }
 
   public void onPreviewFrame(byte[] data, Camera camera) {
-    if (!BarCodeScannerViewFinder.barCodeScannerTaskLock) {
-      BarCodeScannerViewFinder.barCodeScannerTaskLock = true;
-      new BarCodeScannerAsyncTask(camera, data, mBarCodeScannerView).execute();
+    FrameDecoder frameDecoder = mFrameDecoder;
+    if (frameDecoder == null || !frameDecoder.decode(data, camera)) {
+      // The frame won't be decoded, give the buffer back to the camera right away
+      camera.addCallbackBuffer(data);
     }
   }
 
@@ -176,47 +199,114 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
     mBarCodeScanner.setSettings(settings);
   }
 
-  private class BarCodeScannerAsyncTask extends AsyncTask<Void, Void, Void> {
-    private byte[] mImageData;
-    private final Camera mCamera;
-
-    BarCodeScannerAsyncTask(Camera camera, byte[] imageData, BarCodeScannerView barCodeScannerView) {
-      mCamera = camera;
-      mImageData = imageData;
-      mBarCodeScannerView = barCodeScannerView;
+  private synchronized void releasePreviewBuffer(Camera camera, byte[] data) {
+    // The camera may have been released or replaced while the frame was being decoded
+    if (camera == mCamera) {
+      camera.addCallbackBuffer(data);
     }
+  }
 
-    @Override
-    protected Void doInBackground(Void... ignored) {
-      if (isCancelled()) {
-        return null;
-      }
+  /**
+   * Decodes preview frames of a camera session one at a time on a dedicated thread. Frames arriving
+   * while a previous one is still being decoded are dropped, so the camera never waits for the
+   * scanner and only a few preview buffers are ever needed.
+   */
+  private class FrameDecoder implements Runnable {
+    private static final String TAG = "ExpoBarCodeScanner";
+    private static final long METRICS_INTERVAL_NANOS = 5000000000L;
 
-      // setting PreviewCallback does not really have an effect - this method is called anyway so we
-      // need to check if camera changing is in progress or not
-      if (!mIsChanging && mCamera != null) {
-        Camera.Size size = mCamera.getParameters().getPreviewSize();
+    private final Camera mPreviewCamera;
+    private final int mWidth;
+    private final int mHeight;
+    private final HandlerThread mThread;
+    private final Handler mHandler;
+    private final AtomicBoolean mIsDecoding = new AtomicBoolean(false);
+    private volatile byte[] mData;
 
-        int width = size.width;
-        int height = size.height;
+    // Scan throughput, reported periodically when debug logging is enabled for TAG
+    private final AtomicInteger mReceivedFrames = new AtomicInteger();
+    private final AtomicInteger mDroppedFrames = new AtomicInteger();
+    private int mDecodedFrames = 0;
+    private long mDecodingTimeNanos = 0;
+    private long mMetricsStartTimeNanos = System.nanoTime();
 
-        int properRotation = ExpoBarCodeScanner.getInstance().getRotation();
+    FrameDecoder(Camera camera, int width, int height) {
+      mPreviewCamera = camera;
+      mWidth = width;
+      mHeight = height;
+      mThread = new HandlerThread("ExpoBarCodeScannerDecoder");
+      mThread.start();
+      mHandler = new Handler(mThread.getLooper());
+    }
 
-        final BarCodeScannerResult result = mBarCodeScanner.scan(mImageData, width,
-            height, properRotation);
+    /**
+     * @return whether the frame is going to be decoded, in which case its buffer is given back to
+     * the camera once it's done
+     */
+    boolean decode(byte[] data, Camera camera) {
+      mReceivedFrames.incrementAndGet();
+      // setting PreviewCallback does not really have an effect - this method is called anyway so we
+      // need to check if camera changing is in progress or not
+      if (camera != mPreviewCamera || mIsChanging || !mIsDecoding.compareAndSet(false, true)) {
+        mDroppedFrames.incrementAndGet();
+        return false;
+      }
+      mData = data;
+      if (!mHandler.post(this)) {
+        mIsDecoding.set(false);
+        return false;
+      }
+      return true;
+    }
 
+    @Override
+    public void run() {
+      byte[] data = mData;
+      mData = null;
+      long startTime = System.nanoTime();
+      try {
+        int properRotation = ExpoBarCodeScanner.getInstance().getRotation();
+        final BarCodeScannerResult result = mBarCodeScanner.scan(data, mWidth, mHeight, properRotation);
         if (result != null) {
-          new Handler(Looper.getMainLooper()).post(new Runnable() {
+          mMainHandler.post(new Runnable() {
             @Override
             public void run() {
               mBarCodeScannerView.onBarCodeScanned(result);
             }
           });
         }
+      } finally {
+        long endTime = System.nanoTime();
+        mDecodedFrames++;
+        mDecodingTimeNanos += endTime - startTime;
+        if (endTime - mMetricsStartTimeNanos >= METRICS_INTERVAL_NANOS) {
+          logMetrics(endTime);
+        }
+        releasePreviewBuffer(mPreviewCamera, data);
+        mIsDecoding.set(false);
       }
+    }
 
-      BarCodeScannerViewFinder.barCodeScannerTaskLock = false;
-      return null;
+    void release() {
+      mThread.quit();
+    }
+
+    private void logMetrics(long now) {
+      if (Log.isLoggable(TAG, Log.DEBUG)) {
+        double seconds = (now - mMetricsStartTimeNanos) / 1e9;
+        Log.d(TAG, String.format(
+            Locale.US,
+            "Scanned %.1f frames/s (%.1f received, %d dropped), %.1f ms per frame",
+            mDecodedFrames / seconds,
+            mReceivedFrames.get() / seconds,
+            mDroppedFrames.get(),
+            mDecodingTimeNanos / 1e6 / mDecodedFrames));
+      }
+      mReceivedFrames.set(0);
+      mDroppedFrames.set(0);
+      mDecodedFrames = 0;
+      mDecodingTimeNanos = 0;
+      mMetricsStartTimeNanos = now;
     }
   }
 }
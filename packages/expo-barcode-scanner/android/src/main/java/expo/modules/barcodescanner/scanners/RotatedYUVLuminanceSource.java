@@ -0,0 +1,57 @@
+package expo.modules.barcodescanner.scanners;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * Luminance source reading the Y plane of a YUV frame rotated by 90 degrees clockwise.
+ * Used to decode portrait preview frames without making a rotated copy of the whole frame first.
+ */
+class RotatedYUVLuminanceSource extends LuminanceSource {
+
+  private final byte[] mYuvData;
+  private final int mDataWidth;
+  private final int mDataHeight;
+  private final byte[] mMatrix;
+
+  /**
+   * @param matrix buffer of at least {@code dataWidth * dataHeight} bytes the rotated luminance is
+   *               written to, so that it can be reused from one frame to the next
+   */
+  RotatedYUVLuminanceSource(byte[] yuvData, int dataWidth, int dataHeight, byte[] matrix) {
+    super(dataHeight, dataWidth);
+    mYuvData = yuvData;
+    mDataWidth = dataWidth;
+    mDataHeight = dataHeight;
+    mMatrix = matrix;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    // Row y of the rotated image is column y of the frame, read from the bottom up
+    int offset = (mDataHeight - 1) * mDataWidth + y;
+    for (int x = 0; x < width; x++, offset -= mDataWidth) {
+      row[x] = mYuvData[offset];
+    }
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    int width = getWidth();
+    for (int y = 0; y < mDataHeight; y++) {
+      int inputOffset = y * mDataWidth;
+      int outputOffset = width - y - 1;
+      for (int x = 0; x < mDataWidth; x++, outputOffset += width) {
+        mMatrix[outputOffset] = mYuvData[inputOffset + x];
+      }
+    }
+    return mMatrix;
+  }
+}
@@ -31,6 +31,8 @@ import org.unimodules.interfaces.barcodescanner.BarCodeScannerSettings;
 public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
 
   private final MultiFormatReader mMultiFormatReader;
+  // Reused across frames by the luminance source of portrait frames
+  private byte[] mRotatedLuminance;
 
   public ZxingBarCodeScanner(Context context) {
     super(context);
@@ -48,25 +50,19 @@ public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
     return result == null ? Collections.<BarCodeScannerResult>emptyList() : Collections.singletonList(result);
   }
 
-  public BarCodeScannerResult scan(byte[] data, int width, int height, int rotation) {
+  public synchronized BarCodeScannerResult scan(byte[] data, int width, int height, int rotation) {
     // rotate for zxing if orientation is portrait
     if (rotation == 0) {
-      byte[] rotated = new byte[data.length];
-      for (int y = 0; y < height; y++) {
-        for (int x = 0; x < width; x++) {
-          rotated[x * height + height - y - 1] = data[x + y * width];
-        }
+      if (mRotatedLuminance == null || mRotatedLuminance.length < width * height) {
+        mRotatedLuminance = new byte[width * height];
       }
-      width = width + height;
-      height = width - height;
-      width = width - height;
-      data = rotated;
+      return scan(new RotatedYUVLuminanceSource(data, width, height, mRotatedLuminance));
     }
 
     return scan(generateSourceFromImageData(data, width, height));
   }
 
-  private BarCodeScannerResult scan(LuminanceSource source) {
+  private synchronized BarCodeScannerResult scan(LuminanceSource source) {
     com.google.zxing.Result barcode = null;
     BinaryBitmap bitmap = null;
     try {
@@ -3,18 +3,20 @@ package expo.modules.camera.tasks;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.graphics.Matrix;
 import android.os.Bundle;
 import android.support.media.ExifInterface;
 import android.net.Uri;
 import android.os.AsyncTask;
 import android.util.Base64;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 import org.unimodules.core.Promise;
@@ -84,26 +86,55 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
     }
 
     Bundle response = new Bundle();
-    ByteArrayInputStream inputStream = null;
-
-    // we need the stream only for photos from a device
-    if (mBitmap == null) {
-      mBitmap = BitmapFactory.decodeByteArray(mImageData, 0, mImageData.length);
-      inputStream = new ByteArrayInputStream(mImageData);
-    }
-
     try {
-      if (inputStream != null) {
-        ExifInterface exifInterface = new ExifInterface(inputStream);
-        // Get orientation of the image from mImageData via inputStream
+      String filePath = FileSystemUtils.generateOutputPath(mDirectory, DIRECTORY_NAME, EXTENSION);
+      int width;
+      int height;
+      String base64 = null;
+
+      if (mImageData != null) {
+        // Get orientation of the image from mImageData
+        ExifInterface exifInterface = new ExifInterface(new ByteArrayInputStream(mImageData));
         int orientation = exifInterface.getAttributeInt(
             ExifInterface.TAG_ORIENTATION,
             ExifInterface.ORIENTATION_UNDEFINED
         );
 
-        // Rotate the bitmap to the proper orientation if needed
-        if (orientation != ExifInterface.ORIENTATION_UNDEFINED) {
-          mBitmap = rotateBitmap(mBitmap, getImageRotation(orientation));
+        if (getQuality() >= DEFAULT_QUALITY * 100) {
+          // The camera already produced a JPEG at the requested quality, write it as is and let its
+          // Exif orientation rotate it rather than decoding and rotating the pixels
+          writeBytesToFile(mImageData, filePath);
+          BitmapFactory.Options options = new BitmapFactory.Options();
+          options.inJustDecodeBounds = true;
+          BitmapFactory.decodeByteArray(mImageData, 0, mImageData.length, options);
+          width = options.outWidth;
+          height = options.outHeight;
+          if (isOptionEnabled(BASE64_KEY)) {
+            base64 = Base64.encodeToString(mImageData, Base64.DEFAULT);
+          }
+        } else {
+          Bitmap bitmap = BitmapFactory.decodeByteArray(mImageData, 0, mImageData.length);
+          if (bitmap == null) {
+            throw new IOException("Could not decode the picture taken by the camera.");
+          }
+          writeBitmapToFile(bitmap, filePath);
+          width = bitmap.getWidth();
+          height = bitmap.getHeight();
+          bitmap.recycle();
+
+          // Compressing drops the Exif data, carry the orientation over to the new file
+          if (orientation != ExifInterface.ORIENTATION_UNDEFINED && orientation != ExifInterface.ORIENTATION_NORMAL) {
+            ExifInterface outputExifInterface = new ExifInterface(filePath);
+            outputExifInterface.setAttribute(ExifInterface.TAG_ORIENTATION, String.valueOf(orientation));
+            outputExifInterface.saveAttributes();
+          }
+        }
+
+        // Write the dimensions of the image as displayed
+        if (isTransposingOrientation(orientation)) {
+          int rotatedWidth = height;
+          height = width;
+          width = rotatedWidth;
         }
 
         // Write Exif data to the response if requested
@@ -111,32 +142,25 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
           Bundle exifData = CameraViewHelper.getExifData(exifInterface);
           response.putBundle(EXIF_KEY, exifData);
         }
+      } else {
+        writeBitmapToFile(mBitmap, filePath);
+        width = mBitmap.getWidth();
+        height = mBitmap.getHeight();
       }
 
-      // Upon rotating, write the image's dimensions to the response
-      response.putInt(WIDTH_KEY, mBitmap.getWidth());
-      response.putInt(HEIGHT_KEY, mBitmap.getHeight());
-
-      // Cache compressed image in imageStream
-      ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
-      mBitmap.compress(Bitmap.CompressFormat.JPEG, getQuality(), imageStream);
+      response.putInt(WIDTH_KEY, width);
+      response.putInt(HEIGHT_KEY, height);
 
-      // Write compressed image to file in cache directory
-      String filePath = writeStreamToFile(imageStream);
       File imageFile = new File(filePath);
       String fileUri = Uri.fromFile(imageFile).toString();
       response.putString(URI_KEY, fileUri);
 
       // Write base64-encoded image to the response if requested
       if (isOptionEnabled(BASE64_KEY)) {
-        response.putString(BASE64_KEY, Base64.encodeToString(imageStream.toByteArray(), Base64.DEFAULT));
-      }
-
-      // Cleanup
-      imageStream.close();
-      if (inputStream != null) {
-        inputStream.close();
-        inputStream = null;
+        if (base64 == null) {
+          base64 = Base64.encodeToString(readFile(imageFile), Base64.DEFAULT);
+        }
+        response.putString(BASE64_KEY, base64);
       }
 
       return response;
@@ -149,14 +173,6 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
     } catch (Exception e) {
       mPromise.reject(ERROR_TAG, UNKNOWN_EXCEPTION_MSG, e);
       e.printStackTrace();
-    } finally {
-      try {
-        if (inputStream != null) {
-          inputStream.close();
-        }
-      } catch (IOException e) {
-        e.printStackTrace();
-      }
     }
 
     // An exception had to occur, promise has already been rejected. Do not try to resolve it again.
@@ -166,12 +182,9 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
   private Bundle handleSkipProcessing() {
     Bundle response = new Bundle();
     try {
-      // save byte array (it's already a JPEG)
-      ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
-      imageStream.write(mImageData);
-
-      // write compressed image to file in cache directory
-      String filePath = writeStreamToFile(imageStream);
+      // save byte array (it's already a JPEG) to file in cache directory
+      String filePath = FileSystemUtils.generateOutputPath(mDirectory, DIRECTORY_NAME, EXTENSION);
+      writeBytesToFile(mImageData, filePath);
       File imageFile = new File(filePath);
 
       // handle image uri
@@ -225,57 +238,46 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
     }
   }
 
-  // Write stream to file in cache directory
-  private String writeStreamToFile(ByteArrayOutputStream inputStream) throws Exception {
-    String outputPath = null;
-    Exception exception = null;
-    FileOutputStream outputStream = null;
-
+  private void writeBytesToFile(byte[] data, String filePath) throws IOException {
+    OutputStream outputStream = new FileOutputStream(filePath);
     try {
-      outputPath = FileSystemUtils.generateOutputPath(mDirectory, DIRECTORY_NAME,EXTENSION);
-      outputStream = new FileOutputStream(outputPath);
-      inputStream.writeTo(outputStream);
-    } catch (IOException e) {
-      e.printStackTrace();
-      exception = e;
+      outputStream.write(data);
     } finally {
-      try {
-        if (outputStream != null) {
-          outputStream.close();
-        }
-      } catch (IOException e) {
-        e.printStackTrace();
-      }
+      outputStream.close();
     }
+  }
 
-    if (exception != null) {
-      throw exception;
+  private void writeBitmapToFile(Bitmap bitmap, String filePath) throws IOException {
+    OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(filePath));
+    try {
+      bitmap.compress(Bitmap.CompressFormat.JPEG, getQuality(), outputStream);
+    } finally {
+      outputStream.close();
     }
-
-    return outputPath;
   }
 
-  private Bitmap rotateBitmap(Bitmap source, int angle) {
-    Matrix matrix = new Matrix();
-    matrix.postRotate(angle);
-    return Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
+  private byte[] readFile(File file) throws IOException {
+    byte[] data = new byte[(int) file.length()];
+    DataInputStream inputStream = new DataInputStream(new FileInputStream(file));
+    try {
+      inputStream.readFully(data);
+    } finally {
+      inputStream.close();
+    }
+    return data;
   }
 
-  // Get rotation degrees from Exif orientation enum
-  private int getImageRotation(int orientation) {
-    int rotationDegrees = 0;
+  // Whether the Exif orientation swaps the width and the height of the image
+  private boolean isTransposingOrientation(int orientation) {
     switch (orientation) {
       case ExifInterface.ORIENTATION_ROTATE_90:
-        rotationDegrees = 90;
-        break;
-      case ExifInterface.ORIENTATION_ROTATE_180:
-        rotationDegrees = 180;
-        break;
       case ExifInterface.ORIENTATION_ROTATE_270:
-        rotationDegrees = 270;
-        break;
+      case ExifInterface.ORIENTATION_TRANSPOSE:
+      case ExifInterface.ORIENTATION_TRANSVERSE:
+        return true;
+      default:
+        return false;
     }
-    return rotationDegrees;
   }
 
   private boolean isOptionEnabled(String key) {
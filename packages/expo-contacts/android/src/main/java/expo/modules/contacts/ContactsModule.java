@@ -15,6 +15,7 @@ import android.os.Bundle;
 import android.provider.ContactsContract;
 import android.provider.ContactsContract.CommonDataKinds;
 import android.content.pm.PackageManager;
+import android.text.TextUtils;
 
 import org.unimodules.core.*;
 import org.unimodules.core.interfaces.ActivityProvider;
@@ -52,6 +53,8 @@ public class ContactsModule extends ExportedModule {
 
   private static final String TAG = ContactsModule.class.getSimpleName();
 
+  private static final int MAX_CONTACT_IDS_PER_QUERY = 500;
+
   // TODO: Evan: default API is confusing. Duplicate data being requested.
   private static final List<String> DEFAULT_PROJECTION = new ArrayList<String>() {
     {
@@ -131,6 +134,97 @@ public class ContactsModule extends ExportedModule {
     }).start();
   }
 
+  /**
+   * Returns the contacts added or updated after the given change token, along with the ids of the
+   * contacts deleted since then and a new change token to pass to the next call. Without a change
+   * token every contact is returned.
+   */
+  @ExpoMethod
+  public void getContactChangesAsync(final Map<String, Object> options, final Promise promise) {
+    if (isMissingPermissions(promise)) return;
+
+    new Thread(new Runnable() {
+      @Override
+      public void run() {
+        long since = 0;
+        if (options.containsKey("changeToken") && options.get("changeToken") instanceof String) {
+          try {
+            since = Long.parseLong((String) options.get("changeToken"));
+          } catch (NumberFormatException e) {
+            promise.reject("E_INVALID_CHANGE_TOKEN", "Invalid change token: " + options.get("changeToken"), e);
+            return;
+          }
+        }
+
+        ArrayList fields = null;
+        if (options.containsKey("fields") && options.get("fields") instanceof ArrayList) {
+          fields = (ArrayList) options.get("fields");
+        }
+        Set<String> keysToFetch = getFieldsSet(fields);
+
+        try {
+          long changeToken = since;
+          String[] timestampArgs = new String[]{String.valueOf(since)};
+
+          List<String> changedContactIds = new ArrayList<>();
+          Cursor cursor = getResolver().query(
+              ContactsContract.Contacts.CONTENT_URI,
+              new String[]{ContactsContract.Contacts._ID, ContactsContract.Contacts.CONTACT_LAST_UPDATED_TIMESTAMP},
+              ContactsContract.Contacts.CONTACT_LAST_UPDATED_TIMESTAMP + " > ?",
+              timestampArgs,
+              ContactsContract.Contacts._ID + " ASC");
+          if (cursor != null) {
+            try {
+              while (cursor.moveToNext()) {
+                changedContactIds.add(cursor.getString(0));
+                changeToken = Math.max(changeToken, cursor.getLong(1));
+              }
+            } finally {
+              cursor.close();
+            }
+          }
+
+          ArrayList<String> deletedContactIds = new ArrayList<>();
+          if (since > 0) {
+            cursor = getResolver().query(
+                ContactsContract.DeletedContacts.CONTENT_URI,
+                new String[]{ContactsContract.DeletedContacts.CONTACT_ID, ContactsContract.DeletedContacts.CONTACT_DELETED_TIMESTAMP},
+                ContactsContract.DeletedContacts.CONTACT_DELETED_TIMESTAMP + " > ?",
+                timestampArgs,
+                null);
+            if (cursor != null) {
+              try {
+                while (cursor.moveToNext()) {
+                  deletedContactIds.add(cursor.getString(0));
+                  changeToken = Math.max(changeToken, cursor.getLong(1));
+                }
+              } finally {
+                cursor.close();
+              }
+            }
+          }
+
+          Map<String, Contact> contacts = loadContactsWithIds(changedContactIds, keysToFetch);
+          ArrayList data = new ArrayList();
+          for (String contactId : changedContactIds) {
+            Contact contact = contacts.get(contactId);
+            if (contact != null) {
+              data.add(contact.toMap(keysToFetch));
+            }
+          }
+
+          Bundle output = new Bundle();
+          output.putParcelableArrayList("data", data);
+          output.putStringArrayList("deletedIds", deletedContactIds);
+          output.putString("changeToken", String.valueOf(changeToken));
+          promise.resolve(output);
+        } catch (Exception e) {
+          promise.reject(e);
+        }
+      }
+    }).start();
+  }
+
   @ExpoMethod
   public void addContactAsync(Map<String, Object> data, String containerId, Promise promise) {
     if (isMissingPermissions(promise) || isMissingWritePermissions(promise)) return;
@@ -486,8 +580,9 @@ public class ContactsModule extends ExportedModule {
       pageSize = ((Number)options.get("pageSize")).intValue();
     }
 
-    HashMap<String, Object> contactsData = fetchContacts(pageOffset, pageSize, null, null, keysToFetch, sortOrder,
-        promise);
+    HashMap<String, Object> contactsData = pageSize > 0
+        ? fetchContactsPage(pageOffset, pageSize, keysToFetch, sortOrder, promise)
+        : fetchContacts(pageOffset, pageSize, null, null, keysToFetch, sortOrder, promise);
 
     if (contactsData != null) {
       ArrayList<Contact> contacts = (ArrayList<Contact>) contactsData.get("data");
@@ -611,6 +706,9 @@ public class ContactsModule extends ExportedModule {
     if (keysToFetch.contains("nameSuffix"))
       projection.add(CommonDataKinds.StructuredName.SUFFIX);
 
+    // Optional fields may add columns the default projection already has
+    projection = new ArrayList<>(new LinkedHashSet<>(projection));
+
     HashMap map = new HashMap();
     map.put("projection", projection);
     map.put("selection", selection);
@@ -695,6 +793,163 @@ public class ContactsModule extends ExportedModule {
     return null;
   }
 
+  /**
+   * Pages over the contact ids first and only loads the data rows of the contacts in the requested
+   * page, instead of loading every contact to slice the page out of them.
+   */
+  private HashMap<String, Object> fetchContactsPage(int pageOffset, int pageSize, final Set<String> keysToFetch,
+                                                    String sortOrder, Promise promise) {
+    try {
+      List<String> contactIds = queryContactIds(keysToFetch, sortOrder);
+      int total = contactIds.size();
+      int pageStart = Math.min(Math.max(pageOffset, 0), total);
+      List<String> pageContactIds = contactIds.subList(pageStart, Math.min(pageStart + pageSize, total));
+      Map<String, Contact> contacts = loadContactsWithIds(pageContactIds, keysToFetch);
+
+      ArrayList<Contact> contactsArray = new ArrayList<>();
+      for (String contactId : pageContactIds) {
+        Contact contact = contacts.get(contactId);
+        if (contact != null) {
+          contactsArray.add(contact);
+        }
+      }
+
+      HashMap<String, Object> response = new HashMap<String, Object>();
+      response.put("data", contactsArray);
+      response.put("hasPreviousPage", pageOffset > 0);
+      response.put("hasNextPage", pageOffset + pageSize < total);
+      response.put("total", total);
+      return response;
+    } catch (Exception e) {
+      promise.reject(e);
+    }
+    return null;
+  }
+
+  /**
+   * @return the ids of the contacts with data rows of the requested kinds, like the ones built when
+   * fetching all contacts, sorted by the same names as {@link #sortContactsBy}
+   */
+  private List<String> queryContactIds(final Set<String> keysToFetch, String sortOrder) {
+    String nameColumn = null;
+    if ("firstName".equals(sortOrder)) {
+      nameColumn = CommonDataKinds.StructuredName.GIVEN_NAME;
+    } else if ("lastName".equals(sortOrder)) {
+      nameColumn = CommonDataKinds.StructuredName.FAMILY_NAME;
+    }
+
+    List<String> contactIds = new ArrayList<>();
+    final Map<String, String> sortNames = new HashMap<>();
+    Cursor cursor = getResolver().query(
+        ContactsContract.Contacts.CONTENT_URI,
+        new String[]{ContactsContract.Contacts._ID, ContactsContract.Contacts.DISPLAY_NAME},
+        null,
+        null,
+        ContactsContract.Contacts._ID + " ASC");
+    if (cursor != null) {
+      try {
+        while (cursor.moveToNext()) {
+          String contactId = cursor.getString(0);
+          contactIds.add(contactId);
+          if (nameColumn != null) {
+            sortNames.put(contactId, cursor.getString(1));
+          }
+        }
+      } finally {
+        cursor.close();
+      }
+    }
+
+    contactIds.retainAll(queryContactIdsWithData(keysToFetch));
+
+    if (nameColumn == null) {
+      return contactIds;
+    }
+
+    // the name fields override the display name, as in Contact#getFirstName and Contact#getLastName
+    cursor = getResolver().query(
+        ContactsContract.Data.CONTENT_URI,
+        new String[]{ContactsContract.Data.CONTACT_ID, nameColumn},
+        ContactsContract.Data.MIMETYPE + " = ?",
+        new String[]{CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE},
+        null);
+    if (cursor != null) {
+      try {
+        while (cursor.moveToNext()) {
+          String name = cursor.getString(1);
+          if (name != null) {
+            sortNames.put(cursor.getString(0), name);
+          }
+        }
+      } finally {
+        cursor.close();
+      }
+    }
+
+    Collections.sort(contactIds, new Comparator<String>() {
+      public int compare(String id1, String id2) {
+        String name1 = sortNames.get(id1);
+        String name2 = sortNames.get(id2);
+        return (name1 != null ? name1 : "").compareToIgnoreCase(name2 != null ? name2 : "");
+      }
+    });
+    return contactIds;
+  }
+
+  private Set<String> queryContactIdsWithData(final Set<String> keysToFetch) {
+    HashMap queryMap = createProjectionForQuery(keysToFetch);
+    String selection = (String) queryMap.get("selection");
+    ArrayList<String> selectionArgs = (ArrayList<String>) queryMap.get("selectionArgs");
+
+    Set<String> contactIds = new HashSet<>();
+    Cursor cursor = getResolver().query(
+        ContactsContract.Data.CONTENT_URI,
+        new String[]{ContactsContract.Data.CONTACT_ID},
+        selection,
+        selectionArgs.toArray(new String[selectionArgs.size()]),
+        null);
+    if (cursor != null) {
+      try {
+        while (cursor.moveToNext()) {
+          contactIds.add(cursor.getString(0));
+        }
+      } finally {
+        cursor.close();
+      }
+    }
+    return contactIds;
+  }
+
+  private Map<String, Contact> loadContactsWithIds(List<String> contactIds, final Set<String> keysToFetch) {
+    HashMap queryMap = createProjectionForQuery(keysToFetch);
+    List<String> projection = (List<String>) queryMap.get("projection");
+    String selection = (String) queryMap.get("selection");
+    ArrayList<String> selectionArgs = (ArrayList<String>) queryMap.get("selectionArgs");
+
+    Map<String, Contact> contacts = new HashMap<>();
+    for (int start = 0; start < contactIds.size(); start += MAX_CONTACT_IDS_PER_QUERY) {
+      List<String> queryContactIds = contactIds.subList(start, Math.min(start + MAX_CONTACT_IDS_PER_QUERY, contactIds.size()));
+      // ids come from the contacts provider itself, so they can be inlined instead of using up selection args
+      String cursorSelection = "(" + selection + ") AND " + ContactsContract.Data.CONTACT_ID + " IN ("
+          + TextUtils.join(",", queryContactIds) + ")";
+
+      Cursor cursor = getResolver().query(
+          ContactsContract.Data.CONTENT_URI,
+          projection.toArray(new String[projection.size()]),
+          cursorSelection,
+          selectionArgs.toArray(new String[selectionArgs.size()]),
+          null);
+      if (cursor != null) {
+        try {
+          contacts.putAll(loadContactsFrom(cursor));
+        } finally {
+          cursor.close();
+        }
+      }
+    }
+    return contacts;
+  }
+
   private ArrayList<Contact> sortContactsBy(ArrayList<Contact> input, String sortOrder) {
     if (sortOrder == null)
       return input;
@@ -178,6 +178,17 @@ export type ContactResponse = {
   hasPreviousPage: boolean;
 };
 
+export type ContactChangesQuery = {
+  changeToken?: string;
+  fields?: FieldType[];
+};
+
+export type ContactChangesResponse = {
+  data: Contact[];
+  deletedIds: string[];
+  changeToken: string;
+};
+
 export type ContactSort =
   | typeof SortTypes.UserDefault
   | typeof SortTypes.FirstName
@@ -277,6 +288,15 @@ export async function getPagedContactsAsync(
   });
 }
 
+export async function getContactChangesAsync(
+  changesQuery: ContactChangesQuery = {}
+): Promise<ContactChangesResponse> {
+  if (!ExpoContacts.getContactChangesAsync) {
+    throw new UnavailabilityError('Contacts', 'getContactChangesAsync');
+  }
+  return await ExpoContacts.getContactChangesAsync(changesQuery);
+}
+
 export async function getContactByIdAsync(
   id: string,
   fields?: FieldType
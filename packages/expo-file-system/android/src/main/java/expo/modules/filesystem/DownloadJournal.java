@@ -0,0 +1,126 @@
+package expo.modules.filesystem;
+
+import android.net.Uri;
+import android.util.Log;
+
+import org.apache.commons.io.FileUtils;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unfinished downloads, kept on disk so they can be resumed with a `Range` request after the app
+ * has been killed. The bytes downloaded so far are the partial file itself, so an entry only
+ * changes when a download starts or finishes rather than on every chunk.
+ */
+class DownloadJournal {
+  private static final String TAG = DownloadJournal.class.getSimpleName();
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final long MAX_ENTRY_AGE_MS = TimeUnit.DAYS.toMillis(7);
+
+  static final String KEY_URL = "url";
+  static final String KEY_FILE_URI = "fileUri";
+  static final String KEY_OPTIONS = "options";
+  static final String KEY_VALIDATOR = "validator";
+  private static final String KEY_UPDATED_AT = "updatedAt";
+
+  private final File mFile;
+  // Entries by file URI, since only one download can write to a file at a time.
+  private JSONObject mEntries;
+
+  DownloadJournal(File file) {
+    mFile = file;
+  }
+
+  synchronized JSONObject get(String fileUri) {
+    return getEntries().optJSONObject(fileUri);
+  }
+
+  synchronized List<JSONObject> getAll() {
+    JSONObject entries = getEntries();
+    List<JSONObject> result = new ArrayList<>(entries.length());
+    Iterator<String> keys = entries.keys();
+    while (keys.hasNext()) {
+      result.add(entries.optJSONObject(keys.next()));
+    }
+    return result;
+  }
+
+  synchronized void put(String url, String fileUri, JSONObject options, String validator) {
+    try {
+      JSONObject entry = new JSONObject();
+      entry.put(KEY_URL, url);
+      entry.put(KEY_FILE_URI, fileUri);
+      entry.put(KEY_OPTIONS, options);
+      entry.putOpt(KEY_VALIDATOR, validator);
+      entry.put(KEY_UPDATED_AT, System.currentTimeMillis());
+      getEntries().put(fileUri, entry);
+      save();
+    } catch (JSONException e) {
+      Log.e(TAG, "Couldn't add download of " + url + " to the journal", e);
+    }
+  }
+
+  synchronized void remove(String fileUri) {
+    if (getEntries().remove(fileUri) != null) {
+      save();
+    }
+  }
+
+  private JSONObject getEntries() {
+    if (mEntries != null) {
+      return mEntries;
+    }
+    mEntries = new JSONObject();
+    if (!mFile.exists()) {
+      return mEntries;
+    }
+
+    boolean changed = false;
+    try {
+      JSONObject entries = new JSONObject(FileUtils.readFileToString(mFile, UTF_8));
+      long now = System.currentTimeMillis();
+      Iterator<String> keys = entries.keys();
+      while (keys.hasNext()) {
+        String fileUri = keys.next();
+        JSONObject entry = entries.optJSONObject(fileUri);
+        // Forget downloads that are too old to be resumed or whose partial file is gone.
+        if (entry == null
+            || now - entry.optLong(KEY_UPDATED_AT) > MAX_ENTRY_AGE_MS
+            || !new File(Uri.parse(fileUri).getPath()).exists()) {
+          changed = true;
+          continue;
+        }
+        mEntries.put(fileUri, entry);
+      }
+    } catch (IOException | JSONException e) {
+      Log.e(TAG, "Couldn't read the download journal", e);
+      changed = true;
+    }
+    if (changed) {
+      save();
+    }
+    return mEntries;
+  }
+
+  private void save() {
+    // Written to a temporary file first so a crash can't leave a truncated journal behind.
+    File tempFile = new File(mFile.getPath() + ".tmp");
+    try {
+      FileUtils.writeStringToFile(tempFile, mEntries.toString(), UTF_8);
+      if (!tempFile.renameTo(mFile)) {
+        throw new IOException("Couldn't rename " + tempFile + " to " + mFile);
+      }
+    } catch (IOException e) {
+      Log.e(TAG, "Couldn't save the download journal", e);
+      tempFile.delete();
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package expo.modules.filesystem;
+
+import android.os.Bundle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs resumable downloads on a fixed number of threads. Queued downloads start in order of
+ * priority, then in the order they were started from JS. Progress of all running downloads is
+ * collected and sent to JS as one event per interval instead of one event per download.
+ */
+class DownloadScheduler {
+  static final int MAX_CONCURRENT_DOWNLOADS = 4;
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  interface ProgressEmitter {
+    void emit(ArrayList<Bundle> events);
+  }
+
+  abstract static class Task implements Runnable, Comparable<Task> {
+    final String uuid;
+    final int priority;
+    private long mSequence;
+    private volatile boolean mCancelled;
+
+    private long mBytesWritten;
+    private long mBytesExpected;
+    private boolean mHasNewProgress;
+
+    Task(String uuid, int priority) {
+      this.uuid = uuid;
+      this.priority = priority;
+    }
+
+    boolean isCancelled() {
+      return mCancelled;
+    }
+
+    // Called when the download is paused. `wasQueued` is true if it never started running.
+    abstract void onCancelled(boolean wasQueued);
+
+    synchronized void updateProgress(long bytesWritten, long bytesExpected) {
+      mBytesWritten = bytesWritten;
+      mBytesExpected = bytesExpected;
+      mHasNewProgress = true;
+    }
+
+    synchronized Bundle pollProgress() {
+      if (!mHasNewProgress) {
+        return null;
+      }
+      mHasNewProgress = false;
+
+      Bundle downloadProgressData = new Bundle();
+      downloadProgressData.putDouble("totalBytesWritten", mBytesWritten);
+      downloadProgressData.putDouble("totalBytesExpectedToWrite", mBytesExpected);
+      Bundle downloadProgress = new Bundle();
+      downloadProgress.putString("uuid", uuid);
+      downloadProgress.putBundle("data", downloadProgressData);
+      return downloadProgress;
+    }
+
+    @Override
+    public int compareTo(Task other) {
+      if (priority != other.priority) {
+        return priority > other.priority ? -1 : 1;
+      }
+      return mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+    }
+  }
+
+  private final ThreadPoolExecutor mExecutor;
+  private final ScheduledExecutorService mProgressExecutor = Executors.newSingleThreadScheduledExecutor();
+  private final long mProgressIntervalMs;
+  private final ProgressEmitter mProgressEmitter;
+
+  // Queued and running downloads by uuid.
+  private final Map<String, Task> mTasks = new HashMap<>();
+  private final ArrayDeque<byte[]> mBuffers = new ArrayDeque<>();
+  private ScheduledFuture<?> mProgressFuture;
+  private long mNextSequence = 0;
+
+  DownloadScheduler(long progressIntervalMs, ProgressEmitter progressEmitter) {
+    mProgressIntervalMs = progressIntervalMs;
+    mProgressEmitter = progressEmitter;
+    // Tasks have to be passed to `execute` rather than `submit` so the queue can compare them.
+    mExecutor = new ThreadPoolExecutor(MAX_CONCURRENT_DOWNLOADS, MAX_CONCURRENT_DOWNLOADS,
+        30, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>());
+    mExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  synchronized void enqueue(Task task) {
+    Task previousTask = mTasks.put(task.uuid, task);
+    if (previousTask != null) {
+      cancel(previousTask);
+    }
+    task.mSequence = mNextSequence++;
+    if (mProgressFuture == null) {
+      mProgressFuture = mProgressExecutor.scheduleAtFixedRate(new Runnable() {
+        @Override
+        public void run() {
+          emitProgress();
+        }
+      }, mProgressIntervalMs, mProgressIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    mExecutor.execute(task);
+  }
+
+  // Returns the paused task, or null if there's no queued or running download with this uuid.
+  synchronized Task cancel(String uuid) {
+    Task task = mTasks.remove(uuid);
+    if (task != null) {
+      cancel(task);
+    }
+    return task;
+  }
+
+  private void cancel(Task task) {
+    task.mCancelled = true;
+    task.onCancelled(mExecutor.remove(task));
+  }
+
+  // Called by a task once it's done, before it settles its promise, so JS gets the last progress
+  // update before the result.
+  void finish(Task task) {
+    synchronized (this) {
+      if (mTasks.get(task.uuid) == task) {
+        mTasks.remove(task.uuid);
+      }
+    }
+    Bundle lastProgress = task.pollProgress();
+    if (lastProgress != null) {
+      ArrayList<Bundle> events = new ArrayList<>(1);
+      events.add(lastProgress);
+      mProgressEmitter.emit(events);
+    }
+  }
+
+  // Buffers are only ever used by the download threads so there are at most as many of them.
+  synchronized byte[] acquireBuffer() {
+    byte[] buffer = mBuffers.poll();
+    return buffer != null ? buffer : new byte[BUFFER_SIZE];
+  }
+
+  synchronized void releaseBuffer(byte[] buffer) {
+    if (mBuffers.size() < MAX_CONCURRENT_DOWNLOADS) {
+      mBuffers.push(buffer);
+    }
+  }
+
+  private void emitProgress() {
+    ArrayList<Bundle> events = new ArrayList<>();
+    synchronized (this) {
+      for (Task task : mTasks.values()) {
+        Bundle event = task.pollProgress();
+        if (event != null) {
+          events.add(event);
+        }
+      }
+      if (mTasks.isEmpty() && mProgressFuture != null) {
+        mProgressFuture.cancel(false);
+        mProgressFuture = null;
+      }
+    }
+    if (!events.isEmpty()) {
+      mProgressEmitter.emit(events);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package expo.modules.filesystem;
+
+import android.util.Base64;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Open file that JS reads or writes a chunk at a time. Chunks are read straight from the
+ * {@link FileChannel} into a buffer that is reused between calls, so reading a large file never
+ * needs more memory than one chunk and its encoded string.
+ */
+class FileHandle {
+  static final int MAX_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private final RandomAccessFile mFile;
+  private final FileChannel mChannel;
+  private ByteBuffer mBuffer;
+
+  static class ReadResult {
+    final String data;
+    final int bytesRead;
+    final boolean isEndOfFile;
+
+    ReadResult(String data, int bytesRead, boolean isEndOfFile) {
+      this.data = data;
+      this.bytesRead = bytesRead;
+      this.isEndOfFile = isEndOfFile;
+    }
+  }
+
+  FileHandle(File file, boolean writable) throws IOException {
+    mFile = new RandomAccessFile(file, writable ? "rw" : "r");
+    mChannel = mFile.getChannel();
+  }
+
+  synchronized long size() throws IOException {
+    return mChannel.size();
+  }
+
+  // Reads up to `length` bytes from `position`, or from the current position if it's negative.
+  synchronized ReadResult read(int length, long position, boolean base64) throws IOException {
+    if (length <= 0 || length > MAX_CHUNK_SIZE) {
+      throw new IOException("Chunk length must be between 1 and " + MAX_CHUNK_SIZE + " bytes.");
+    }
+    if (position >= 0) {
+      mChannel.position(position);
+    }
+
+    ByteBuffer buffer = getBuffer(length);
+    while (buffer.hasRemaining()) {
+      if (mChannel.read(buffer) < 0) {
+        break;
+      }
+    }
+
+    int bytesRead = buffer.position();
+    if (!base64) {
+      // Don't split a multi-byte character between two chunks; the next read starts with it.
+      int completeLength = completeUtf8Length(buffer.array(), bytesRead);
+      // If `length` is shorter than the character at the position nothing would be read and the
+      // position would never move, so read up to the end of that character instead.
+      while (completeLength == 0 && bytesRead > 0 && buffer.limit() < buffer.capacity()) {
+        buffer.limit(buffer.limit() + 1);
+        if (mChannel.read(buffer) < 0) {
+          break;
+        }
+        bytesRead = buffer.position();
+        completeLength = completeUtf8Length(buffer.array(), bytesRead);
+      }
+      if (completeLength == 0) {
+        // Truncated character at the end of the file.
+        completeLength = bytesRead;
+      }
+      mChannel.position(mChannel.position() - (bytesRead - completeLength));
+      bytesRead = completeLength;
+    }
+
+    String data = base64
+        ? Base64.encodeToString(buffer.array(), 0, bytesRead, Base64.NO_WRAP)
+        : new String(buffer.array(), 0, bytesRead, UTF_8);
+    return new ReadResult(data, bytesRead, mChannel.position() >= mChannel.size());
+  }
+
+  // Writes at `position`, or at the current position if it's negative. Returns the number of bytes written.
+  synchronized int write(String data, long position, boolean base64) throws IOException {
+    byte[] bytes = base64 ? Base64.decode(data, Base64.DEFAULT) : data.getBytes(UTF_8);
+    if (position >= 0) {
+      mChannel.position(position);
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      mChannel.write(buffer);
+    }
+    return bytes.length;
+  }
+
+  synchronized void close() throws IOException {
+    mChannel.close();
+    mFile.close();
+  }
+
+  private ByteBuffer getBuffer(int length) {
+    if (mBuffer == null || mBuffer.capacity() < length) {
+      // Room for at least one whole UTF-8 character.
+      mBuffer = ByteBuffer.allocate(Math.max(length, 4));
+    }
+    mBuffer.clear();
+    mBuffer.limit(length);
+    return mBuffer;
+  }
+
+  // Length of the prefix of `bytes` that doesn't end with an incomplete UTF-8 sequence.
+  static int completeUtf8Length(byte[] bytes, int length) {
+    // A UTF-8 sequence is at most 4 bytes long so only the last 3 bytes can be incomplete.
+    for (int i = length - 1; i >= 0 && i >= length - 3; i--) {
+      int b = bytes[i] & 0xff;
+      if ((b & 0xc0) == 0x80) {
+        // Continuation byte, keep looking for the lead byte.
+        continue;
+      }
+      int sequenceLength = 1;
+      if ((b & 0xe0) == 0xc0) {
+        sequenceLength = 2;
+      } else if ((b & 0xf0) == 0xe0) {
+        sequenceLength = 3;
+      } else if ((b & 0xf8) == 0xf0) {
+        sequenceLength = 4;
+      }
+      return i + sequenceLength > length ? i : length;
+    }
+    return length;
+  }
+}
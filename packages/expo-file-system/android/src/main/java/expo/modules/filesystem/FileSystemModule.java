@@ -4,7 +4,6 @@ import android.app.Application;
 import android.content.Context;
 import android.content.res.Resources;
 import android.net.Uri;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.support.v4.content.FileProvider;
 import android.util.Base64;
@@ -14,6 +13,8 @@ import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.unimodules.core.ExportedModule;
 import org.unimodules.core.ModuleRegistry;
 import org.unimodules.core.Promise;
@@ -23,7 +24,6 @@ import org.unimodules.core.interfaces.services.EventEmitter;
 import org.unimodules.interfaces.filesystem.FilePermissionModuleInterface;
 import org.unimodules.interfaces.filesystem.Permission;
 
-import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -32,43 +32,49 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
 import java.net.CookieHandler;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.Headers;
-import okhttp3.Interceptor;
 import okhttp3.JavaNetCookieJar;
-import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
-import okio.Buffer;
 import okio.BufferedSink;
 import okio.BufferedSource;
-import okio.ForwardingSource;
 import okio.Okio;
-import okio.Source;
 
 public class FileSystemModule extends ExportedModule {
   private static final String NAME = "ExponentFileSystem";
   private static final String TAG = FileSystemModule.class.getSimpleName();
-  private static final String EXDownloadProgressEventName = "Exponent.downloadProgress";
+  private static final String EXDownloadProgressBatchEventName = "Exponent.downloadProgressBatch";
   private static final long MIN_EVENT_DT_MS = 100;
   private static final String HEADER_KEY = "headers";
+  private static final String DOWNLOAD_JOURNAL_FILE_NAME = ".expo-download-journal.json";
 
   private ModuleRegistry mModuleRegistry;
   private OkHttpClient mClient;
 
-  private final Map<String, DownloadResumable> mDownloadResumableMap = new HashMap<>();
+  private DownloadScheduler mDownloadScheduler;
+  private DownloadJournal mDownloadJournal;
+  private final Map<Integer, FileHandle> mFileHandles = new HashMap<>();
+  private final AtomicInteger mNextFileHandleId = new AtomicInteger(0);
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
 
   public FileSystemModule(Context context) {
     super(context);
@@ -86,6 +92,22 @@ public class FileSystemModule extends ExportedModule {
     mModuleRegistry = moduleRegistry;
   }
 
+  @Override
+  public void onDestroy() {
+    List<FileHandle> handles;
+    synchronized (mFileHandles) {
+      handles = new ArrayList<>(mFileHandles.values());
+      mFileHandles.clear();
+    }
+    for (FileHandle handle : handles) {
+      try {
+        handle.close();
+      } catch (IOException e) {
+        Log.e(TAG, e.getMessage());
+      }
+    }
+  }
+
   @Override
   public String getName() {
     return NAME;
@@ -223,20 +245,30 @@ public class FileSystemModule extends ExportedModule {
       if (options.containsKey("encoding") && options.get("encoding") instanceof String) {
         encoding = ((String) options.get("encoding")).toLowerCase();
       }
+      boolean isBase64 = encoding.equalsIgnoreCase("base64");
+      long position = -1;
+      int length = -1;
+      if (options.containsKey("length") && options.containsKey("position")) {
+        length = ((Number) options.get("length")).intValue();
+        position = ((Number) options.get("position")).longValue();
+      }
+
       String contents;
-      if (encoding.equalsIgnoreCase("base64")) {
+      if ("file".equals(uri.getScheme())) {
+        // Reads straight into a buffer of the right size instead of growing one while copying.
+        ByteBuffer buffer = readFileRange(uriToFile(uri), position, length);
+        contents = isBase64
+            ? Base64.encodeToString(buffer.array(), 0, buffer.limit(), Base64.NO_WRAP)
+            : new String(buffer.array(), 0, buffer.limit(), UTF_8);
+      } else if (isBase64) {
         InputStream inputStream;
-        if ("file".equals(uri.getScheme())) {
-          inputStream = new FileInputStream(uriToFile(uri));
-        } else if ("asset".equals(uri.getScheme())) {
+        if ("asset".equals(uri.getScheme())) {
           inputStream = openAssetInputStream(uri);
         } else {
           throw new IOException("Unsupported scheme for location '" + uri + "'.");
         }
 
-        if (options.containsKey("length") && options.containsKey("position")) {
-          int length = ((Number) options.get("length")).intValue();
-          int position = ((Number) options.get("position")).intValue();
+        if (length >= 0) {
           byte[] buffer = new byte[length];
           inputStream.skip(position);
           int bytesRead = inputStream.read(buffer, 0, length);
@@ -246,9 +278,7 @@ public class FileSystemModule extends ExportedModule {
           contents = Base64.encodeToString(inputData, Base64.NO_WRAP);
         }
       } else {
-        if ("file".equals(uri.getScheme())) {
-          contents = IOUtils.toString(new FileInputStream(uriToFile(uri)));
-        } else if ("asset".equals(uri.getScheme())) {
+        if ("asset".equals(uri.getScheme())) {
           contents = IOUtils.toString(openAssetInputStream(uri));
         } else {
           throw new IOException("Unsupported scheme for location '" + uri + "'.");
@@ -261,6 +291,34 @@ public class FileSystemModule extends ExportedModule {
     }
   }
 
+  // Reads `length` bytes from `position` of the file, or the whole file if `length` is negative.
+  private static ByteBuffer readFileRange(File file, long position, int length) throws IOException {
+    FileInputStream inputStream = new FileInputStream(file);
+    try {
+      FileChannel channel = inputStream.getChannel();
+      if (length < 0) {
+        position = 0;
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+          throw new IOException("File '" + file + "' is too large to be read at once.");
+        }
+        length = (int) size;
+      }
+
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+        int bytesRead = channel.read(buffer, position + buffer.position());
+        if (bytesRead < 0) {
+          break;
+        }
+      }
+      buffer.flip();
+      return buffer;
+    } finally {
+      inputStream.close();
+    }
+  }
+
   @ExpoMethod
   public void writeAsStringAsync(String uriStr, String string, Map<String, Object> options, Promise promise) {
     try {
@@ -273,16 +331,30 @@ public class FileSystemModule extends ExportedModule {
           encoding = ((String) options.get("encoding")).toLowerCase();
         }
 
-        FileOutputStream out = new FileOutputStream(uriToFile(uri));
-        if (encoding.equals("base64")) {
-          byte[] bytes = Base64.decode(string, Base64.DEFAULT);
-          out.write(bytes);
+        byte[] bytes = encoding.equals("base64") ? Base64.decode(string, Base64.DEFAULT) : string.getBytes(UTF_8);
+        File file = uriToFile(uri);
+        if (options.containsKey("position")) {
+          // Overwrite a range in place without touching the rest of the file.
+          long position = ((Number) options.get("position")).longValue();
+          RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+          try {
+            FileChannel channel = randomAccessFile.getChannel();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+              channel.write(buffer, position + buffer.position());
+            }
+          } finally {
+            randomAccessFile.close();
+          }
         } else {
-          OutputStreamWriter writer = new OutputStreamWriter(out);
-          writer.write(string);
-          writer.close();
+          boolean append = options.containsKey("append") && (Boolean) options.get("append");
+          FileOutputStream out = new FileOutputStream(file, append);
+          try {
+            out.write(bytes);
+          } finally {
+            out.close();
+          }
         }
-        out.close();
         promise.resolve(null);
       } else {
         throw new IOException("Unsupported scheme for location '" + uri + "'.");
@@ -293,6 +365,100 @@ public class FileSystemModule extends ExportedModule {
     }
   }
 
+  @ExpoMethod
+  public void openFileHandleAsync(String uriStr, Map<String, Object> options, Promise promise) {
+    try {
+      Uri uri = Uri.parse(uriStr);
+      boolean writable = options.containsKey("write") && (Boolean) options.get("write");
+      ensurePermission(uri, writable ? Permission.WRITE : Permission.READ);
+      if (!"file".equals(uri.getScheme())) {
+        throw new IOException("Unsupported scheme for location '" + uri + "'.");
+      }
+
+      FileHandle handle = new FileHandle(uriToFile(uri), writable);
+      long size;
+      try {
+        size = handle.size();
+      } catch (IOException e) {
+        handle.close();
+        throw e;
+      }
+      int id = mNextFileHandleId.incrementAndGet();
+      synchronized (mFileHandles) {
+        mFileHandles.put(id, handle);
+      }
+
+      Bundle result = new Bundle();
+      result.putInt("id", id);
+      result.putDouble("size", size);
+      promise.resolve(result);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  @ExpoMethod
+  public void readFileHandleAsync(int id, Map<String, Object> options, Promise promise) {
+    try {
+      FileHandle handle = getFileHandle(id);
+      int length = options.containsKey("length") ? ((Number) options.get("length")).intValue() : FileHandle.MAX_CHUNK_SIZE;
+      long position = options.containsKey("position") ? ((Number) options.get("position")).longValue() : -1;
+      boolean isBase64 = "base64".equals(options.get("encoding"));
+
+      FileHandle.ReadResult readResult = handle.read(length, position, isBase64);
+      Bundle result = new Bundle();
+      result.putString("data", readResult.data);
+      result.putInt("bytesRead", readResult.bytesRead);
+      result.putBoolean("isEndOfFile", readResult.isEndOfFile);
+      promise.resolve(result);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  @ExpoMethod
+  public void writeFileHandleAsync(int id, String data, Map<String, Object> options, Promise promise) {
+    try {
+      FileHandle handle = getFileHandle(id);
+      long position = options.containsKey("position") ? ((Number) options.get("position")).longValue() : -1;
+      boolean isBase64 = "base64".equals(options.get("encoding"));
+      promise.resolve(handle.write(data, position, isBase64));
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  @ExpoMethod
+  public void closeFileHandleAsync(int id, Promise promise) {
+    try {
+      FileHandle handle;
+      synchronized (mFileHandles) {
+        handle = mFileHandles.remove(id);
+      }
+      if (handle != null) {
+        handle.close();
+      }
+      promise.resolve(null);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  private FileHandle getFileHandle(int id) throws IOException {
+    FileHandle handle;
+    synchronized (mFileHandles) {
+      handle = mFileHandles.get(id);
+    }
+    if (handle == null) {
+      throw new IOException("File handle " + id + " doesn't exist or has been closed.");
+    }
+    return handle;
+  }
+
   @ExpoMethod
   public void deleteAsync(String uriStr, Map<String, Object> options, Promise promise) {
     try {
@@ -559,70 +725,11 @@ public class FileSystemModule extends ExportedModule {
         throw new IOException("Unsupported scheme for location '" + fileUri + "'.");
       }
 
-      final boolean isResume = resumeData != null;
-
-      final ProgressListener progressListener = new ProgressListener() {
-        long mLastUpdate = -1;
-
-        @Override
-        public void update(long bytesRead, long contentLength, boolean done) {
-          EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
-          if (eventEmitter != null) {
-            Bundle downloadProgress = new Bundle();
-            Bundle downloadProgressData = new Bundle();
-            long totalBytesWritten = isResume ? bytesRead + Long.parseLong(resumeData) : bytesRead;
-            long totalBytesExpectedToWrite = isResume ? contentLength + Long.parseLong(resumeData) : contentLength;
-            long currentTime = System.currentTimeMillis();
-
-            // Throttle events. Sending too many events will block the JS event loop.
-            // Make sure to send the last event when we're at 100%.
-            if (currentTime > mLastUpdate + MIN_EVENT_DT_MS || totalBytesWritten == totalBytesExpectedToWrite) {
-              mLastUpdate = currentTime;
-              downloadProgressData.putDouble("totalBytesWritten", totalBytesWritten);
-              downloadProgressData.putDouble("totalBytesExpectedToWrite", totalBytesExpectedToWrite);
-              downloadProgress.putString("uuid", uuid);
-              downloadProgress.putBundle("data", downloadProgressData);
-
-              eventEmitter.emit(EXDownloadProgressEventName, downloadProgress);
-            }
-          }
-        }
-      };
-
-      OkHttpClient client =
-          getOkHttpClient().newBuilder()
-              .addNetworkInterceptor(new Interceptor() {
-                @Override
-                public Response intercept(Chain chain) throws IOException {
-                  Response originalResponse = chain.proceed(chain.request());
-                  return originalResponse.newBuilder()
-                      .body(new ProgressResponseBody(originalResponse.body(), progressListener))
-                      .build();
-                }
-              })
-              .build();
-
-      Request.Builder requestBuilder = new Request.Builder();
-      if (isResume) {
-        requestBuilder.addHeader("Range", "bytes=" + resumeData + "-");
-      }
-
-      if (options != null && options.containsKey(HEADER_KEY)) {
-        final Map<String, Object> headers = (Map<String, Object>) options.get(HEADER_KEY);
-        for (String key : headers.keySet()) {
-          requestBuilder.addHeader(key, headers.get(key).toString());
-        }
+      int priority = 0;
+      if (options != null && options.get("priority") instanceof Number) {
+        priority = ((Number) options.get("priority")).intValue();
       }
-
-      Request request = requestBuilder.url(url).build();
-      Call call = client.newCall(request);
-      DownloadResumable downloadResumable = new DownloadResumable(uuid, url, fileUri, call);
-      this.mDownloadResumableMap.put(uuid, downloadResumable);
-
-      File file = uriToFile(fileUri);
-      DownloadResumableTaskParams params = new DownloadResumableTaskParams(options, call, file, isResume, promise);
-      DownloadResumableTask task = new DownloadResumableTask();
-      task.execute(params);
+      getDownloadScheduler().enqueue(new DownloadResumableTask(uuid, priority, url, fileUri, options, resumeData, promise));
     } catch (Exception e) {
       Log.e(TAG, e.getMessage());
       promise.reject(e);
@@ -631,12 +738,10 @@ public class FileSystemModule extends ExportedModule {
 
   @ExpoMethod
   public void downloadResumablePauseAsync(final String uuid, final Promise promise) {
-    DownloadResumable downloadResumable = this.mDownloadResumableMap.get(uuid);
-    if (downloadResumable != null) {
-      downloadResumable.call.cancel();
-      this.mDownloadResumableMap.remove(downloadResumable.uuid);
+    DownloadScheduler.Task task = getDownloadScheduler().cancel(uuid);
+    if (task != null) {
       try {
-        File file = uriToFile(downloadResumable.fileUri);
+        File file = uriToFile(((DownloadResumableTask) task).fileUri);
         Bundle result = new Bundle();
         result.putString("resumeData", String.valueOf(file.length()));
         promise.resolve(result);
@@ -651,6 +756,28 @@ public class FileSystemModule extends ExportedModule {
     }
   }
 
+  // Downloads that were started with `downloadResumableStartAsync` but haven't finished, including
+  // ones from before the app was last killed. Starting one of them again resumes it.
+  @ExpoMethod
+  public void getPendingDownloadsAsync(final Promise promise) {
+    try {
+      List<Bundle> downloads = new ArrayList<>();
+      for (JSONObject entry : getDownloadJournal().getAll()) {
+        String fileUri = entry.getString(DownloadJournal.KEY_FILE_URI);
+        Bundle download = new Bundle();
+        download.putString("url", entry.getString(DownloadJournal.KEY_URL));
+        download.putString("fileUri", fileUri);
+        download.putBundle("options", jsonToBundle(entry.optJSONObject(DownloadJournal.KEY_OPTIONS)));
+        download.putString("resumeData", String.valueOf(uriToFile(Uri.parse(fileUri)).length()));
+        downloads.add(download);
+      }
+      promise.resolve(downloads);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
   private static byte[] getInputStreamBytes(InputStream inputStream) throws IOException {
     byte[] bytesResult;
     ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
@@ -671,67 +798,175 @@ public class FileSystemModule extends ExportedModule {
     return bytesResult;
   }
 
-  private static class DownloadResumableTaskParams {
-    Map<String, Object> options;
-    Call call;
-    File file;
-    boolean isResume;
-    Promise promise;
+  private class DownloadResumableTask extends DownloadScheduler.Task {
+    final Uri fileUri;
+    private final String mUrl;
+    private final Map<String, Object> mOptions;
+    private final String mResumeData;
+    private final Promise mPromise;
+    private Call mCall;
 
-    DownloadResumableTaskParams(Map<String, Object> options, Call call, File file, boolean isResume, Promise promise) {
-      this.options = options;
-      this.call = call;
-      this.file = file;
-      this.isResume = isResume;
-      this.promise = promise;
+    DownloadResumableTask(String uuid, int priority, String url, Uri fileUri, Map<String, Object> options, String resumeData, Promise promise) {
+      super(uuid, priority);
+      this.fileUri = fileUri;
+      mUrl = url;
+      mOptions = options;
+      mResumeData = resumeData;
+      mPromise = promise;
     }
-  }
 
-  private class DownloadResumableTask extends AsyncTask<DownloadResumableTaskParams, Void, Void> {
     @Override
-    protected Void doInBackground(DownloadResumableTaskParams... params) {
-      Call call = params[0].call;
-      Promise promise = params[0].promise;
-      File file = params[0].file;
-      boolean isResume = params[0].isResume;
-      Map<String, Object> options = params[0].options;
+    void onCancelled(boolean wasQueued) {
+      Call call;
+      synchronized (this) {
+        call = mCall;
+      }
+      if (call != null) {
+        call.cancel();
+      }
+      if (wasQueued) {
+        mPromise.reject(new IOException("Canceled"));
+      }
+    }
 
+    @Override
+    public void run() {
+      DownloadScheduler scheduler = getDownloadScheduler();
+      DownloadJournal journal = getDownloadJournal();
+      File file = uriToFile(fileUri);
+      String fileUriStr = fileUri.toString();
+      byte[] buffer = scheduler.acquireBuffer();
+      Response response = null;
       try {
-        Response response = call.execute();
-        ResponseBody responseBody = response.body();
-        BufferedInputStream input = new BufferedInputStream(responseBody.byteStream());
-        OutputStream output;
+        Request.Builder requestBuilder = new Request.Builder().url(mUrl);
+        if (mOptions != null && mOptions.containsKey(HEADER_KEY)) {
+          final Map<String, Object> headers = (Map<String, Object>) mOptions.get(HEADER_KEY);
+          for (String key : headers.keySet()) {
+            requestBuilder.addHeader(key, headers.get(key).toString());
+          }
+        }
 
-        if (isResume) {
-          output = new FileOutputStream(file, true);
-        } else {
-          output = new FileOutputStream(file, false);
+        // Without resume data from JS, pick up where an earlier download of the same URL to the
+        // same file stopped, which may have been before the app was killed.
+        long offset = 0;
+        String validator = null;
+        JSONObject entry = journal.get(fileUriStr);
+        boolean hasJournalEntry = entry != null && mUrl.equals(entry.optString(DownloadJournal.KEY_URL)) && file.exists();
+        if (hasJournalEntry) {
+          validator = entry.optString(DownloadJournal.KEY_VALIDATOR, null);
+        }
+        if (mResumeData != null) {
+          offset = Long.parseLong(mResumeData);
+        } else if (hasJournalEntry) {
+          offset = file.length();
+        }
+        if (offset > 0) {
+          requestBuilder.addHeader("Range", "bytes=" + offset + "-");
+          if (validator != null) {
+            // The server sends the whole file instead if it has changed since.
+            requestBuilder.addHeader("If-Range", validator);
+          }
+        }
+
+        Call call = getOkHttpClient().newCall(requestBuilder.build());
+        synchronized (this) {
+          mCall = call;
+        }
+        if (isCancelled()) {
+          throw new IOException("Canceled");
+        }
+        response = call.execute();
+
+        if (offset > 0 && response.code() == 416) {
+          // The range starts at the end of the file, so the previous attempt already got all of it.
+          long remoteLength = getRangeNotSatisfiableLength(response);
+          if (remoteLength < 0 || remoteLength != file.length()) {
+            throw new IOException("Couldn't resume the download of " + mUrl + ": the local file doesn't match the remote one.");
+          }
+          Bundle result = new Bundle();
+          result.putString("uri", Uri.fromFile(file).toString());
+          if (mOptions != null && mOptions.containsKey("md5") && (Boolean) mOptions.get("md5")) {
+            result.putString("md5", md5(file));
+          }
+          // Reported like a download that got the whole file in one go.
+          result.putInt("status", 200);
+          result.putBundle("headers", translateHeaders(response.headers()));
+
+          journal.remove(fileUriStr);
+          scheduler.finish(this);
+          mPromise.resolve(result);
+          return;
+        }
+        if (offset > 0 && !response.isSuccessful()) {
+          // Leave the bytes downloaded so far alone so the download can still be resumed later.
+          throw new IOException("Couldn't resume the download of " + mUrl + ", the server responded with status " + response.code() + ".");
+        }
+
+        boolean isPartial = response.code() == 206;
+        if (!isPartial) {
+          offset = 0;
+        }
+        if (response.isSuccessful()) {
+          String responseValidator = response.header("ETag");
+          if (responseValidator == null) {
+            responseValidator = response.header("Last-Modified");
+          }
+          journal.put(mUrl, fileUriStr, mOptions != null ? new JSONObject(mOptions) : new JSONObject(), isPartial && responseValidator == null ? validator : responseValidator);
         }
 
-        byte[] data = new byte[1024];
-        int count = 0;
-        while ((count = input.read(data)) != -1) {
-          output.write(data, 0, count);
+        ResponseBody responseBody = response.body();
+        long totalBytesExpectedToWrite = offset + responseBody.contentLength();
+        long totalBytesWritten = offset;
+        InputStream input = responseBody.byteStream();
+        OutputStream output = new FileOutputStream(file, isPartial);
+        try {
+          int count;
+          while ((count = input.read(buffer)) != -1) {
+            output.write(buffer, 0, count);
+            totalBytesWritten += count;
+            updateProgress(totalBytesWritten, totalBytesExpectedToWrite);
+          }
+        } finally {
+          output.close();
         }
 
         Bundle result = new Bundle();
         result.putString("uri", Uri.fromFile(file).toString());
-        if (options != null && options.containsKey("md5") && (Boolean) options.get("md5")) {
+        if (mOptions != null && mOptions.containsKey("md5") && (Boolean) mOptions.get("md5")) {
           result.putString("md5", md5(file));
         }
         result.putInt("status", response.code());
         result.putBundle("headers", translateHeaders(response.headers()));
 
-        promise.resolve(result);
-        return null;
+        journal.remove(fileUriStr);
+        scheduler.finish(this);
+        mPromise.resolve(result);
       } catch (Exception e) {
         Log.e(TAG, e.getMessage());
-        promise.reject(e);
-        return null;
+        scheduler.finish(this);
+        mPromise.reject(e);
+      } finally {
+        if (response != null) {
+          response.close();
+        }
+        scheduler.releaseBuffer(buffer);
       }
     }
   }
 
+  // Length of the remote file from the `Content-Range: bytes */<length>` header of a 416 response.
+  private static long getRangeNotSatisfiableLength(Response response) {
+    String contentRange = response.header("Content-Range");
+    if (contentRange == null || !contentRange.startsWith("bytes */")) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(contentRange.substring("bytes */".length()).trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
   // Copied out of React Native's `NetworkingModule.java`
   private static Bundle translateHeaders(Headers headers) {
     Bundle responseHeaders = new Bundle();
@@ -749,68 +984,50 @@ public class FileSystemModule extends ExportedModule {
     return responseHeaders;
   }
 
-  private static class DownloadResumable {
-    public final String uuid;
-    public final String url;
-    public final Uri fileUri;
-    public final Call call;
-
-    public DownloadResumable(String uuid, String url, Uri fileUri, Call call) {
-      this.uuid = uuid;
-      this.url = url;
-      this.fileUri = fileUri;
-      this.call = call;
+  private static Bundle jsonToBundle(JSONObject json) throws JSONException {
+    Bundle bundle = new Bundle();
+    if (json == null) {
+      return bundle;
     }
-  }
-
-  // https://github.com/square/okhttp/blob/master/samples/guide/src/main/java/okhttp3/recipes/Progress.java
-  private static class ProgressResponseBody extends ResponseBody {
-
-    private final ResponseBody responseBody;
-    private final ProgressListener progressListener;
-    private BufferedSource bufferedSource;
-
-    ProgressResponseBody(ResponseBody responseBody, ProgressListener progressListener) {
-      this.responseBody = responseBody;
-      this.progressListener = progressListener;
-    }
-
-    @Override
-    public MediaType contentType() {
-      return responseBody.contentType();
-    }
-
-    @Override
-    public long contentLength() {
-      return responseBody.contentLength();
-    }
-
-    @Override
-    public BufferedSource source() {
-      if (bufferedSource == null) {
-        bufferedSource = Okio.buffer(source(responseBody.source()));
+    Iterator<String> keys = json.keys();
+    while (keys.hasNext()) {
+      String key = keys.next();
+      Object value = json.get(key);
+      if (value instanceof JSONObject) {
+        bundle.putBundle(key, jsonToBundle((JSONObject) value));
+      } else if (value instanceof Boolean) {
+        bundle.putBoolean(key, (Boolean) value);
+      } else if (value instanceof Number) {
+        bundle.putDouble(key, ((Number) value).doubleValue());
+      } else if (value != JSONObject.NULL) {
+        bundle.putString(key, value.toString());
       }
-      return bufferedSource;
     }
+    return bundle;
+  }
 
-    private Source source(Source source) {
-      return new ForwardingSource(source) {
-        long totalBytesRead = 0L;
-
+  private synchronized DownloadScheduler getDownloadScheduler() {
+    if (mDownloadScheduler == null) {
+      mDownloadScheduler = new DownloadScheduler(MIN_EVENT_DT_MS, new DownloadScheduler.ProgressEmitter() {
         @Override
-        public long read(Buffer sink, long byteCount) throws IOException {
-          long bytesRead = super.read(sink, byteCount);
-          // read() returns the number of bytes read, or -1 if this source is exhausted.
-          totalBytesRead += bytesRead != -1 ? bytesRead : 0;
-          progressListener.update(totalBytesRead, responseBody.contentLength(), bytesRead == -1);
-          return bytesRead;
+        public void emit(ArrayList<Bundle> events) {
+          EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
+          if (eventEmitter != null) {
+            Bundle downloadProgressBatch = new Bundle();
+            downloadProgressBatch.putParcelableArrayList("events", events);
+            eventEmitter.emit(EXDownloadProgressBatchEventName, downloadProgressBatch);
+          }
         }
-      };
+      });
     }
+    return mDownloadScheduler;
   }
 
-  interface ProgressListener {
-    void update(long bytesRead, long contentLength, boolean done);
+  private synchronized DownloadJournal getDownloadJournal() {
+    if (mDownloadJournal == null) {
+      mDownloadJournal = new DownloadJournal(new File(getContext().getCacheDir(), DOWNLOAD_JOURNAL_FILE_NAME));
+    }
+    return mDownloadJournal;
   }
 
   private synchronized OkHttpClient getOkHttpClient() {
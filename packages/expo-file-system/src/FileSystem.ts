@@ -14,6 +14,10 @@ import {
   EncodingType,
   ReadingOptions,
   WritingOptions,
+  FileHandle,
+  FileHandleReadingOptions,
+  FileHandleReadResult,
+  FileHandleWritingOptions,
   ProgressEvent,
 } from './FileSystem.types';
 
@@ -35,6 +39,10 @@ export {
   EncodingType,
   ReadingOptions,
   WritingOptions,
+  FileHandle,
+  FileHandleReadingOptions,
+  FileHandleReadResult,
+  FileHandleWritingOptions,
   ProgressEvent,
 };
 
@@ -94,6 +102,44 @@ export async function writeAsStringAsync(
   return await ExponentFileSystem.writeAsStringAsync(fileUri, contents, options);
 }
 
+export async function openFileHandleAsync(
+  fileUri: string,
+  options: { write?: boolean } = {}
+): Promise<FileHandle> {
+  if (!ExponentFileSystem.openFileHandleAsync) {
+    throw new UnavailabilityError('expo-file-system', 'openFileHandleAsync');
+  }
+  return await ExponentFileSystem.openFileHandleAsync(fileUri, options);
+}
+
+export async function readFileHandleAsync(
+  handle: FileHandle,
+  options: FileHandleReadingOptions = {}
+): Promise<FileHandleReadResult> {
+  if (!ExponentFileSystem.readFileHandleAsync) {
+    throw new UnavailabilityError('expo-file-system', 'readFileHandleAsync');
+  }
+  return await ExponentFileSystem.readFileHandleAsync(handle.id, options);
+}
+
+export async function writeFileHandleAsync(
+  handle: FileHandle,
+  contents: string,
+  options: FileHandleWritingOptions = {}
+): Promise<number> {
+  if (!ExponentFileSystem.writeFileHandleAsync) {
+    throw new UnavailabilityError('expo-file-system', 'writeFileHandleAsync');
+  }
+  return await ExponentFileSystem.writeFileHandleAsync(handle.id, contents, options);
+}
+
+export async function closeFileHandleAsync(handle: FileHandle): Promise<void> {
+  if (!ExponentFileSystem.closeFileHandleAsync) {
+    throw new UnavailabilityError('expo-file-system', 'closeFileHandleAsync');
+  }
+  return await ExponentFileSystem.closeFileHandleAsync(handle.id);
+}
+
 export async function deleteAsync(
   fileUri: string,
   options: { idempotent?: boolean } = {}
@@ -146,6 +192,57 @@ export async function downloadAsync(
   return await ExponentFileSystem.downloadAsync(uri, fileUri, options);
 }
 
+// All downloads share one subscription per event and look up their listener by uuid, so each
+// progress event isn't delivered to every download in flight.
+const downloadProgressListeners: { [uuid: string]: (data: DownloadProgressData) => void } = {};
+let downloadProgressListenerCount = 0;
+let downloadProgressSubscriptions: Subscription[] | null = null;
+
+function dispatchDownloadProgress(event: ProgressEvent): void {
+  const listener = downloadProgressListeners[event.uuid];
+  if (listener) {
+    listener(event.data);
+  }
+}
+
+function addDownloadProgressListener(
+  emitter: EventEmitter,
+  uuid: string,
+  listener: (data: DownloadProgressData) => void
+): Subscription {
+  downloadProgressListeners[uuid] = listener;
+  downloadProgressListenerCount++;
+  if (!downloadProgressSubscriptions) {
+    downloadProgressSubscriptions = [
+      emitter.addListener<ProgressEvent>('Exponent.downloadProgress', dispatchDownloadProgress),
+      // Android sends the progress of all running downloads together.
+      emitter.addListener<{ events: ProgressEvent[] }>('Exponent.downloadProgressBatch', batch =>
+        batch.events.forEach(dispatchDownloadProgress)
+      ),
+    ];
+  }
+  return {
+    remove: () => {
+      if (downloadProgressListeners[uuid] !== listener) {
+        return;
+      }
+      delete downloadProgressListeners[uuid];
+      downloadProgressListenerCount--;
+      if (downloadProgressListenerCount === 0 && downloadProgressSubscriptions) {
+        downloadProgressSubscriptions.forEach(subscription => subscription.remove());
+        downloadProgressSubscriptions = null;
+      }
+    },
+  };
+}
+
+export async function getPendingDownloadsAsync(): Promise<DownloadPauseState[]> {
+  if (!ExponentFileSystem.getPendingDownloadsAsync) {
+    throw new UnavailabilityError('expo-file-system', 'getPendingDownloadsAsync');
+  }
+  return await ExponentFileSystem.getPendingDownloadsAsync();
+}
+
 export function createDownloadResumable(
   uri: string,
   fileUri: string,
@@ -238,24 +335,19 @@ export class DownloadResumable {
     if (this._subscription) {
       return;
     }
-    this._subscription = this._emitter.addListener(
-      'Exponent.downloadProgress',
-      (event: ProgressEvent) => {
-        if (event.uuid === this._uuid) {
-          const callback = this._callback;
-          if (callback) {
-            callback(event.data);
-          }
-        }
+    this._subscription = addDownloadProgressListener(this._emitter, this._uuid, data => {
+      const callback = this._callback;
+      if (callback) {
+        callback(data);
       }
-    );
+    });
   }
 
   _removeSubscription(): void {
     if (!this._subscription) {
       return;
     }
-    this._emitter.removeSubscription(this._subscription);
+    this._subscription.remove();
     this._subscription = null;
   }
 }
@@ -2,6 +2,8 @@ export type DownloadOptions = {
   md5?: boolean;
   cache?: boolean;
   headers?: { [name: string]: string };
+  // Android only: queued downloads with a higher priority start first.
+  priority?: number;
 };
 
 export type DownloadResult = {
@@ -56,6 +58,32 @@ export type ReadingOptions = {
 
 export type WritingOptions = {
   encoding?: EncodingType | 'utf8' | 'base64';
+  // Android only: add the contents to the end of the file instead of replacing it.
+  append?: boolean;
+  // Android only: overwrite the file in place starting at this byte offset.
+  position?: number;
+};
+
+export type FileHandle = {
+  id: number;
+  size: number;
+};
+
+export type FileHandleReadingOptions = {
+  encoding?: EncodingType | 'utf8' | 'base64';
+  length?: number;
+  position?: number;
+};
+
+export type FileHandleReadResult = {
+  data: string;
+  bytesRead: number;
+  isEndOfFile: boolean;
+};
+
+export type FileHandleWritingOptions = {
+  encoding?: EncodingType | 'utf8' | 'base64';
+  position?: number;
 };
 
 export type ProgressEvent = {
@@ -86,6 +114,11 @@ export interface ExponentFileSystemModule {
   readonly downloadResumableStartAsync?: PlatformMethod;
   readonly downloadResumablePauseAsync?: PlatformMethod;
   readonly getContentUriAsync?: PlatformMethod;
+  readonly getPendingDownloadsAsync?: PlatformMethod;
+  readonly openFileHandleAsync?: PlatformMethod;
+  readonly readFileHandleAsync?: PlatformMethod;
+  readonly writeFileHandleAsync?: PlatformMethod;
+  readonly closeFileHandleAsync?: PlatformMethod;
 
   startObserving?: () => void;
   stopObserving?: () => void;
@@ -1,7 +1,14 @@
 package expo.modules.imagemanipulator;
 
+import android.util.Base64;
+import android.util.Base64OutputStream;
+
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.UUID;
 
 class FileUtils {
@@ -18,4 +25,22 @@ class FileUtils {
     String filename = UUID.randomUUID().toString();
     return directory + File.separator + filename + extension;
   }
+
+  public static String readFileAsBase64(File file) throws IOException {
+    // Base64 output is 4/3 of the input, plus line breaks
+    ByteArrayOutputStream byteOut = new ByteArrayOutputStream((int) (file.length() * 4 / 3 + file.length() / 57 + 4));
+    InputStream in = new FileInputStream(file);
+    try {
+      OutputStream base64Out = new Base64OutputStream(byteOut, Base64.DEFAULT);
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        base64Out.write(buffer, 0, read);
+      }
+      base64Out.close();
+    } finally {
+      in.close();
+    }
+    return byteOut.toString("US-ASCII");
+  }
 }
@@ -1,18 +1,24 @@
 package expo.modules.imagemanipulator;
 
+import android.content.ContentResolver;
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.Matrix;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.media.ExifInterface;
 import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.util.Base64;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 
 import org.unimodules.core.ExportedModule;
@@ -23,9 +29,6 @@ import org.unimodules.core.interfaces.ExpoMethod;
 import org.unimodules.interfaces.imageloader.ImageLoader;
 
 import expo.modules.imagemanipulator.arguments.Action;
-import expo.modules.imagemanipulator.arguments.ActionCrop;
-import expo.modules.imagemanipulator.arguments.ActionFlip;
-import expo.modules.imagemanipulator.arguments.ActionResize;
 import expo.modules.imagemanipulator.arguments.SaveOptions;
 
 public class ImageManipulatorModule extends ExportedModule {
@@ -66,6 +69,24 @@ public class ImageManipulatorModule extends ExportedModule {
       return;
     }
 
+    Uri parsedUri = Uri.parse(uri);
+    if (isLocalUri(parsedUri)) {
+      Bitmap result;
+      try {
+        result = decodeWithActions(parsedUri, manipulatorActions);
+      } catch (IllegalArgumentException e) {
+        promise.reject(ERROR_TAG + "_CROP_DATA", e);
+        return;
+      } catch (IOException e) {
+        // Formats BitmapRegionDecoder doesn't support are left to the image loader
+        result = null;
+      }
+      if (result != null) {
+        saveBitmap(result, manipulatorSaveOptions, promise);
+        return;
+      }
+    }
+
     mImageLoader.loadImageForManipulationFromURL(uri, new ImageLoader.ResultListener() {
           @Override
           public void onSuccess(@NonNull Bitmap bitmap) {
@@ -86,75 +107,99 @@ public class ImageManipulatorModule extends ExportedModule {
         });
   }
 
-  private Bitmap resizeBitmap(Bitmap bitmap, ActionResize resize) {
-    float imageRatio = (float) bitmap.getWidth() / bitmap.getHeight();
-    int requestedWidth = resize.getWidth() != 0
-        ? resize.getWidth()
-        : resize.getHeight() != 0
-          ? (int) (resize.getHeight() * imageRatio)
-          : 0;
-    int requestedHeight = resize.getHeight() != 0
-        ? resize.getHeight()
-        : resize.getWidth() != 0
-          ? (int) (resize.getWidth() / imageRatio)
-          : 0;
-    return Bitmap.createScaledBitmap(bitmap, requestedWidth, requestedHeight, true);
+  private static boolean isLocalUri(Uri uri) {
+    return ContentResolver.SCHEME_FILE.equals(uri.getScheme())
+        || ContentResolver.SCHEME_CONTENT.equals(uri.getScheme());
   }
 
-  private Bitmap rotateBitmap(Bitmap bitmap, Integer rotation) {
-    Matrix rotationMatrix = new Matrix();
-    rotationMatrix.postRotate(rotation);
-    return Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), rotationMatrix, true);
+  /**
+   * Decodes only the region of the image the actions keep, at the lowest resolution that doesn't
+   * degrade the result, and applies all the actions at once.
+   */
+  private Bitmap decodeWithActions(Uri uri, ArrayList<Action> actions) throws IOException, IllegalArgumentException {
+    int exifOrientation = readExifOrientation(uri);
+
+    BitmapRegionDecoder decoder;
+    InputStream inputStream = openInputStream(uri);
+    try {
+      decoder = BitmapRegionDecoder.newInstance(inputStream, false);
+    } finally {
+      inputStream.close();
+    }
+
+    try {
+      ImageTransformation transformation = ImageTransformation.compile(decoder.getWidth(), decoder.getHeight(), exifOrientation, actions);
+      Rect sourceRegion = transformation.getSourceRegion();
+      BitmapFactory.Options options = new BitmapFactory.Options();
+      options.inSampleSize = transformation.getSampleSize();
+      options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+      Bitmap source = decoder.decodeRegion(sourceRegion, options);
+      if (source == null) {
+        throw new IOException("Could not decode " + uri);
+      }
+      Bitmap result = transformation.apply(source, sourceRegion);
+      if (result != source) {
+        source.recycle();
+      }
+      return result;
+    } finally {
+      decoder.recycle();
+    }
   }
 
-  private Bitmap flipBitmap(Bitmap bmp, ActionFlip flip) {
-    return Bitmap.createBitmap(bmp, 0, 0, bmp.getWidth(), bmp.getHeight(), flip.getRotationMatrix(), true);
+  private int readExifOrientation(Uri uri) throws IOException {
+    ExifInterface exifInterface;
+    if (ContentResolver.SCHEME_FILE.equals(uri.getScheme())) {
+      exifInterface = new ExifInterface(uri.getPath());
+    } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+      InputStream inputStream = openInputStream(uri);
+      try {
+        exifInterface = new ExifInterface(inputStream);
+      } finally {
+        inputStream.close();
+      }
+    } else {
+      throw new IOException("Cannot read the orientation of " + uri);
+    }
+    return exifInterface.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
   }
 
-  private Bitmap cropBitmap(Bitmap bitmap, ActionCrop crop) throws IllegalArgumentException {
-    if (crop.getOriginX() > bitmap.getWidth()
-        || crop.getOriginX() > bitmap.getHeight()
-        || crop.getOriginX() + crop.getWidth() > bitmap.getWidth()
-        || crop.getOriginY() + crop.getHeight() > bitmap.getHeight()
-    ) {
-      throw new IllegalArgumentException("Invalid crop options has been passed. Please make sure the requested crop rectangle is inside source image.");
+  private InputStream openInputStream(Uri uri) throws IOException {
+    InputStream inputStream = getContext().getContentResolver().openInputStream(uri);
+    if (inputStream == null) {
+      throw new IOException("Could not open " + uri);
     }
-    return Bitmap.createBitmap(bitmap, crop.getOriginX(), crop.getOriginY(), crop.getWidth(), crop.getHeight());
+    return inputStream;
   }
 
   private void processBitmapWithActions(Bitmap bitmap, final ArrayList<Action> actions, final SaveOptions saveOptions, Promise promise) {
-    for (Action action : actions) {
-      if (action.getResize() != null) {
-        bitmap = resizeBitmap(bitmap, action.getResize());
-      } else if (action.getRotate() != null) {
-        bitmap = rotateBitmap(bitmap, action.getRotate());
-      } else if (action.getFlip() != null) {
-        bitmap = flipBitmap(bitmap, action.getFlip());
-      } else if (action.getCrop() != null) {
-        try {
-          bitmap = cropBitmap(bitmap, action.getCrop());
-        } catch (IllegalArgumentException e) {
-          promise.reject(ERROR_TAG + "_CROP_DATA", e);
-          return;
-        }
-      }
+    // The image loader has already applied the EXIF orientation
+    try {
+      ImageTransformation transformation = ImageTransformation.compile(bitmap.getWidth(), bitmap.getHeight(), ExifInterface.ORIENTATION_NORMAL, actions);
+      bitmap = transformation.apply(bitmap, new Rect(0, 0, bitmap.getWidth(), bitmap.getHeight()));
+    } catch (IllegalArgumentException e) {
+      promise.reject(ERROR_TAG + "_CROP_DATA", e);
+      return;
     }
+    saveBitmap(bitmap, saveOptions, promise);
+  }
 
+  private void saveBitmap(Bitmap bitmap, final SaveOptions saveOptions, Promise promise) {
     int compression = (int) (saveOptions.getCompress() * 100);
 
-    FileOutputStream out = null;
-    ByteArrayOutputStream byteOut = null;
+    OutputStream out = null;
     String path = null;
     String base64String = null;
     try {
       path = FileUtils.generateOutputPath(getContext().getCacheDir(), "ImageManipulator", saveOptions.getFormat().getFileExtension());
-      out = new FileOutputStream(path);
+      out = new BufferedOutputStream(new FileOutputStream(path));
       bitmap.compress(saveOptions.getFormat().getCompressFormat(), compression, out);
+      out.close();
+      out = null;
 
       if (saveOptions.hasBase64()) {
-        byteOut = new ByteArrayOutputStream();
-        bitmap.compress(saveOptions.getFormat().getCompressFormat(), compression, byteOut);
-        base64String = Base64.encodeToString(byteOut.toByteArray(), Base64.DEFAULT);
+        // Encode what was written instead of compressing the bitmap a second time
+        base64String = FileUtils.readFileAsBase64(new File(path));
       }
     } catch (Exception e) {
       e.printStackTrace();
@@ -163,9 +208,6 @@ public class ImageManipulatorModule extends ExportedModule {
         if (out != null) {
           out.close();
         }
-        if (byteOut != null) {
-          byteOut.close();
-        }
       } catch (IOException e) {
         e.printStackTrace();
       }
@@ -0,0 +1,202 @@
+package expo.modules.imagemanipulator;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.media.ExifInterface;
+
+import java.util.List;
+
+import expo.modules.imagemanipulator.arguments.Action;
+import expo.modules.imagemanipulator.arguments.ActionCrop;
+import expo.modules.imagemanipulator.arguments.ActionResize;
+
+/**
+ * Manipulation actions compiled into a single transformation: a matrix mapping the source image
+ * onto the result and the size of the result. This lets the source be decoded once, limited to the
+ * region and the resolution the result needs, and drawn once instead of creating a bitmap per action.
+ */
+class ImageTransformation {
+  private final int mSourceWidth;
+  private final int mSourceHeight;
+  private final Matrix mMatrix = new Matrix();
+  private int mWidth;
+  private int mHeight;
+
+  private ImageTransformation(int sourceWidth, int sourceHeight) {
+    mSourceWidth = sourceWidth;
+    mSourceHeight = sourceHeight;
+    mWidth = sourceWidth;
+    mHeight = sourceHeight;
+  }
+
+  /**
+   * @param exifOrientation orientation of the source as stored in its EXIF data, applied before
+   *                        the actions just like image loaders do when decoding the image
+   */
+  static ImageTransformation compile(int sourceWidth, int sourceHeight, int exifOrientation, List<Action> actions) throws IllegalArgumentException {
+    ImageTransformation transformation = new ImageTransformation(sourceWidth, sourceHeight);
+    transformation.orient(exifOrientation);
+    for (Action action : actions) {
+      if (action.getResize() != null) {
+        transformation.resize(action.getResize());
+      } else if (action.getRotate() != null) {
+        transformation.rotate(action.getRotate());
+      } else if (action.getFlip() != null) {
+        transformation.transform(action.getFlip().getRotationMatrix());
+      } else if (action.getCrop() != null) {
+        transformation.crop(action.getCrop());
+      }
+    }
+    return transformation;
+  }
+
+  int getWidth() {
+    return mWidth;
+  }
+
+  int getHeight() {
+    return mHeight;
+  }
+
+  /**
+   * @return the region of the source image that ends up in the result
+   */
+  Rect getSourceRegion() {
+    Matrix inverse = new Matrix();
+    mMatrix.invert(inverse);
+    RectF region = new RectF(0, 0, mWidth, mHeight);
+    inverse.mapRect(region);
+    Rect sourceRegion = new Rect();
+    region.roundOut(sourceRegion);
+    if (!sourceRegion.intersect(0, 0, mSourceWidth, mSourceHeight)) {
+      sourceRegion.set(0, 0, mSourceWidth, mSourceHeight);
+    }
+    return sourceRegion;
+  }
+
+  /**
+   * @return the largest power of two the source can be subsampled by without losing resolution
+   * in the result
+   */
+  int getSampleSize() {
+    float[] unitVectors = {1, 0, 0, 1};
+    mMatrix.mapVectors(unitVectors);
+    double scale = Math.max(
+        Math.hypot(unitVectors[0], unitVectors[1]),
+        Math.hypot(unitVectors[2], unitVectors[3]));
+    int sampleSize = 1;
+    while (sampleSize * 2 * scale <= 1) {
+      sampleSize *= 2;
+    }
+    return sampleSize;
+  }
+
+  /**
+   * Draws the source into the result.
+   *
+   * @param source bitmap holding {@code sourceRegion} of the source image, possibly subsampled
+   */
+  Bitmap apply(Bitmap source, Rect sourceRegion) {
+    Matrix matrix = new Matrix();
+    matrix.setScale(
+        (float) sourceRegion.width() / source.getWidth(),
+        (float) sourceRegion.height() / source.getHeight());
+    matrix.postTranslate(sourceRegion.left, sourceRegion.top);
+    matrix.postConcat(mMatrix);
+    if (matrix.isIdentity() && source.getWidth() == mWidth && source.getHeight() == mHeight) {
+      return source;
+    }
+
+    Bitmap result = Bitmap.createBitmap(mWidth, mHeight, Bitmap.Config.ARGB_8888);
+    Canvas canvas = new Canvas(result);
+    canvas.drawBitmap(source, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+    return result;
+  }
+
+  private void orient(int exifOrientation) {
+    Matrix matrix = new Matrix();
+    switch (exifOrientation) {
+      case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+        matrix.setScale(-1, 1);
+        break;
+      case ExifInterface.ORIENTATION_ROTATE_180:
+        matrix.setRotate(180);
+        break;
+      case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+        matrix.setScale(1, -1);
+        break;
+      case ExifInterface.ORIENTATION_TRANSPOSE:
+        matrix.setRotate(90);
+        matrix.postScale(-1, 1);
+        break;
+      case ExifInterface.ORIENTATION_ROTATE_90:
+        matrix.setRotate(90);
+        break;
+      case ExifInterface.ORIENTATION_TRANSVERSE:
+        matrix.setRotate(270);
+        matrix.postScale(-1, 1);
+        break;
+      case ExifInterface.ORIENTATION_ROTATE_270:
+        matrix.setRotate(270);
+        break;
+      default:
+        return;
+    }
+    transform(matrix);
+  }
+
+  private void resize(ActionResize resize) {
+    float imageRatio = (float) mWidth / mHeight;
+    int requestedWidth = resize.getWidth() != 0
+        ? resize.getWidth()
+        : resize.getHeight() != 0
+          ? (int) (resize.getHeight() * imageRatio)
+          : 0;
+    int requestedHeight = resize.getHeight() != 0
+        ? resize.getHeight()
+        : resize.getWidth() != 0
+          ? (int) (resize.getWidth() / imageRatio)
+          : 0;
+    requestedWidth = Math.max(requestedWidth, 1);
+    requestedHeight = Math.max(requestedHeight, 1);
+    mMatrix.postScale((float) requestedWidth / mWidth, (float) requestedHeight / mHeight);
+    mWidth = requestedWidth;
+    mHeight = requestedHeight;
+  }
+
+  private void rotate(int rotation) {
+    Matrix rotationMatrix = new Matrix();
+    rotationMatrix.postRotate(rotation);
+    transform(rotationMatrix);
+  }
+
+  /**
+   * Applies the matrix the same way {@link Bitmap#createBitmap(Bitmap, int, int, int, int, Matrix, boolean)}
+   * does: the result is the bounding box of the transformed image.
+   */
+  private void transform(Matrix matrix) {
+    RectF bounds = new RectF(0, 0, mWidth, mHeight);
+    matrix.mapRect(bounds);
+    mMatrix.postConcat(matrix);
+    mMatrix.postTranslate(-bounds.left, -bounds.top);
+    mWidth = Math.round(bounds.width());
+    mHeight = Math.round(bounds.height());
+  }
+
+  private void crop(ActionCrop crop) throws IllegalArgumentException {
+    if (crop.getOriginX() > mWidth
+        || crop.getOriginX() > mHeight
+        || crop.getOriginX() + crop.getWidth() > mWidth
+        || crop.getOriginY() + crop.getHeight() > mHeight
+    ) {
+      throw new IllegalArgumentException("Invalid crop options has been passed. Please make sure the requested crop rectangle is inside source image.");
+    }
+    mMatrix.postTranslate(-crop.getOriginX(), -crop.getOriginY());
+    mWidth = crop.getWidth();
+    mHeight = crop.getHeight();
+  }
+}
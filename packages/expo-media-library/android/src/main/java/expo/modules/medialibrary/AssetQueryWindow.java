@@ -0,0 +1,274 @@
+package expo.modules.medialibrary;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Bundle;
+import android.provider.MediaStore;
+import android.text.TextUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static expo.modules.medialibrary.MediaLibraryConstants.ASSET_PROJECTION;
+import static expo.modules.medialibrary.MediaLibraryConstants.EXTERNAL_CONTENT;
+import static expo.modules.medialibrary.MediaLibraryUtils.putAssetsInfo;
+
+/**
+ * Serves consecutive pages of an assets query from a retained cursor spanning a few pages. Windows
+ * are queried with a keyset condition on the sort columns, so a page starting after an asset
+ * doesn't depend on its offset and doesn't make the media store go through the assets before it.
+ * Any change to the media store closes the retained cursor.
+ */
+class AssetQueryWindow {
+  private static final int PREFETCHED_PAGES = 4;
+  // Build.VERSION_CODES.R, from which the media store rejects a LIMIT clause in the sort order
+  private static final int SDK_WITHOUT_SORT_ORDER_LIMIT = 30;
+  private static final Uri[] OBSERVED_CONTENT = {
+      MediaStore.Images.Media.EXTERNAL_CONTENT_URI,
+      MediaStore.Video.Media.EXTERNAL_CONTENT_URI,
+      MediaStore.Audio.Media.EXTERNAL_CONTENT_URI,
+  };
+
+  private final Context mContext;
+  private final ContentObserver mObserver = new ContentObserver(null) {
+    @Override
+    public void onChange(boolean selfChange) {
+      invalidate();
+    }
+  };
+  private boolean mObserving = false;
+
+  private String mSelection;
+  private String mOrder;
+  private int mTotalCount = -1;
+  private Cursor mCursor;
+  // number of rows of the cursor that can be served, it holds one more if the query continues past it
+  private int mCursorSize;
+  private int mPosition;
+  private String mLastAssetId;
+  private String[] mLastSortValues;
+
+  AssetQueryWindow(Context context) {
+    mContext = context;
+  }
+
+  /**
+   * Puts the requested page of assets into the response.
+   *
+   * @return false if the media store query returned null
+   */
+  synchronized boolean getAssets(GetQueryInfo queryInfo, Bundle response) throws IOException {
+    startObserving();
+
+    final String selection = queryInfo.getSelection();
+    final String order = queryInfo.getOrder();
+    final String after = queryInfo.getAfter();
+    final int limit = queryInfo.getLimit();
+
+    if (!selection.equals(mSelection) || !order.equals(mOrder)) {
+      closeCursor();
+      mSelection = selection;
+      mOrder = order;
+      mTotalCount = -1;
+      mLastAssetId = null;
+      mLastSortValues = null;
+    }
+
+    final boolean continues = after != null && after.equals(mLastAssetId);
+    final boolean windowHasPage = mCursor != null
+        && (mPosition + limit <= mCursorSize || mCursor.getCount() <= mCursorSize);
+    if (!continues || !windowHasPage) {
+      String[] sortValues = null;
+      if (continues) {
+        sortValues = mLastSortValues;
+      } else if (after != null) {
+        sortValues = querySortValues(queryInfo, after);
+        if (sortValues == null) {
+          throw new IllegalArgumentException("Asset \"" + after + "\" passed as the cursor doesn't exist.");
+        }
+      }
+      if (!queryWindow(queryInfo, sortValues, Math.max(limit, 1) * PREFETCHED_PAGES)) {
+        return false;
+      }
+    }
+
+    if (mTotalCount < 0) {
+      mTotalCount = queryTotalCount(selection);
+    }
+
+    ArrayList<Bundle> assetsInfo = new ArrayList<>();
+    putAssetsInfo(mContext, mCursor, assetsInfo, Math.min(limit, mCursorSize - mPosition), mPosition, false);
+    if (!assetsInfo.isEmpty()) {
+      mPosition += assetsInfo.size();
+      mCursor.moveToPosition(mPosition - 1);
+      mLastAssetId = assetsInfo.get(assetsInfo.size() - 1).getString("id");
+      mLastSortValues = readSortValues(mCursor, queryInfo.getOrderColumns());
+    }
+
+    response.putParcelableArrayList("assets", assetsInfo);
+    response.putBoolean("hasNextPage", mPosition < mCursor.getCount());
+    response.putString("endCursor", assetsInfo.isEmpty() ? after : mLastAssetId);
+    response.putInt("totalCount", mTotalCount);
+    return true;
+  }
+
+  synchronized void release() {
+    if (mObserving) {
+      mContext.getContentResolver().unregisterContentObserver(mObserver);
+      mObserving = false;
+    }
+    closeCursor();
+    mSelection = null;
+    mOrder = null;
+  }
+
+  private synchronized void invalidate() {
+    // the last asset and its sort values stay valid to continue from, even if it was deleted
+    closeCursor();
+    mTotalCount = -1;
+  }
+
+  private void startObserving() {
+    if (mObserving) {
+      return;
+    }
+    ContentResolver contentResolver = mContext.getContentResolver();
+    for (Uri content : OBSERVED_CONTENT) {
+      contentResolver.registerContentObserver(content, true, mObserver);
+    }
+    mObserving = true;
+  }
+
+  private void closeCursor() {
+    if (mCursor != null) {
+      mCursor.close();
+      mCursor = null;
+    }
+  }
+
+  private boolean queryWindow(GetQueryInfo queryInfo, String[] sortValues, int size) {
+    closeCursor();
+    String selection = queryInfo.getSelection();
+    List<String> selectionArgs = new ArrayList<>();
+    if (sortValues != null) {
+      selection += " AND (" + getKeysetSelection(queryInfo.getOrderColumns(), queryInfo.getOrderAscending(),
+          sortValues, selectionArgs) + ")";
+    }
+
+    // one more row than can be served tells whether the query continues past the window
+    mCursor = query(
+        getProjection(queryInfo.getOrderColumns()),
+        selection,
+        selectionArgs.toArray(new String[selectionArgs.size()]),
+        queryInfo.getOrder(),
+        size + 1);
+    mCursorSize = size;
+    mPosition = 0;
+    return mCursor != null;
+  }
+
+  private int queryTotalCount(String selection) {
+    // the media store doesn't accept aggregates in the projection, so the rows are counted instead
+    try (Cursor countCursor = query(new String[]{MediaStore.Images.Media._ID}, selection, null, null, 0)) {
+      return countCursor != null ? countCursor.getCount() : 0;
+    }
+  }
+
+  /**
+   * Queries the external content, with query arguments where they are supported.
+   *
+   * @param limit maximum number of rows, or 0 for all of them
+   */
+  private Cursor query(String[] projection, String selection, String[] selectionArgs, String order, int limit) {
+    // the media store only honors the limit argument from Android 11, it is in the sort order before
+    String sortOrder = order;
+    if (limit > 0 && Build.VERSION.SDK_INT < SDK_WITHOUT_SORT_ORDER_LIMIT) {
+      sortOrder += " LIMIT " + limit;
+    }
+
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+      Bundle queryArgs = new Bundle();
+      queryArgs.putString(ContentResolver.QUERY_ARG_SQL_SELECTION, selection);
+      queryArgs.putStringArray(ContentResolver.QUERY_ARG_SQL_SELECTION_ARGS, selectionArgs);
+      queryArgs.putString(ContentResolver.QUERY_ARG_SQL_SORT_ORDER, sortOrder);
+      if (limit > 0) {
+        queryArgs.putInt(ContentResolver.QUERY_ARG_LIMIT, limit);
+      }
+      return mContext.getContentResolver().query(EXTERNAL_CONTENT, projection, queryArgs, null);
+    }
+    return mContext.getContentResolver().query(EXTERNAL_CONTENT, projection, selection, selectionArgs, sortOrder);
+  }
+
+  private String[] querySortValues(GetQueryInfo queryInfo, String assetId) {
+    List<String> orderColumns = queryInfo.getOrderColumns();
+    try (Cursor asset = mContext.getContentResolver().query(
+        EXTERNAL_CONTENT,
+        orderColumns.toArray(new String[orderColumns.size()]),
+        MediaStore.Images.Media._ID + "=?",
+        new String[]{assetId},
+        null)) {
+      if (asset == null || !asset.moveToFirst()) {
+        return null;
+      }
+      return readSortValues(asset, orderColumns);
+    }
+  }
+
+  private static String[] readSortValues(Cursor cursor, List<String> orderColumns) {
+    String[] sortValues = new String[orderColumns.size()];
+    for (int i = 0; i < sortValues.length; i++) {
+      sortValues[i] = cursor.getString(cursor.getColumnIndex(orderColumns.get(i)));
+    }
+    return sortValues;
+  }
+
+  private static String[] getProjection(List<String> orderColumns) {
+    Set<String> projection = new LinkedHashSet<>(Arrays.asList(ASSET_PROJECTION));
+    projection.addAll(orderColumns);
+    return projection.toArray(new String[projection.size()]);
+  }
+
+  /**
+   * Builds the condition matching the rows that come after the given values of the sort columns,
+   * keeping in mind that SQLite sorts nulls before any other value.
+   */
+  private static String getKeysetSelection(List<String> columns, List<Boolean> ascending, String[] values, List<String> selectionArgs) {
+    List<String> alternatives = new ArrayList<>();
+    StringBuilder equalPrefix = new StringBuilder();
+    List<String> equalArgs = new ArrayList<>();
+    for (int i = 0; i < columns.size(); i++) {
+      String column = columns.get(i);
+      String value = values[i];
+
+      String following;
+      if (value == null) {
+        following = ascending.get(i) ? column + " IS NOT NULL" : null;
+      } else {
+        following = ascending.get(i) ? column + " > ?" : "(" + column + " < ? OR " + column + " IS NULL)";
+      }
+      if (following != null) {
+        alternatives.add("(" + equalPrefix + following + ")");
+        selectionArgs.addAll(equalArgs);
+        if (value != null) {
+          selectionArgs.add(value);
+        }
+      }
+
+      if (value == null) {
+        equalPrefix.append(column).append(" IS NULL AND ");
+      } else {
+        equalPrefix.append(column).append(" = ? AND ");
+        equalArgs.add(value);
+      }
+    }
+    return alternatives.isEmpty() ? "0" : TextUtils.join(" OR ", alternatives);
+  }
+}
@@ -0,0 +1,124 @@
+package expo.modules.medialibrary;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * EXIF tags of images keyed by their `_ID` and `DATE_MODIFIED`, so edited files are read again.
+ * Recently read tags are kept in memory and every entry is also written to the cache directory,
+ * so the tags survive the app being restarted. An entry is overwritten when its image is edited.
+ */
+final class ExifCache {
+  private static final String TAG = ExifCache.class.getSimpleName();
+  private static final String CACHE_DIRECTORY = "ExifCache";
+  private static final int MEMORY_CACHE_SIZE = 100;
+  private static final int FORMAT_VERSION = 1;
+
+  private static final byte TYPE_STRING = 0;
+  private static final byte TYPE_INT = 1;
+  private static final byte TYPE_DOUBLE = 2;
+
+  private static final LruCache<String, Bundle> memoryCache = new LruCache<>(MEMORY_CACHE_SIZE);
+
+  private ExifCache() {
+  }
+
+  static Bundle get(Context context, String assetId, long dateModified) {
+    final String key = assetId + ":" + dateModified;
+    Bundle exif = memoryCache.get(key);
+    if (exif == null) {
+      exif = readEntry(getEntryFile(context, assetId), dateModified);
+      if (exif != null) {
+        memoryCache.put(key, exif);
+      }
+    }
+    return exif != null ? new Bundle(exif) : null;
+  }
+
+  static void put(Context context, String assetId, long dateModified, Bundle exif) {
+    memoryCache.put(assetId + ":" + dateModified, new Bundle(exif));
+    writeEntry(getEntryFile(context, assetId), dateModified, exif);
+  }
+
+  private static File getEntryFile(Context context, String assetId) {
+    return new File(new File(context.getCacheDir(), CACHE_DIRECTORY), assetId);
+  }
+
+  private static Bundle readEntry(File file, long dateModified) {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != FORMAT_VERSION || in.readLong() != dateModified) {
+        return null;
+      }
+      Bundle exif = new Bundle();
+      for (int count = in.readInt(); count > 0; count--) {
+        String name = in.readUTF();
+        switch (in.readByte()) {
+          case TYPE_STRING:
+            exif.putString(name, in.readUTF());
+            break;
+          case TYPE_INT:
+            exif.putInt(name, in.readInt());
+            break;
+          case TYPE_DOUBLE:
+            exif.putDouble(name, in.readDouble());
+            break;
+          default:
+            return null;
+        }
+      }
+      return exif;
+    } catch (FileNotFoundException e) {
+      return null;
+    } catch (IOException e) {
+      Log.w(TAG, "Could not read cached EXIF tags from " + file, e);
+      return null;
+    }
+  }
+
+  private static void writeEntry(File file, long dateModified, Bundle exif) {
+    File directory = file.getParentFile();
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      return;
+    }
+    // written aside and renamed, so concurrent readers never see a partial entry
+    File tempFile = new File(directory, file.getName() + ".tmp" + Thread.currentThread().getId());
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(dateModified);
+      out.writeInt(exif.size());
+      for (String name : exif.keySet()) {
+        Object value = exif.get(name);
+        out.writeUTF(name);
+        if (value instanceof Integer) {
+          out.writeByte(TYPE_INT);
+          out.writeInt((Integer) value);
+        } else if (value instanceof Double) {
+          out.writeByte(TYPE_DOUBLE);
+          out.writeDouble((Double) value);
+        } else {
+          out.writeByte(TYPE_STRING);
+          out.writeUTF(String.valueOf(value));
+        }
+      }
+    } catch (IOException e) {
+      Log.w(TAG, "Could not cache EXIF tags to " + file, e);
+      tempFile.delete();
+      return;
+    }
+    if (!tempFile.renameTo(file)) {
+      tempFile.delete();
+    }
+  }
+}
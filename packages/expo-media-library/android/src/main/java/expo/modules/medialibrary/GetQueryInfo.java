@@ -15,8 +15,9 @@ class GetQueryInfo {
   private Map<String, Object> mInput;
   private int mLimit;
   private StringBuilder mSelection;
-  private StringBuilder mOrder;
-  private int mOffset;
+  private List<String> mOrderColumns;
+  private List<Boolean> mOrderAscending;
+  private String mAfter;
 
   GetQueryInfo(Map<String, Object> input) {
     mInput = input;
@@ -26,8 +27,11 @@ class GetQueryInfo {
     return mLimit;
   }
 
-  int getOffset() {
-    return mOffset;
+  /**
+   * @return id of the asset the requested page starts after, or null to start from the beginning
+   */
+  String getAfter() {
+    return mAfter;
   }
 
   String getSelection() {
@@ -35,7 +39,22 @@ class GetQueryInfo {
   }
 
   String getOrder() {
-    return mOrder.toString();
+    List<String> order = new ArrayList<>(mOrderColumns.size());
+    for (int i = 0; i < mOrderColumns.size(); i++) {
+      order.add(mOrderColumns.get(i) + (mOrderAscending.get(i) ? " ASC" : " DESC"));
+    }
+    return TextUtils.join(",", order);
+  }
+
+  /**
+   * @return the columns to sort by, the last of them being unique so that every asset has its own place in the order
+   */
+  List<String> getOrderColumns() {
+    return mOrderColumns;
+  }
+
+  List<Boolean> getOrderAscending() {
+    return mOrderAscending;
   }
 
   public GetQueryInfo invoke() {
@@ -60,16 +79,21 @@ class GetQueryInfo {
       mSelection.append(MediaStore.Files.FileColumns.MEDIA_TYPE).append(" != ").append(MediaStore.Files.FileColumns.MEDIA_TYPE_NONE);
     }
 
-    mOrder = new StringBuilder();
+    mOrderColumns = new ArrayList<>();
+    mOrderAscending = new ArrayList<>();
     if (mInput.containsKey("sortBy") && ((List) mInput.get("sortBy")).size() > 0) {
-      mOrder.append(mapOrderDescriptor((List) mInput.get("sortBy")));
+      mapOrderDescriptor((List) mInput.get("sortBy"), mOrderColumns, mOrderAscending);
     } else {
-      mOrder.append(MediaStore.Images.Media.DEFAULT_SORT_ORDER);
+      mOrderColumns.add(MediaStore.Images.Media.DEFAULT_SORT_ORDER);
+      mOrderAscending.add(true);
+    }
+    if (!mOrderColumns.contains(MediaStore.Images.Media._ID)) {
+      mOrderColumns.add(MediaStore.Images.Media._ID);
+      mOrderAscending.add(true);
     }
 
-    // to maintain compatibility with IOS field after is in string object
-    mOffset = mInput.containsKey("after") ?
-        Integer.parseInt((String) mInput.get("after")) : 0;
+    // like on iOS, pages start after the asset with the given id
+    mAfter = mInput.containsKey("after") ? (String) mInput.get("after") : null;
     return this;
   }
 }
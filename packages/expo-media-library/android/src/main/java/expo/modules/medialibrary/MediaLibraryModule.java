@@ -51,10 +51,12 @@ public class MediaLibraryModule extends ExportedModule {
   private MediaStoreContentObserver mVideosObserver = null;
   private Context mContext;
   private ModuleRegistry mModuleRegistry;
+  private AssetQueryWindow mAssetQueryWindow;
 
   public MediaLibraryModule(Context context) {
     super(context);
     mContext = context;
+    mAssetQueryWindow = new AssetQueryWindow(context);
   }
 
   @Override
@@ -96,6 +98,11 @@ public class MediaLibraryModule extends ExportedModule {
     mModuleRegistry = moduleRegistry;
   }
 
+  @Override
+  public void onDestroy() {
+    mAssetQueryWindow.release();
+  }
+
   @ExpoMethod
   public void createAssetAsync(String localUri, Promise promise) {
     if (isMissingPermissions()) {
@@ -205,7 +212,7 @@ public class MediaLibraryModule extends ExportedModule {
       return;
     }
 
-    new GetAssets(mContext, assetOptions, promise)
+    new GetAssets(mAssetQueryWindow, assetOptions, promise)
         .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
   }
 
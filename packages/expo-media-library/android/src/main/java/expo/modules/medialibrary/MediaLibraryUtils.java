@@ -108,7 +108,7 @@ final class MediaLibraryUtils {
         if (asset.getCount() == 1) {
           asset.moveToFirst();
           ArrayList<Bundle> array = new ArrayList<>();
-          putAssetsInfo(asset, array, 1, 0, fullInfo);
+          putAssetsInfo(context, asset, array, 1, 0, fullInfo);
           // actually we want to return just the first item, but array.getMap returns ReadableMap
           // which is not compatible with promise.resolve and there is no simple solution to convert
           // ReadableMap to WritableMap so it's easier to return an array and pick the first item on JS side
@@ -125,7 +125,7 @@ final class MediaLibraryUtils {
     }
   }
 
-  static void putAssetsInfo(Cursor cursor, ArrayList<Bundle> response, int limit, int offset, boolean fullInfo) throws IOException {
+  static void putAssetsInfo(Context context, Cursor cursor, ArrayList<Bundle> response, int limit, int offset, boolean fullInfo) throws IOException {
     final int idIndex = cursor.getColumnIndex(Media._ID);
     final int filenameIndex = cursor.getColumnIndex(Media.DISPLAY_NAME);
     final int mediaTypeIndex = cursor.getColumnIndex(Files.FileColumns.MEDIA_TYPE);
@@ -162,7 +162,7 @@ final class MediaLibraryUtils {
 
       if (fullInfo) {
         if (mediaType == Files.FileColumns.MEDIA_TYPE_IMAGE) {
-          getExifFullInfo(cursor, asset);
+          getExifFullInfo(context, cursor, asset);
         }
 
         asset.putString("localUri", localUri);
@@ -224,29 +224,36 @@ final class MediaLibraryUtils {
     }
   }
 
-  static String mapOrderDescriptor(List orderDescriptor) throws IllegalArgumentException {
-    List<String> result = new ArrayList<>(20);
-
+  /**
+   * Adds the columns to sort by and whether each of them is sorted in ascending order to the given lists.
+   */
+  static void mapOrderDescriptor(List orderDescriptor, List<String> columns, List<Boolean> ascending) throws IllegalArgumentException {
     for (Object item : orderDescriptor) {
       if (item instanceof String) {
-        String key = convertSortByKey((String) item);
-        result.add(key + " DESC");
+        columns.add(convertSortByKey((String) item));
+        ascending.add(false);
       } else if (item instanceof ArrayList) {
         ArrayList array = (ArrayList) item;
         if (array.size() != 2) {
           throw new IllegalArgumentException("Array sortBy in assetsOptions has invalid layout.");
         }
-        String key = convertSortByKey((String) array.get(0));
-        boolean order = (boolean) array.get(1);
-        result.add(key + (order ? " ASC" : " DESC"));
+        columns.add(convertSortByKey((String) array.get(0)));
+        ascending.add((boolean) array.get(1));
       } else {
         throw new IllegalArgumentException("Array sortBy in assetsOptions contains invalid items.");
       }
     }
-    return TextUtils.join(",", result);
   }
 
-  static void getExifFullInfo(Cursor cursor, Bundle response) throws IOException {
+  static void getExifFullInfo(Context context, Cursor cursor, Bundle response) throws IOException {
+    final String assetId = cursor.getString(cursor.getColumnIndex(Media._ID));
+    final long dateModified = cursor.getLong(cursor.getColumnIndex(Media.DATE_MODIFIED));
+    Bundle cachedExifMap = ExifCache.get(context, assetId, dateModified);
+    if (cachedExifMap != null) {
+      response.putParcelable("exif", cachedExifMap);
+      return;
+    }
+
     File input = new File(cursor.getString(cursor.getColumnIndex(Media.DATA)));
     ExifInterface exifInterface = new ExifInterface(input.getPath());
     Bundle exifMap = new Bundle();
@@ -267,6 +274,7 @@ final class MediaLibraryUtils {
         }
       }
     }
+    ExifCache.put(context, assetId, dateModified, exifMap);
     response.putParcelable("exif", exifMap);
   }
 
@@ -6,7 +6,6 @@ import android.content.Context;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorManager;
-import android.os.Bundle;
 
 import org.unimodules.core.Promise;
 import org.unimodules.core.interfaces.ExpoMethod;
@@ -14,6 +13,8 @@ import org.unimodules.interfaces.sensors.SensorService;
 import org.unimodules.interfaces.sensors.services.AccelerometerService;
 
 public class AccelerometerModule extends BaseSensorModule {
+  private static final String[] SAMPLE_KEYS = { "x", "y", "z" };
+
   public AccelerometerModule(Context reactContext) {
     super(reactContext);
   }
@@ -33,12 +34,16 @@ public class AccelerometerModule extends BaseSensorModule {
     return getModuleRegistry().getModule(AccelerometerService.class);
   }
 
-  protected Bundle eventToMap(SensorEvent sensorEvent) {
-    Bundle map = new Bundle();
-    map.putDouble("x", sensorEvent.values[0] / SensorManager.GRAVITY_EARTH);
-    map.putDouble("y", sensorEvent.values[1] / SensorManager.GRAVITY_EARTH);
-    map.putDouble("z", sensorEvent.values[2]/  SensorManager.GRAVITY_EARTH);
-    return map;
+  @Override
+  protected String[] getSampleKeys() {
+    return SAMPLE_KEYS;
+  }
+
+  @Override
+  protected void readSample(SensorEvent sensorEvent, double[] sample) {
+    sample[0] = sensorEvent.values[0] / SensorManager.GRAVITY_EARTH;
+    sample[1] = sensorEvent.values[1] / SensorManager.GRAVITY_EARTH;
+    sample[2] = sensorEvent.values[2] / SensorManager.GRAVITY_EARTH;
   }
 
   @ExpoMethod
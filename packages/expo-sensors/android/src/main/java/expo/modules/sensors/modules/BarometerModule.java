@@ -6,7 +6,6 @@ import android.content.Context;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorManager;
-import android.os.Bundle;
 
 import org.unimodules.core.Promise;
 import org.unimodules.core.interfaces.ExpoMethod;
@@ -14,6 +13,8 @@ import org.unimodules.interfaces.sensors.SensorService;
 import org.unimodules.interfaces.sensors.services.BarometerService;
 
 public class BarometerModule extends BaseSensorModule {
+  private static final String[] SAMPLE_KEYS = { "pressure" };
+
   public BarometerModule(Context reactContext) {
     super(reactContext);
   }
@@ -33,11 +34,15 @@ public class BarometerModule extends BaseSensorModule {
     return getModuleRegistry().getModule(BarometerService.class);
   }
 
-  protected Bundle eventToMap(SensorEvent sensorEvent) {
-    Bundle map = new Bundle();
+  @Override
+  protected String[] getSampleKeys() {
+    return SAMPLE_KEYS;
+  }
+
+  @Override
+  protected void readSample(SensorEvent sensorEvent, double[] sample) {
     // TODO: Bacon: Can we get relative altitude?
-    map.putDouble("pressure", sensorEvent.values[0]);
-    return map;
+    sample[0] = sensorEvent.values[0];
   }
 
   @ExpoMethod
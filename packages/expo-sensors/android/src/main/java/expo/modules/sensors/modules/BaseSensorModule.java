@@ -5,10 +5,17 @@ import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener2;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 
+import java.util.Map;
+
 import org.unimodules.core.ExportedModule;
 import org.unimodules.core.ModuleRegistry;
+import org.unimodules.core.Promise;
+import org.unimodules.core.interfaces.ExpoMethod;
 import org.unimodules.core.interfaces.LifecycleEventListener;
 import org.unimodules.core.interfaces.services.EventEmitter;
 import org.unimodules.core.interfaces.services.UIManager;
@@ -16,16 +23,40 @@ import org.unimodules.interfaces.sensors.SensorService;
 import org.unimodules.interfaces.sensors.SensorServiceSubscription;
 
 public abstract class BaseSensorModule extends ExportedModule implements SensorEventListener2, LifecycleEventListener {
+  private static final int MAX_BATCH_SIZE = 1000;
+
   private SensorServiceSubscription mSensorServiceSubscription;
   private ModuleRegistry mModuleRegistry;
   private boolean mIsObserving = false;
 
+  // Reused for every event, samples are copied into the batch buffer or into an event bundle.
+  private final double[] mSample;
+  // Null unless batching is enabled, in which case samples are sent to JS in batches of up to
+  // `mBatchSize` samples, at most `mMaxBatchLatency` milliseconds after the oldest one was measured.
+  private SensorSampleBuffer mSampleBuffer;
+  private int mBatchSize = 1;
+  private long mMaxBatchLatency = 0;
+  private final Handler mHandler = new Handler(Looper.getMainLooper());
+  private final Runnable mFlushRunnable = new Runnable() {
+    @Override
+    public void run() {
+      flushSamples();
+    }
+  };
+
   protected abstract String getEventName();
   protected abstract SensorService getSensorService();
-  protected abstract Bundle eventToMap(SensorEvent sensorEvent);
+  // Names of the values of a sample, in the order they're written by readSample.
+  protected abstract String[] getSampleKeys();
+  protected abstract void readSample(SensorEvent sensorEvent, double[] sample);
 
   BaseSensorModule(Context context) {
     super(context);
+    mSample = new double[getSampleKeys().length];
+  }
+
+  protected String getBatchEventName() {
+    return getEventName() + "Batch";
   }
 
   ModuleRegistry getModuleRegistry() {
@@ -48,12 +79,43 @@ public abstract class BaseSensorModule extends ExportedModule implements SensorE
   }
 
   @Override
-  public void onSensorChanged(SensorEvent sensorEvent) {
+  public synchronized void onSensorChanged(SensorEvent sensorEvent) {
+    readSample(sensorEvent, mSample);
+
+    if (mSampleBuffer == null) {
+      Bundle map = new Bundle();
+      String[] keys = getSampleKeys();
+      for (int i = 0; i < keys.length; i++) {
+        map.putDouble(keys[i], mSample[i]);
+      }
+      emit(getEventName(), map);
+      return;
+    }
+
+    // Event timestamps are nanoseconds since boot, JS gets milliseconds since the epoch.
+    double timestamp = System.currentTimeMillis() - SystemClock.elapsedRealtime() + sensorEvent.timestamp / 1000000.0;
+    boolean wasEmpty = mSampleBuffer.size() == 0;
+    mSampleBuffer.add(timestamp, mSample);
+    if (mSampleBuffer.size() >= mBatchSize) {
+      flushSamples();
+    } else if (wasEmpty && mMaxBatchLatency > 0) {
+      mHandler.postDelayed(mFlushRunnable, mMaxBatchLatency);
+    }
+  }
+
+  private synchronized void flushSamples() {
+    mHandler.removeCallbacks(mFlushRunnable);
+    if (mSampleBuffer != null && mSampleBuffer.size() > 0) {
+      emit(getBatchEventName(), mSampleBuffer.drain());
+    }
+  }
+
+  private void emit(String eventName, Bundle event) {
     EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
     if (eventEmitter != null) {
-      eventEmitter.emit(getEventName(), eventToMap(sensorEvent));
+      eventEmitter.emit(eventName, event);
     } else {
-      Log.e("E_SENSOR_MODULE", "Could not emit " + getEventName() + " event, no event emitter present.");
+      Log.e("E_SENSOR_MODULE", "Could not emit " + eventName + " event, no event emitter present.");
     }
   }
 
@@ -71,6 +133,38 @@ public abstract class BaseSensorModule extends ExportedModule implements SensorE
     getSensorKernelServiceSubscription().setUpdateInterval(updateInterval);
   }
 
+  /**
+   * With a `batchSize` greater than 1 samples are sent in `getBatchEventName()` events instead of
+   * one event per sample. A batch is sent when it's full or `maxLatency` milliseconds after its first
+   * sample, whichever comes first. The sensor is allowed to hold events in its hardware FIFO for
+   * `maxLatency` too, so the application processor can sleep in between.
+   */
+  @ExpoMethod
+  public void setBatchingOptions(Map<String, Object> options, Promise promise) {
+    int batchSize = 1;
+    long maxLatency = 0;
+    if (options.get("batchSize") instanceof Number) {
+      batchSize = Math.max(1, Math.min(MAX_BATCH_SIZE, ((Number) options.get("batchSize")).intValue()));
+    }
+    if (options.get("maxLatency") instanceof Number) {
+      maxLatency = Math.max(0, ((Number) options.get("maxLatency")).longValue());
+    }
+
+    synchronized (this) {
+      // Samples collected with the previous options are sent right away.
+      flushSamples();
+      mBatchSize = batchSize;
+      mMaxBatchLatency = maxLatency;
+      if (batchSize <= 1) {
+        mSampleBuffer = null;
+      } else if (mSampleBuffer == null || mSampleBuffer.capacity() != batchSize) {
+        mSampleBuffer = new SensorSampleBuffer(getSampleKeys(), batchSize);
+      }
+    }
+    getSensorKernelServiceSubscription().setMaxReportLatency(batchSize > 1 ? maxLatency : 0);
+    promise.resolve(null);
+  }
+
   private SensorServiceSubscription getSensorKernelServiceSubscription() {
     if (mSensorServiceSubscription != null) {
       return mSensorServiceSubscription;
@@ -88,6 +182,7 @@ public abstract class BaseSensorModule extends ExportedModule implements SensorE
   public void stopObserving() {
     mIsObserving = false;
     getSensorKernelServiceSubscription().stop();
+    flushSamples();
   }
 
   @Override
@@ -100,6 +195,7 @@ public abstract class BaseSensorModule extends ExportedModule implements SensorE
   @Override
   public void onHostPause() {
     getSensorKernelServiceSubscription().stop();
+    flushSamples();
   }
 
   @Override
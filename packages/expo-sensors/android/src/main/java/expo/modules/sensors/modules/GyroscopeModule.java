@@ -6,7 +6,6 @@ import android.content.Context;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorManager;
-import android.os.Bundle;
 
 import org.unimodules.core.Promise;
 import org.unimodules.core.interfaces.ExpoMethod;
@@ -14,6 +13,8 @@ import org.unimodules.interfaces.sensors.SensorService;
 import org.unimodules.interfaces.sensors.services.GyroscopeService;
 
 public class GyroscopeModule extends BaseSensorModule {
+  private static final String[] SAMPLE_KEYS = { "x", "y", "z" };
+
   public GyroscopeModule(Context reactContext) {
     super(reactContext);
   }
@@ -33,12 +34,16 @@ public class GyroscopeModule extends BaseSensorModule {
     return getModuleRegistry().getModule(GyroscopeService.class);
   }
 
-  protected Bundle eventToMap(SensorEvent sensorEvent) {
-    Bundle map = new Bundle();
-    map.putDouble("x", sensorEvent.values[0]);
-    map.putDouble("y", sensorEvent.values[1]);
-    map.putDouble("z", sensorEvent.values[2]);
-    return map;
+  @Override
+  protected String[] getSampleKeys() {
+    return SAMPLE_KEYS;
+  }
+
+  @Override
+  protected void readSample(SensorEvent sensorEvent, double[] sample) {
+    sample[0] = sensorEvent.values[0];
+    sample[1] = sensorEvent.values[1];
+    sample[2] = sensorEvent.values[2];
   }
 
   @ExpoMethod
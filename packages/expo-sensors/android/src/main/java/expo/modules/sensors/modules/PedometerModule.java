@@ -5,7 +5,6 @@ package expo.modules.sensors.modules;
 import android.content.Context;
 import android.content.pm.PackageManager;
 import android.hardware.SensorEvent;
-import android.os.Bundle;
 
 import org.unimodules.core.Promise;
 import org.unimodules.core.interfaces.ExpoMethod;
@@ -13,6 +12,8 @@ import org.unimodules.interfaces.sensors.SensorService;
 import org.unimodules.interfaces.sensors.services.PedometerService;
 
 public class PedometerModule extends BaseSensorModule {
+  private static final String[] SAMPLE_KEYS = { "steps" };
+
   private Integer stepsAtTheBeginning = null;
 
   public PedometerModule(Context reactContext) {
@@ -34,13 +35,17 @@ public class PedometerModule extends BaseSensorModule {
     return getModuleRegistry().getModule(PedometerService.class);
   }
 
-  protected Bundle eventToMap(SensorEvent sensorEvent) {
+  @Override
+  protected String[] getSampleKeys() {
+    return SAMPLE_KEYS;
+  }
+
+  @Override
+  protected void readSample(SensorEvent sensorEvent, double[] sample) {
     if (stepsAtTheBeginning == null) {
       stepsAtTheBeginning = (int) sensorEvent.values[0] - 1;
     }
-    Bundle map = new Bundle();
-    map.putDouble("steps", sensorEvent.values[0] - stepsAtTheBeginning);
-    return map;
+    sample[0] = sensorEvent.values[0] - stepsAtTheBeginning;
   }
 
   @ExpoMethod
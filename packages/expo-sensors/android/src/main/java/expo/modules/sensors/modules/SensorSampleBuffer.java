@@ -0,0 +1,67 @@
+// Copyright 2015-present 650 Industries. All rights reserved.
+
+package expo.modules.sensors.modules;
+
+import android.os.Bundle;
+
+/**
+ * Ring buffer of sensor samples stored in preallocated primitive arrays, one per value, so that
+ * adding a sample allocates nothing. When it's full the oldest samples are overwritten.
+ */
+class SensorSampleBuffer {
+  private final String[] mKeys;
+  private final double[] mTimestamps;
+  private final double[][] mValues;
+  private int mStart = 0;
+  private int mSize = 0;
+
+  SensorSampleBuffer(String[] keys, int capacity) {
+    mKeys = keys;
+    mTimestamps = new double[capacity];
+    mValues = new double[keys.length][capacity];
+  }
+
+  int capacity() {
+    return mTimestamps.length;
+  }
+
+  int size() {
+    return mSize;
+  }
+
+  void add(double timestamp, double[] sample) {
+    int index = (mStart + mSize) % mTimestamps.length;
+    if (mSize == mTimestamps.length) {
+      mStart = (mStart + 1) % mTimestamps.length;
+    } else {
+      mSize++;
+    }
+    mTimestamps[index] = timestamp;
+    for (int i = 0; i < mValues.length; i++) {
+      mValues[i][index] = sample[i];
+    }
+  }
+
+  /**
+   * Removes all samples and returns them as one array per value, eg.
+   * `{ timestamp: [t1, t2], x: [x1, x2], y: [y1, y2], z: [z1, z2] }`.
+   */
+  Bundle drain() {
+    Bundle batch = new Bundle();
+    batch.putDoubleArray("timestamp", copyColumn(mTimestamps));
+    for (int i = 0; i < mKeys.length; i++) {
+      batch.putDoubleArray(mKeys[i], copyColumn(mValues[i]));
+    }
+    mStart = 0;
+    mSize = 0;
+    return batch;
+  }
+
+  private double[] copyColumn(double[] column) {
+    double[] result = new double[mSize];
+    int firstPartLength = Math.min(mSize, column.length - mStart);
+    System.arraycopy(column, mStart, result, 0, firstPartLength);
+    System.arraycopy(column, 0, result, firstPartLength, mSize - firstPartLength);
+    return result;
+  }
+}
@@ -10,6 +10,8 @@ import android.hardware.SensorManager;
 public abstract class BaseSensorService extends BaseService implements SensorEventListener2 {
   private Sensor mSensor;
   private SensorManager mSensorManager;
+  private int mSamplingPeriodUs;
+  private int mMaxReportLatencyUs;
 
   BaseSensorService(Context reactContext) {
     super(reactContext);
@@ -22,12 +24,27 @@ public abstract class BaseSensorService extends BaseService implements SensorEve
   // Public API
 
   protected void startObserving() {
+    startObserving(SensorManager.SENSOR_DELAY_FASTEST, 0);
+  }
+
+  // Sensors with a hardware FIFO keep up to `maxReportLatencyUs` worth of events before waking up
+  // the application processor to deliver them together.
+  protected void startObserving(int samplingPeriodUs, int maxReportLatencyUs) {
+    if (mSensor != null && samplingPeriodUs == mSamplingPeriodUs && maxReportLatencyUs == mMaxReportLatencyUs) {
+      return;
+    }
+    if (mSensor != null) {
+      mSensorManager.unregisterListener(this);
+    }
     if ((mSensor = mSensorManager.getDefaultSensor(getSensorType())) != null) {
-      mSensorManager.registerListener(this, mSensor, SensorManager.SENSOR_DELAY_FASTEST);
+      mSensorManager.registerListener(this, mSensor, samplingPeriodUs, maxReportLatencyUs);
+      mSamplingPeriodUs = samplingPeriodUs;
+      mMaxReportLatencyUs = maxReportLatencyUs;
     }
   }
 
   protected void stopObserving() {
     mSensorManager.unregisterListener(this);
+    mSensor = null;
   }
 }
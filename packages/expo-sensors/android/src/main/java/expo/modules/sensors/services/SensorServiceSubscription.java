@@ -7,9 +7,12 @@ import android.hardware.SensorEventListener2;
 public class SensorServiceSubscription implements org.unimodules.interfaces.sensors.SensorServiceSubscription {
   private boolean mIsEnabled = false;
   private Long mUpdateInterval = null;
+  private long mMaxReportLatency = 0;
   private boolean mHasBeenReleased = false;
   private final SubscribableSensorService mSubscribableSensorService;
   private final SensorEventListener2 mSensorEventListener;
+  // Time of the last event delivered to the listener, in milliseconds of sensor time.
+  long mLastUpdate = 0;
 
   SensorServiceSubscription(SubscribableSensorService kernelService, SensorEventListener2 listener) {
     mSensorEventListener = listener;
@@ -39,6 +42,17 @@ public class SensorServiceSubscription implements org.unimodules.interfaces.sens
   public void setUpdateInterval(long updateInterval) {
     assertSubscriptionIsAlive();
     mUpdateInterval = updateInterval;
+    mSubscribableSensorService.onSubscriptionOptionsChanged(this);
+  }
+
+  public long getMaxReportLatency() {
+    return mMaxReportLatency;
+  }
+
+  public void setMaxReportLatency(long maxReportLatency) {
+    assertSubscriptionIsAlive();
+    mMaxReportLatency = maxReportLatency;
+    mSubscribableSensorService.onSubscriptionOptionsChanged(this);
   }
 
   public void stop() {
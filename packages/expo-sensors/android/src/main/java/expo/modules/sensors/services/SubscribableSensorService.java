@@ -6,21 +6,23 @@ import android.content.Context;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener2;
+import android.hardware.SensorManager;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.WeakHashMap;
 
-import org.unimodules.core.interfaces.InternalModule;
 import org.unimodules.interfaces.sensors.SensorService;
 
 public abstract class SubscribableSensorService extends BaseSensorService implements SensorService {
   protected static int DEFAULT_UPDATE_INTERVAL = 100;
 
   private int mListenersCount = 0;
-  private Map<SensorServiceSubscription, Long> mSensorEventListenerLastUpdateMap = new WeakHashMap<>();
+  private Map<SensorServiceSubscription, Boolean> mSubscriptions = new WeakHashMap<>();
+  // Snapshot of the enabled subscriptions, rebuilt when one changes so that handling a sensor event
+  // doesn't have to iterate (and allocate an iterator for) the weak map.
+  private SensorServiceSubscription[] mEnabledSubscriptions = new SensorServiceSubscription[0];
 
   SubscribableSensorService(Context reactContext) {
     super(reactContext);
@@ -40,7 +42,7 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
 
   public org.unimodules.interfaces.sensors.SensorServiceSubscription createSubscriptionForListener(SensorEventListener2 listener) {
     SensorServiceSubscription sensorServiceSubscription = new SensorServiceSubscription(this, listener);
-    mSensorEventListenerLastUpdateMap.put(sensorServiceSubscription, 0L);
+    mSubscriptions.put(sensorServiceSubscription, Boolean.TRUE);
     return sensorServiceSubscription;
   }
 
@@ -53,11 +55,19 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
       mListenersCount -= 1;
     }
 
+    updateEnabledSubscriptions();
     updateObserving();
   }
 
+  void onSubscriptionOptionsChanged(SensorServiceSubscription sensorServiceSubscription) {
+    if (sensorServiceSubscription.isEnabled()) {
+      updateObserving();
+    }
+  }
+
   void removeSubscription(SensorServiceSubscription sensorServiceSubscription) {
-    mSensorEventListenerLastUpdateMap.remove(sensorServiceSubscription);
+    mSubscriptions.remove(sensorServiceSubscription);
+    updateEnabledSubscriptions();
   }
 
   // android.hardware.SensorEventListener2
@@ -65,26 +75,14 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
   @Override
   public void onSensorChanged(SensorEvent sensorEvent) {
     if (sensorEvent.sensor.getType() == getSensorType()) {
-      long currentTime = System.currentTimeMillis();
-      Set<SensorServiceSubscription> listeners = mSensorEventListenerLastUpdateMap.keySet();
-
-      for(SensorServiceSubscription sensorServiceSubscription : listeners) {
-        if (sensorServiceSubscription != null && sensorServiceSubscription.isEnabled()) {
-          long lastUpdate = 0;
-          if (mSensorEventListenerLastUpdateMap.containsKey(sensorServiceSubscription)) {
-            lastUpdate = mSensorEventListenerLastUpdateMap.get(sensorServiceSubscription);
-          }
-
-          long updateInterval = DEFAULT_UPDATE_INTERVAL;
-          if (sensorServiceSubscription.getUpdateInterval() != null) {
-            updateInterval = sensorServiceSubscription.getUpdateInterval();
-          }
-
-
-          if ((currentTime - lastUpdate) > updateInterval) {
-            sensorServiceSubscription.getSensorEventListener().onSensorChanged(sensorEvent);
-            mSensorEventListenerLastUpdateMap.put(sensorServiceSubscription, currentTime);
-          }
+      // Throttle by the time the event was measured rather than the time it was delivered,
+      // events batched in the sensor's FIFO are delivered all at once.
+      long eventTime = sensorEvent.timestamp / 1000000;
+
+      for (SensorServiceSubscription sensorServiceSubscription : mEnabledSubscriptions) {
+        if ((eventTime - sensorServiceSubscription.mLastUpdate) > getUpdateInterval(sensorServiceSubscription)) {
+          sensorServiceSubscription.getSensorEventListener().onSensorChanged(sensorEvent);
+          sensorServiceSubscription.mLastUpdate = eventTime;
         }
       }
     }
@@ -93,10 +91,8 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
   @Override
   public void onAccuracyChanged(Sensor sensor, int accuracy) {
     if (sensor.getType() == getSensorType()) {
-      for (SensorServiceSubscription subscription : mSensorEventListenerLastUpdateMap.keySet()) {
-        if (subscription.isEnabled()) {
-          subscription.getSensorEventListener().onAccuracyChanged(sensor, accuracy);
-        }
+      for (SensorServiceSubscription subscription : mEnabledSubscriptions) {
+        subscription.getSensorEventListener().onAccuracyChanged(sensor, accuracy);
       }
     }
   }
@@ -104,20 +100,51 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
   @Override
   public void onFlushCompleted(Sensor sensor) {
     if (sensor.getType() == getSensorType()) {
-      for (SensorServiceSubscription subscription : mSensorEventListenerLastUpdateMap.keySet()) {
-        if (subscription.isEnabled()) {
-          subscription.getSensorEventListener().onFlushCompleted(sensor);
-        }
+      for (SensorServiceSubscription subscription : mEnabledSubscriptions) {
+        subscription.getSensorEventListener().onFlushCompleted(sensor);
       }
     }
   }
 
   // Private helpers
 
+  private static long getUpdateInterval(SensorServiceSubscription sensorServiceSubscription) {
+    Long updateInterval = sensorServiceSubscription.getUpdateInterval();
+    return updateInterval != null ? updateInterval : DEFAULT_UPDATE_INTERVAL;
+  }
+
+  private void updateEnabledSubscriptions() {
+    List<SensorServiceSubscription> enabledSubscriptions = new ArrayList<>();
+    for (SensorServiceSubscription subscription : mSubscriptions.keySet()) {
+      if (subscription != null && subscription.isEnabled()) {
+        enabledSubscriptions.add(subscription);
+      }
+    }
+    mEnabledSubscriptions = enabledSubscriptions.toArray(new SensorServiceSubscription[enabledSubscriptions.size()]);
+  }
+
   private void updateObserving() {
     // Start/stop observing according to the experience state
     if (mListenersCount > 0 && getExperienceIsForegrounded()) {
-      super.startObserving();
+      // Sample only as fast as the most frequent subscriber needs (twice as fast so throttling doesn't
+      // skip samples that arrive slightly early) and let the sensor batch events for as long as
+      // all subscribers can wait.
+      long minUpdateInterval = Long.MAX_VALUE;
+      long minMaxReportLatency = Long.MAX_VALUE;
+      for (SensorServiceSubscription subscription : mEnabledSubscriptions) {
+        minUpdateInterval = Math.min(minUpdateInterval, getUpdateInterval(subscription));
+        minMaxReportLatency = Math.min(minMaxReportLatency, subscription.getMaxReportLatency());
+      }
+      if (mEnabledSubscriptions.length == 0) {
+        minUpdateInterval = DEFAULT_UPDATE_INTERVAL;
+        minMaxReportLatency = 0;
+      }
+
+      int samplingPeriodUs = (int) Math.min(minUpdateInterval * 1000 / 2, Integer.MAX_VALUE);
+      if (samplingPeriodUs <= 0) {
+        samplingPeriodUs = SensorManager.SENSOR_DELAY_FASTEST;
+      }
+      super.startObserving(samplingPeriodUs, (int) Math.min(minMaxReportLatency * 1000, Integer.MAX_VALUE));
     } else {
       super.stopObserving();
     }
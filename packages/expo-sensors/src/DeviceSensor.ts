@@ -4,6 +4,20 @@ type Listener<E> = (event: E) => void;
 
 type NativeSensorModule = any;
 
+/**
+ * A batch of measurements, with one array per measured value, eg.
+ * `{ timestamp: [t1, t2], x: [x1, x2], y: [y1, y2], z: [z1, z2] }`.
+ */
+export type SensorBatch = {
+  timestamp: number[];
+  [key: string]: number[];
+};
+
+export type SensorBatchingOptions = {
+  batchSize?: number;
+  maxLatency?: number;
+};
+
 /**
  * A base class for subscribable sensors. The events emitted by this class are measurements
  * specified by the parameter type `M`.
@@ -28,6 +42,13 @@ export default class DeviceSensor<M> {
     return subscription;
   }
 
+  addBatchListener(listener: Listener<SensorBatch>): Subscription {
+    let subscription = this._nativeEmitter.addListener(this._getBatchEventName(), listener);
+    subscription.remove = () => this.removeSubscription(subscription);
+    this._listenerCount++;
+    return subscription;
+  }
+
   hasListeners(): boolean {
     return this._listenerCount > 0;
   }
@@ -39,6 +60,7 @@ export default class DeviceSensor<M> {
   removeAllListeners(): void {
     this._listenerCount = 0;
     this._nativeEmitter.removeAllListeners(this._nativeEventName);
+    this._nativeEmitter.removeAllListeners(this._getBatchEventName());
   }
 
   removeSubscription(subscription: Subscription): void {
@@ -53,6 +75,15 @@ export default class DeviceSensor<M> {
       this._nativeModule.setUpdateInterval(intervalMs);
     }
   }
+
+  setBatchingOptions(options: SensorBatchingOptions): void {
+    if (!this._nativeModule.setBatchingOptions) {
+      console.warn(`expo-sensors: setBatchingOptions() is not supported on ${Platform.OS}`);
+    } else {
+      this._nativeModule.setBatchingOptions(options);
+    }
+  }
+
   async isAvailableAsync(): Promise<boolean> {
     if (!this._nativeModule.isAvailableAsync) {
       return false;
@@ -60,4 +91,8 @@ export default class DeviceSensor<M> {
       return await this._nativeModule.isAvailableAsync();
     }
   }
+
+  _getBatchEventName(): string {
+    return `${this._nativeEventName}Batch`;
+  }
 }
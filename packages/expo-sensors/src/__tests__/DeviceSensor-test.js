@@ -126,12 +126,42 @@ it(`doesn't fail when a subscription is removed twice`, () => {
   expect(() => sensor.removeSubscription(subscription)).not.toThrow();
 });
 
+it(`counts batch listeners together with regular listeners`, () => {
+  mockPlatformAndroid();
+  const nativeModule = new MockNativeSensorModule();
+  const sensor = new DeviceSensor(nativeModule, 'mockDidUpdate');
+
+  sensor.addListener(() => {});
+  const batchSubscription = sensor.addBatchListener(() => {});
+  expect(sensor.getListenerCount()).toBe(2);
+  expect(nativeModule.startObserving).toHaveBeenCalledTimes(1);
+
+  batchSubscription.remove();
+  expect(sensor.getListenerCount()).toBe(1);
+  expect(nativeModule.stopObserving).not.toHaveBeenCalled();
+
+  sensor.addBatchListener(() => {});
+  sensor.removeAllListeners();
+  expect(sensor.hasListeners()).toBe(false);
+  expect(nativeModule.stopObserving).toHaveBeenCalledTimes(1);
+});
+
+it(`passes batching options to the native module`, () => {
+  mockPlatformAndroid();
+  const nativeModule = new MockNativeSensorModule();
+  const sensor = new DeviceSensor(nativeModule, 'mockDidUpdate');
+
+  sensor.setBatchingOptions({ batchSize: 50, maxLatency: 1000 });
+  expect(nativeModule.setBatchingOptions).toHaveBeenCalledWith({ batchSize: 50, maxLatency: 1000 });
+});
+
 class MockNativeSensorModule {
   addListener = jest.fn(async () => {});
   removeListeners = jest.fn(async () => {});
   startObserving = jest.fn(async () => {});
   stopObserving = jest.fn(async () => {});
   setUpdateInterval = jest.fn(async () => {});
+  setBatchingOptions = jest.fn(async () => {});
 }
 
 function _countRemovedListeners(nativeModule) {
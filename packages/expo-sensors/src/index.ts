@@ -7,4 +7,4 @@ export { default as MagnetometerUncalibrated } from './MagnetometerUncalibrated'
 export { ThreeAxisMeasurement } from './ThreeAxisSensor';
 import * as Pedometer from './Pedometer';
 export { Pedometer };
-export { default as DeviceSensor } from './DeviceSensor';
+export { default as DeviceSensor, SensorBatch, SensorBatchingOptions } from './DeviceSensor';
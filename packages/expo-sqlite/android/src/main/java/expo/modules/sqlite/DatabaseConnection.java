@@ -0,0 +1,38 @@
+// Copyright 2015-present 650 Industries. All rights reserved.
+package expo.modules.sqlite;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * An open database file. With write-ahead logging enabled SQLiteDatabase keeps one primary
+ * connection for writes plus a pool of read connections, so read-only batches running on other
+ * threads are not blocked by a write in progress.
+ */
+class DatabaseConnection {
+  final SQLiteDatabase database;
+  // Only used for writes, which all run on the writer thread.
+  final StatementCache statementCache;
+
+  DatabaseConnection(SQLiteDatabase database) {
+    this.database = database;
+    this.statementCache = new StatementCache(database);
+  }
+
+  // Must be called from the writer thread so no write transaction is in progress.
+  synchronized void enableWriteAheadLogging() {
+    if (database.isWriteAheadLoggingEnabled()) {
+      return;
+    }
+    try {
+      database.enableWriteAheadLogging();
+    } catch (IllegalStateException e) {
+      // The connection pool can't change the journal mode while any connection is acquired, e.g. by a
+      // reader batch or a cursor filling its window. The next write batch will try again.
+    }
+  }
+
+  void close() {
+    statementCache.evictAll();
+    database.close();
+  }
+}
@@ -0,0 +1,98 @@
+// Copyright 2015-present 650 Industries. All rights reserved.
+package expo.modules.sqlite;
+
+import android.database.Cursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open SELECT query whose rows are handed to JS a page at a time.
+ * Only the rows of the current page are held in memory; the rest stay in SQLite.
+ * Pages may be fetched from different reader threads, so access to the cursor is synchronized.
+ */
+class QueryCursor {
+  final String dbName;
+  private final Cursor mCursor;
+  private boolean mExhausted = false;
+  // Whether the cursor is on a row that was read ahead to find out if there are any more
+  private boolean mHasPendingRow = false;
+
+  QueryCursor(String dbName, Cursor cursor) {
+    this.dbName = dbName;
+    mCursor = cursor;
+  }
+
+  List<String> getColumnNames() {
+    List<String> columnNames = new ArrayList<>();
+    for (String name : mCursor.getColumnNames()) {
+      columnNames.add(name);
+    }
+    return columnNames;
+  }
+
+  // Tracked from moveToNext so it doesn't depend on the count of the cursor. Note SQLiteCursor still
+  // counts all the rows once, when it fills its first window.
+  synchronized boolean isDone() {
+    return mCursor.isClosed() || mExhausted;
+  }
+
+  // Reads up to `count` rows as a list of rows, or all the remaining rows if `count` isn't positive.
+  synchronized List<Object> fetchRows(int count) {
+    int limit = count > 0 ? count : Integer.MAX_VALUE;
+    List<Object> rows = new ArrayList<>(Math.min(limit, 1024));
+    int numColumns = mCursor.getColumnCount();
+    for (int i = 0; i < limit && moveToNextRow(); i++) {
+      List<Object> row = new ArrayList<>(numColumns);
+      for (int j = 0; j < numColumns; j++) {
+        row.add(SQLiteModule.getValueFromCursor(mCursor, j));
+      }
+      rows.add(row);
+    }
+    readAhead();
+    return rows;
+  }
+
+  // Reads up to `count` rows as one list of values per column, which avoids allocating a list per
+  // row and is cheaper to send over the bridge for narrow, long results.
+  synchronized List<Object> fetchColumns(int count) {
+    int limit = count > 0 ? count : Integer.MAX_VALUE;
+    int numColumns = mCursor.getColumnCount();
+    List<List<Object>> columns = new ArrayList<>(numColumns);
+    for (int j = 0; j < numColumns; j++) {
+      columns.add(new ArrayList<>(Math.min(limit, 1024)));
+    }
+    for (int i = 0; i < limit && moveToNextRow(); i++) {
+      for (int j = 0; j < numColumns; j++) {
+        columns.get(j).add(SQLiteModule.getValueFromCursor(mCursor, j));
+      }
+    }
+    readAhead();
+    return new ArrayList<Object>(columns);
+  }
+
+  private boolean moveToNextRow() {
+    if (mHasPendingRow) {
+      mHasPendingRow = false;
+      return true;
+    }
+    if (mExhausted || !mCursor.moveToNext()) {
+      mExhausted = true;
+      return false;
+    }
+    return true;
+  }
+
+  // Moves to the row after the page, so that the last page reports being done without having to
+  // fetch an empty page after it.
+  private void readAhead() {
+    if (!mExhausted && !mHasPendingRow) {
+      mHasPendingRow = mCursor.moveToNext();
+      mExhausted = !mHasPendingRow;
+    }
+  }
+
+  synchronized void close() {
+    mCursor.close();
+  }
+}
@@ -3,15 +3,23 @@ package expo.modules.sqlite;
 
 import android.content.Context;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteCursorDriver;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteProgram;
+import android.database.sqlite.SQLiteQuery;
 import android.database.sqlite.SQLiteStatement;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.unimodules.core.ExportedModule;
 import org.unimodules.core.Promise;
@@ -22,13 +30,30 @@ public class SQLiteModule extends ExportedModule {
 
   private static final String TAG = SQLiteModule.class.getSimpleName();
 
-  private static final Object[][] EMPTY_ROWS = new Object[][]{};
+  private static final List<Object> EMPTY_ROWS = Collections.emptyList();
   private static final String[] EMPTY_COLUMNS = new String[]{};
   private static final SQLitePluginResult EMPTY_RESULT = new SQLitePluginResult(EMPTY_ROWS, EMPTY_COLUMNS, 0, 0, null);
 
-  private static final Map<String, SQLiteDatabase> DATABASES = new HashMap<String, SQLiteDatabase>();
+  private static final String OPTION_READ_ONLY = "readOnly";
+  private static final String OPTION_USE_TRANSACTION = "useTransactions";
+  private static final String OPTION_ENABLE_WRITE_AHEAD_LOGGING = "enableWriteAheadLogging";
+  private static final String OPTION_TYPED_BINDINGS = "typedBindings";
+  private static final String OPTION_COLUMNAR = "columnar";
+
+  private static final int READER_THREAD_COUNT = 3;
+
+  // Guarded by itself.
+  private static final Map<String, DatabaseConnection> DATABASES = new HashMap<String, DatabaseConnection>();
+
+  // All writes go through a single thread, so they're serialized like SQLite requires anyway.
+  // Read-only batches and cursors run on a small pool and, with write-ahead logging enabled, use
+  // SQLiteDatabase's read connections in parallel with the writer instead of queueing behind it.
+  private static final ExecutorService WRITER_EXECUTOR = Executors.newSingleThreadExecutor();
+  private static final ExecutorService READER_EXECUTOR = Executors.newFixedThreadPool(READER_THREAD_COUNT);
 
   private Context mContext;
+  private final AtomicInteger mNextCursorId = new AtomicInteger(0);
+  private final Map<Integer, QueryCursor> mCursors = new HashMap<>();
 
   public SQLiteModule(Context scopedContext) {
     super(scopedContext);
@@ -40,32 +65,94 @@ public class SQLiteModule extends ExportedModule {
     return "ExponentSQLite";
   }
 
+  @Override
+  public void onDestroy() {
+    List<QueryCursor> cursors;
+    synchronized (mCursors) {
+      cursors = new ArrayList<>(mCursors.values());
+      mCursors.clear();
+    }
+    for (QueryCursor cursor : cursors) {
+      cursor.close();
+    }
+  }
+
   @ExpoMethod
   public void exec(String dbName, ArrayList<ArrayList<Object>> queries, Boolean readOnly, final Promise promise) {
+    submitBatch(dbName, queries, readOnly, false, false, false, promise);
+  }
+
+  @ExpoMethod
+  public void execWithOptions(String dbName, ArrayList<ArrayList<Object>> queries, Map<String, Object> options, final Promise promise) {
+    submitBatch(
+        dbName,
+        queries,
+        getBooleanOption(options, OPTION_READ_ONLY),
+        getBooleanOption(options, OPTION_USE_TRANSACTION),
+        getBooleanOption(options, OPTION_ENABLE_WRITE_AHEAD_LOGGING),
+        getBooleanOption(options, OPTION_TYPED_BINDINGS),
+        promise);
+  }
+
+  private void submitBatch(final String dbName, final ArrayList<ArrayList<Object>> queries, final boolean readOnly,
+                           final boolean useTransaction, final boolean enableWriteAheadLogging,
+                           final boolean typedBindings, final Promise promise) {
+    ExecutorService executor = readOnly ? READER_EXECUTOR : WRITER_EXECUTOR;
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        execBatch(dbName, queries, readOnly, useTransaction, enableWriteAheadLogging, typedBindings, promise);
+      }
+    });
+  }
+
+  private void execBatch(String dbName, ArrayList<ArrayList<Object>> queries, boolean readOnly,
+                         boolean useTransaction, boolean enableWriteAheadLogging, boolean typedBindings,
+                         final Promise promise) {
     try {
       int numQueries = queries.size();
       SQLitePluginResult[] results = new SQLitePluginResult[numQueries];
-      SQLiteDatabase db = getDatabase(dbName);
-
-      for (int i = 0; i < numQueries; i++) {
-        ArrayList<Object> sqlQuery = queries.get(i);
-        String sql = (String) sqlQuery.get(0);
-        String[] bindArgs = convertParamsToStringArray(sqlQuery.get(1));
-        try {
-          if (isSelect(sql)) {
-            results[i] = doSelectInBackgroundAndPossiblyThrow(sql, bindArgs, db);
-          } else { // update/insert/delete
-            if (readOnly) {
-              results[i] = new SQLitePluginResult(EMPTY_ROWS, EMPTY_COLUMNS, 0, 0, new ReadOnlyException());
-            } else {
-              results[i] = doUpdateInBackgroundAndPossiblyThrow(sql, bindArgs, db);
+      DatabaseConnection connection = getDatabase(dbName);
+      if (enableWriteAheadLogging && !readOnly) {
+        connection.enableWriteAheadLogging();
+      }
+      SQLiteDatabase db = connection.database;
+      StatementCache statementCache = connection.statementCache;
+
+      // Wrapping the batch in one transaction means a single journal commit (and fsync) instead of
+      // one per statement. A failing statement is only rolled back by itself, like before.
+      boolean inTransaction = useTransaction && !readOnly;
+      if (inTransaction) {
+        db.beginTransaction();
+      }
+      try {
+        for (int i = 0; i < numQueries; i++) {
+          ArrayList<Object> sqlQuery = queries.get(i);
+          String sql = (String) sqlQuery.get(0);
+          try {
+            Object[] bindArgs = convertParamsToBindArgs(sqlQuery.get(1), typedBindings);
+            if (isSelect(sql)) {
+              results[i] = doSelectInBackgroundAndPossiblyThrow(sql, bindArgs, db);
+            } else { // update/insert/delete
+              if (readOnly) {
+                results[i] = new SQLitePluginResult(EMPTY_ROWS, EMPTY_COLUMNS, 0, 0, new ReadOnlyException());
+              } else {
+                results[i] = doUpdateInBackgroundAndPossiblyThrow(sql, bindArgs, statementCache);
+              }
             }
+          } catch (Throwable e) {
+            if (DEBUG_MODE) {
+              e.printStackTrace();
+            }
+            results[i] = new SQLitePluginResult(EMPTY_ROWS, EMPTY_COLUMNS, 0, 0, e);
           }
-        } catch (Throwable e) {
-          if (DEBUG_MODE) {
-            e.printStackTrace();
-          }
-          results[i] = new SQLitePluginResult(EMPTY_ROWS, EMPTY_COLUMNS, 0, 0, e);
+        }
+        if (inTransaction) {
+          db.setTransactionSuccessful();
+        }
+      } finally {
+        if (inTransaction) {
+          db.endTransaction();
         }
       }
       List<Object> data = pluginResultsToPrimitiveData(results);
@@ -75,28 +162,127 @@ public class SQLiteModule extends ExportedModule {
     }
   }
 
+  // Runs a SELECT and keeps its cursor open so the rows can be fetched in pages with `fetchCursor`.
+  // Resolves with [cursorId, columnNames].
   @ExpoMethod
-  public void close(String dbName, final Promise promise) {
-    DATABASES.get(dbName).close();
-    DATABASES.remove(dbName);
-    promise.resolve(null);
+  public void openCursor(final String dbName, final String sql, final ArrayList<Object> args, final Promise promise) {
+    READER_EXECUTOR.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          if (!isSelect(sql)) {
+            promise.reject("SQLiteError", "Cursors can only be opened for SELECT queries.");
+            return;
+          }
+          SQLiteDatabase db = getDatabase(dbName).database;
+          QueryCursor cursor = new QueryCursor(dbName, rawQuery(db, sql, convertParamsToBindArgs(args, false)));
+          int cursorId = mNextCursorId.incrementAndGet();
+          synchronized (mCursors) {
+            mCursors.put(cursorId, cursor);
+          }
+
+          List<Object> result = new ArrayList<>();
+          result.add(cursorId);
+          result.add(cursor.getColumnNames());
+          promise.resolve(result);
+        } catch (Exception e) {
+          promise.reject("SQLiteError", e);
+        }
+      }
+    });
   }
 
-  // do a update/delete/insert operation
-  private SQLitePluginResult doUpdateInBackgroundAndPossiblyThrow(String sql, String[] bindArgs,
-                                                                  SQLiteDatabase db) {
-    SQLiteStatement statement = null;
-    try {
-      statement = db.compileStatement(sql);
-      if (bindArgs != null) {
-        for (int i = bindArgs.length; i != 0; i--) {
-          if (bindArgs[i - 1] == null) {
-            statement.bindNull(i);
-          } else {
-            statement.bindString(i, bindArgs[i - 1]);
+  // Resolves with [isDone, data] where data holds up to `count` rows, either as a list of rows or,
+  // with the `columnar` option, as a list of column value lists. The cursor is closed once done.
+  @ExpoMethod
+  public void fetchCursor(final int cursorId, final int count, final Map<String, Object> options, final Promise promise) {
+    final QueryCursor cursor;
+    synchronized (mCursors) {
+      cursor = mCursors.get(cursorId);
+    }
+    if (cursor == null) {
+      promise.reject("SQLiteError", "Cursor " + cursorId + " doesn't exist or has been closed.");
+      return;
+    }
+
+    READER_EXECUTOR.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          List<Object> data = getBooleanOption(options, OPTION_COLUMNAR) ? cursor.fetchColumns(count) : cursor.fetchRows(count);
+          boolean isDone = cursor.isDone();
+          if (isDone) {
+            releaseCursor(cursorId);
           }
+
+          List<Object> result = new ArrayList<>();
+          result.add(isDone);
+          result.add(data);
+          promise.resolve(result);
+        } catch (Exception e) {
+          releaseCursor(cursorId);
+          promise.reject("SQLiteError", e);
+        }
+      }
+    });
+  }
+
+  @ExpoMethod
+  public void closeCursor(int cursorId, final Promise promise) {
+    releaseCursor(cursorId);
+    promise.resolve(null);
+  }
+
+  private void releaseCursor(int cursorId) {
+    QueryCursor cursor;
+    synchronized (mCursors) {
+      cursor = mCursors.remove(cursorId);
+    }
+    if (cursor != null) {
+      cursor.close();
+    }
+  }
+
+  private void closeCursorsForDatabase(String dbName) {
+    List<QueryCursor> cursors = new ArrayList<>();
+    synchronized (mCursors) {
+      for (Map.Entry<Integer, QueryCursor> entry : new ArrayList<>(mCursors.entrySet())) {
+        if (entry.getValue().dbName.equals(dbName)) {
+          cursors.add(mCursors.remove(entry.getKey()));
+        }
+      }
+    }
+    for (QueryCursor cursor : cursors) {
+      cursor.close();
+    }
+  }
+
+  @ExpoMethod
+  public void close(final String dbName, final Promise promise) {
+    closeCursorsForDatabase(dbName);
+    // Closed on the writer thread so queued writes finish first.
+    WRITER_EXECUTOR.execute(new Runnable() {
+      @Override
+      public void run() {
+        DatabaseConnection connection;
+        synchronized (DATABASES) {
+          connection = DATABASES.remove(dbName);
+        }
+        if (connection != null) {
+          connection.close();
         }
+        promise.resolve(null);
       }
+    });
+  }
+
+  // do a update/delete/insert operation
+  private SQLitePluginResult doUpdateInBackgroundAndPossiblyThrow(String sql, Object[] bindArgs,
+                                                                  StatementCache statementCache) {
+    SQLiteStatement statement = statementCache.acquire(sql);
+    boolean isReusable = true;
+    try {
+      bindArgs(statement, bindArgs);
       if (isInsert(sql)) {
         long insertId = statement.executeInsert();
         int rowsAffected = insertId >= 0 ? 1 : 0;
@@ -108,34 +294,40 @@ public class SQLiteModule extends ExportedModule {
         // in this case, we don't need rowsAffected or insertId, so we can have a slight
         // perf boost by just executing the query
         statement.execute();
+        // Schema changes and pragmas are rarely repeated, so don't let them push cached
+        // inserts and updates out of the cache.
+        isReusable = false;
         return EMPTY_RESULT;
       }
     } finally {
-      if (statement != null) {
+      if (isReusable) {
+        statementCache.release(sql, statement);
+      } else {
         statement.close();
       }
     }
   }
 
   // do a select operation
-  private SQLitePluginResult doSelectInBackgroundAndPossiblyThrow(String sql, String[] bindArgs,
+  private SQLitePluginResult doSelectInBackgroundAndPossiblyThrow(String sql, Object[] bindArgs,
                                                                   SQLiteDatabase db) {
     Cursor cursor = null;
     try {
-      cursor = db.rawQuery(sql, bindArgs);
+      cursor = rawQuery(db, sql, bindArgs);
       int numRows = cursor.getCount();
       if (numRows == 0) {
         return EMPTY_RESULT;
       }
       int numColumns = cursor.getColumnCount();
-      Object[][] rows = new Object[numRows][];
+      // Rows are built in the shape they're sent over the bridge in, so they're only copied once.
+      List<Object> rows = new ArrayList<>(numRows);
       String[] columnNames = cursor.getColumnNames();
-      for (int i = 0; cursor.moveToNext(); i++) {
-        Object[] row = new Object[numColumns];
+      while (cursor.moveToNext()) {
+        List<Object> row = new ArrayList<>(numColumns);
         for (int j = 0; j < numColumns; j++) {
-          row[j] = getValueFromCursor(cursor, j, cursor.getType(j));
+          row.add(getValueFromCursor(cursor, j));
         }
-        rows[i] = row;
+        rows.add(row);
       }
       return new SQLitePluginResult(rows, columnNames, 0, 0, null);
     } finally {
@@ -145,12 +337,39 @@ public class SQLiteModule extends ExportedModule {
     }
   }
 
-  private Object getValueFromCursor(Cursor cursor, int index, int columnType) {
-    switch (columnType) {
+  private static Cursor rawQuery(SQLiteDatabase db, String sql, final Object[] bindArgs) {
+    // rawQuery only binds strings, so bind the typed values ourselves once the query is compiled.
+    return db.rawQueryWithFactory(new SQLiteDatabase.CursorFactory() {
+      @Override
+      public Cursor newCursor(SQLiteDatabase db, SQLiteCursorDriver masterQuery, String editTable, SQLiteQuery query) {
+        bindArgs(query, bindArgs);
+        return new SQLiteCursor(masterQuery, editTable, query);
+      }
+    }, sql, null, null);
+  }
+
+  private static void bindArgs(SQLiteProgram program, Object[] bindArgs) {
+    for (int i = bindArgs.length; i != 0; i--) {
+      Object arg = bindArgs[i - 1];
+      if (arg == null) {
+        program.bindNull(i);
+      } else if (arg instanceof Long) {
+        program.bindLong(i, (Long) arg);
+      } else if (arg instanceof Double) {
+        program.bindDouble(i, (Double) arg);
+      } else {
+        program.bindString(i, (String) arg);
+      }
+    }
+  }
+
+  // Numbers are returned as doubles since that's what they become in JS anyway.
+  static Object getValueFromCursor(Cursor cursor, int index) {
+    switch (cursor.getType(index)) {
       case Cursor.FIELD_TYPE_FLOAT:
         return cursor.getDouble(index);
       case Cursor.FIELD_TYPE_INTEGER:
-        return cursor.getLong(index);
+        return (double) cursor.getLong(index);
       case Cursor.FIELD_TYPE_BLOB:
         // convert byte[] to binary string; it's good enough, because
         // WebSQL doesn't support blobs anyway
@@ -174,18 +393,23 @@ public class SQLiteModule extends ExportedModule {
     return directory + File.separator + name;
   }
 
-  private SQLiteDatabase getDatabase(String name) throws IOException {
-    SQLiteDatabase database = null;
+  private DatabaseConnection getDatabase(String name) throws IOException {
     String path = pathForDatabaseName(name);
-    if ((new File(path)).exists()) {
-      database = DATABASES.get(name);
-    }
-    if (database == null) {
-      DATABASES.remove(name);
-      database = SQLiteDatabase.openOrCreateDatabase(path, null);
-      DATABASES.put(name, database);
+    synchronized (DATABASES) {
+      DatabaseConnection connection = null;
+      if ((new File(path)).exists()) {
+        connection = DATABASES.get(name);
+      }
+      if (connection == null) {
+        DatabaseConnection staleConnection = DATABASES.remove(name);
+        if (staleConnection != null) {
+          staleConnection.close();
+        }
+        connection = new DatabaseConnection(SQLiteDatabase.openOrCreateDatabase(path, null));
+        DATABASES.put(name, connection);
+      }
+      return connection;
     }
-    return database;
   }
 
   private static List<Object> pluginResultsToPrimitiveData(SQLitePluginResult[] results) {
@@ -216,26 +440,7 @@ public class SQLiteModule extends ExportedModule {
     data.add(columnNames);
 
     // rows
-    List<Object> rows = new ArrayList<>();
-    for (int i = 0; i < result.rows.length; i++) {
-      Object[] values = result.rows[i];
-      // row content
-      List<Object> rowContent = new ArrayList<>();
-      for (int j = 0; j < values.length; j++) {
-        Object value = values[j];
-        if (value == null) {
-          rowContent.add(null);
-        } else if (value instanceof String) {
-          rowContent.add((String) value);
-        } else if (value instanceof Boolean) {
-          rowContent.add((Boolean) value);
-        } else {
-          Number v = (Number) value;
-          rowContent.add(v.doubleValue());
-        }
-      }
-      rows.add(rowContent);
-    }
+    List<Object> rows = result.rows;
     data.add(rows);
     return data;
   }
@@ -295,19 +500,25 @@ public class SQLiteModule extends ExportedModule {
     return true;
   }
 
-  private static String[] convertParamsToStringArray(Object paramArrayArg) {
+  // Without typed bindings, booleans and numbers are bound as strings like they always have been,
+  // so existing rows keep matching. Typed bindings bind them as integers or reals.
+  private static Object[] convertParamsToBindArgs(Object paramArrayArg, boolean typedBindings) {
     ArrayList<Object> paramArray = (ArrayList<Object>) paramArrayArg;
     int len = paramArray.size();
-    String[] res = new String[len];
+    Object[] res = new Object[len];
     for (int i = 0; i < len; i++) {
       Object object = paramArray.get(i);
       res[i] = null;
       if (object instanceof String) {
         res[i] = unescapeBlob((String) object);
       } else if (object instanceof Boolean) {
-        res[i] = ((Boolean) object) ? "0" : "1";
+        if (typedBindings) {
+          res[i] = ((Boolean) object) ? 1L : 0L;
+        } else {
+          res[i] = ((Boolean) object) ? "0" : "1";
+        }
       } else if (object instanceof Double) {
-        res[i] = object.toString();
+        res[i] = typedBindings ? toTypedNumber((Double) object) : object.toString();
       } else if (object != null) {
         throw new ClassCastException("Cound not find proper type in SQLite module");
       }
@@ -315,6 +526,19 @@ public class SQLiteModule extends ExportedModule {
     return res;
   }
 
+  // JS only has doubles, whole numbers are bound as integers so they compare equal to INTEGER columns.
+  private static Object toTypedNumber(double value) {
+    if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+      return (long) value;
+    }
+    return value;
+  }
+
+  private static boolean getBooleanOption(Map<String, Object> options, String key) {
+    Object value = options != null ? options.get(key) : null;
+    return value instanceof Boolean && (Boolean) value;
+  }
+
   private static String unescapeBlob(String str) {
     return str.replaceAll("\u0001\u0001", "\u0000")
         .replaceAll("\u0001\u0002", "\u0001")
@@ -322,13 +546,13 @@ public class SQLiteModule extends ExportedModule {
   }
 
   private static class SQLitePluginResult {
-    public final Object[][] rows;
+    public final List<Object> rows;
     public final String[] columns;
     public final int rowsAffected;
     public final long insertId;
     public final Throwable error;
 
-    public SQLitePluginResult(Object[][] rows, String[] columns,
+    public SQLitePluginResult(List<Object> rows, String[] columns,
                               int rowsAffected, long insertId, Throwable error) {
       this.rows = rows;
       this.columns = columns;
@@ -0,0 +1,42 @@
+// Copyright 2015-present 650 Industries. All rights reserved.
+package expo.modules.sqlite;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.LruCache;
+
+/**
+ * LRU cache of compiled statements of a single database, keyed by SQL.
+ * Statements are closed when they're evicted.
+ */
+class StatementCache extends LruCache<String, SQLiteStatement> {
+  private static final int MAX_SIZE = 32;
+
+  private final SQLiteDatabase mDatabase;
+
+  StatementCache(SQLiteDatabase database) {
+    super(MAX_SIZE);
+    mDatabase = database;
+  }
+
+  SQLiteStatement acquire(String sql) {
+    SQLiteStatement statement = remove(sql);
+    if (statement == null) {
+      statement = mDatabase.compileStatement(sql);
+    }
+    return statement;
+  }
+
+  // Gives the statement back to the cache so a later query with the same SQL can reuse it.
+  void release(String sql, SQLiteStatement statement) {
+    statement.clearBindings();
+    put(sql, statement);
+  }
+
+  @Override
+  protected void entryRemoved(boolean evicted, String key, SQLiteStatement oldValue, SQLiteStatement newValue) {
+    if (evicted || (newValue != null && newValue != oldValue)) {
+      oldValue.close();
+    }
+  }
+}
@@ -2,7 +2,7 @@ import './polyfillNextTick';
 
 import zipObject from 'lodash/zipObject';
 import { Platform } from 'react-native';
-import { NativeModulesProxy } from '@unimodules/core';
+import { NativeModulesProxy, UnavailabilityError } from '@unimodules/core';
 import customOpenDatabase from '@expo/websql/custom';
 
 const { ExponentSQLite } = NativeModulesProxy;
@@ -18,11 +18,39 @@ export interface ResultSet {
   rows: Array<{ [column: string]: any }>;
 };
 
+export interface DatabaseOptions {
+  // Android only: run every batch of statements passed to `exec` in a single transaction.
+  useTransactions?: boolean;
+  // Android only: open the database in write-ahead logging journal mode.
+  enableWriteAheadLogging?: boolean;
+  // Android only: bind numbers and booleans passed to `exec` as SQLite integers and reals instead
+  // of strings.
+  typedBindings?: boolean;
+};
+
+export interface CursorFetchOptions {
+  // Return the page as one array of values per column instead of one object per row.
+  columnar?: boolean;
+};
+
+export interface CursorPage {
+  done: boolean;
+  rows?: Array<{ [column: string]: any }>;
+  columns?: { [column: string]: any[] };
+};
+
+export interface SQLiteCursor {
+  columns: string[];
+  fetchAsync(count: number, options?: CursorFetchOptions): Promise<CursorPage>;
+  closeAsync(): Promise<void>;
+};
+
 export type SQLiteCallback = (error?: Error | null, resultSet?: Array<ResultSetError | ResultSet>) => void;
 
 class SQLiteDatabase {
   _name: string;
   _closed: boolean = false;
+  _options: DatabaseOptions | null = null;
 
   constructor(name: string) {
     this._name = name;
@@ -33,7 +61,12 @@ class SQLiteDatabase {
       throw new Error(`The SQLite database is closed`);
     }
 
-    ExponentSQLite.exec(this._name, queries.map(_serializeQuery), readOnly).then(
+    const serializedQueries = queries.map(_serializeQuery);
+    const execPromise =
+      this._options && ExponentSQLite.execWithOptions
+        ? ExponentSQLite.execWithOptions(this._name, serializedQueries, { ...this._options, readOnly })
+        : ExponentSQLite.exec(this._name, serializedQueries, readOnly);
+    execPromise.then(
       nativeResultSets => {
         callback(null, nativeResultSets.map(_deserializeResultSet));
       },
@@ -44,6 +77,31 @@ class SQLiteDatabase {
     );
   }
 
+  async openCursorAsync(query: Query): Promise<SQLiteCursor> {
+    if (this._closed) {
+      throw new Error(`The SQLite database is closed`);
+    }
+    if (!ExponentSQLite.openCursor) {
+      throw new UnavailabilityError('expo-sqlite', 'openCursorAsync');
+    }
+
+    const [sql, args] = _serializeQuery(query);
+    const [cursorId, columns] = await ExponentSQLite.openCursor(this._name, sql, args);
+    return {
+      columns,
+      async fetchAsync(count: number, options: CursorFetchOptions = {}): Promise<CursorPage> {
+        const [done, data] = await ExponentSQLite.fetchCursor(cursorId, count, options);
+        if (options.columnar) {
+          return { done, columns: zipObject(columns, data) };
+        }
+        return { done, rows: data.map(row => zipObject(columns, row)) };
+      },
+      async closeAsync(): Promise<void> {
+        await ExponentSQLite.closeCursor(cursorId);
+      },
+    };
+  }
+
   close() {
     this._closed = true;
     ExponentSQLite.close(this._name);
@@ -88,6 +146,7 @@ function addExecMethod(db: any): WebSQLDatabase {
   db.exec = (queries: Query[], readOnly: boolean, callback: SQLiteCallback): void => {
     db._db.exec(queries, readOnly, callback);
   }
+  db.openCursorAsync = (query: Query): Promise<SQLiteCursor> => db._db.openCursorAsync(query);
   return db;
 }
 
@@ -96,18 +155,23 @@ export function openDatabase(
   version: string = '1.0',
   description: string = name,
   size: number = 1,
-  callback?: (db: WebSQLDatabase) => void
+  callback?: (db: WebSQLDatabase) => void,
+  options?: DatabaseOptions
 ): WebSQLDatabase {
   if (name === undefined) {
     throw new TypeError(`The database name must not be undefined`);
   }
   const db = _openExpoSQLiteDatabase(name, version, description, size, callback);
+  if (options) {
+    db._db._options = options;
+  }
   const dbWithExec = addExecMethod(db);
   return dbWithExec;
 }
 
 export interface WebSQLDatabase {
   exec(queries: Query[], readOnly: boolean, callback: SQLiteCallback): void;
+  openCursorAsync(query: Query): Promise<SQLiteCursor>;
 }
 
 export default {
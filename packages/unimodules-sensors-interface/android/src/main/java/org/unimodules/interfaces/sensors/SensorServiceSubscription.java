@@ -5,6 +5,9 @@ public interface SensorServiceSubscription {
   boolean isEnabled();
   Long getUpdateInterval();
   void setUpdateInterval(long updateInterval);
+  long getMaxReportLatency();
+  // How long, in milliseconds, the sensor may keep events in its hardware FIFO before delivering them.
+  void setMaxReportLatency(long maxReportLatency);
   void stop();
   void release();
 }